@@ -0,0 +1,153 @@
+package algorithm.string;
+
+import algorithm.string.base.Matcher;
+
+/**
+ * BoyerMoore
+ *
+ * 模式串从右往左比较 失配时取两条规则中移动距离较大的那个
+ * ◼ 坏字符规则：失配的文本字符在模式串中最后一次出现的位置 和它对齐
+ * ◼ 好后缀规则：已经匹配的后缀在模式串中的另一次出现（或者它的后缀与模式串的前缀相同）和它对齐
+ * 模式串越长、字符集越大 每次能跳过的字符就越多 最好情况O(n / m)
+ *
+ * @author avril
+ *
+ */
+public class BoyerMoore extends Matcher {
+	/* 坏字符表：字符（所在的桶）在模式串中最后一次出现的位置到模式串末尾的距离 */
+	private final int[] charBadChar;
+	private final int[] byteBadChar;
+
+	/* 好后缀表：pattern[i]失配时模式串移动的距离 */
+	private final int[] charGoodSuffix;
+	private final int[] byteGoodSuffix;
+
+	public BoyerMoore(CharSequence pattern) {
+		super(pattern);
+		charBadChar = badChar(codes(chars));
+		byteBadChar = badChar(codes(bytes));
+		charGoodSuffix = goodSuffix(codes(chars));
+		byteGoodSuffix = goodSuffix(codes(bytes));
+	}
+
+	public BoyerMoore(byte[] pattern) {
+		super(pattern);
+		charBadChar = badChar(codes(chars));
+		byteBadChar = badChar(codes(bytes));
+		charGoodSuffix = goodSuffix(codes(chars));
+		byteGoodSuffix = goodSuffix(codes(bytes));
+	}
+
+	@Override
+	protected int search(CharSequence text, int from, Visitor visitor) {
+		int m = chars.length;
+		int max = text.length() - m;
+		int ti = from;
+		while (ti <= max) {
+			int pi = m - 1;
+			char c;
+			while ((c = text.charAt(ti + pi)) == chars[pi]) {
+				if (--pi < 0) break;
+			}
+			if (pi < 0) {
+				if (visitor.visit(ti)) return ti;
+				ti += charGoodSuffix[0];
+			} else {
+				ti += Math.max(charGoodSuffix[pi], charBadChar[c & 0xff] - m + 1 + pi);
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	protected int search(byte[] text, int from, Visitor visitor) {
+		int m = bytes.length;
+		int max = text.length - m;
+		int ti = from;
+		while (ti <= max) {
+			int pi = m - 1;
+			byte b;
+			while ((b = text[ti + pi]) == bytes[pi]) {
+				if (--pi < 0) break;
+			}
+			if (pi < 0) {
+				if (visitor.visit(ti)) return ti;
+				ti += byteGoodSuffix[0];
+			} else {
+				ti += Math.max(byteGoodSuffix[pi], byteBadChar[b & 0xff] - m + 1 + pi);
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * 坏字符表 没有出现过的字符为m（整个模式串都可以移过去）
+	 * 多个字符落在同一个桶时 后面的会覆盖前面的 保留的就是最靠右的位置（移动距离最小 不会漏掉匹配）
+	 * @param pattern
+	 */
+	private static int[] badChar(int[] pattern) {
+		int m = pattern.length;
+		int[] table = new int[ALPHABET];
+		for (int i = 0; i < ALPHABET; i++) {
+			table[i] = m;
+		}
+		for (int i = 0; i < m - 1; i++) {
+			table[pattern[i] & 0xff] = m - 1 - i;
+		}
+		return table;
+	}
+
+	/**
+	 * 好后缀表
+	 * suffix[i]：以pattern[i]结尾的子串 与模式串的公共后缀的最大长度
+	 * ◼ 先假设已经匹配的后缀在模式串中没有再次出现 只能整体移动m
+	 * ◼ 如果suffix[i] == i + 1 说明pattern[0, i]既是前缀又是后缀 失配位置在m - 1 - i左边的 最多移动m - 1 - i
+	 * ◼ 已经匹配的后缀在pattern[i - suffix[i] + 1, i]处再次出现 把它对齐 移动m - 1 - i
+	 * @param pattern
+	 */
+	private static int[] goodSuffix(int[] pattern) {
+		int m = pattern.length;
+		int[] table = new int[m];
+		if (m == 0) return table;
+		int[] suffix = suffix(pattern);
+		for (int i = 0; i < m; i++) {
+			table[i] = m;
+		}
+		int j = 0;
+		for (int i = m - 1; i >= 0; i--) {
+			if (suffix[i] != i + 1) continue;
+			for (; j < m - 1 - i; j++) {
+				if (table[j] == m) table[j] = m - 1 - i;
+			}
+		}
+		for (int i = 0; i < m - 1; i++) {
+			table[m - 1 - suffix[i]] = m - 1 - i;
+		}
+		return table;
+	}
+
+	/**
+	 * 计算suffix数组（利用已经算过的区间[g, f]避免重复比较 O(m)）
+	 * @param pattern
+	 */
+	private static int[] suffix(int[] pattern) {
+		int m = pattern.length;
+		int[] suffix = new int[m];
+		suffix[m - 1] = m;
+		int f = m - 1;
+		int g = m - 1;
+		for (int i = m - 2; i >= 0; i--) {
+			if (i > g && suffix[i + m - 1 - f] < i - g) {
+				suffix[i] = suffix[i + m - 1 - f];
+			} else {
+				if (i < g) g = i;
+				f = i;
+				while (g >= 0 && pattern[g] == pattern[g + m - 1 - f]) {
+					g--;
+				}
+				suffix[i] = f - g;
+			}
+		}
+		return suffix;
+	}
+}
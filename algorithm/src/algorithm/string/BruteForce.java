@@ -0,0 +1,55 @@
+package algorithm.string;
+
+import algorithm.string.base.Matcher;
+
+/**
+ * BruteForce 蛮力匹配
+ *
+ * 模式串从文本串的每一个位置开始逐个字符比较 失配时模式串往右移动一位
+ * 最坏时间复杂度O(nm) 不需要预处理 模式串很短时反而是最快的
+ *
+ * @author avril
+ *
+ */
+public class BruteForce extends Matcher {
+
+	public BruteForce(CharSequence pattern) {
+		super(pattern);
+	}
+
+	public BruteForce(byte[] pattern) {
+		super(pattern);
+	}
+
+	@Override
+	protected int search(CharSequence text, int from, Visitor visitor) {
+		int m = chars.length;
+		int max = text.length() - m;
+		char first = chars[0];
+		for (int ti = from; ti <= max; ti++) {
+			if (text.charAt(ti) != first) continue;
+			int pi = 1;
+			while (pi < m && text.charAt(ti + pi) == chars[pi]) {
+				pi++;
+			}
+			if (pi == m && visitor.visit(ti)) return ti;
+		}
+		return -1;
+	}
+
+	@Override
+	protected int search(byte[] text, int from, Visitor visitor) {
+		int m = bytes.length;
+		int max = text.length - m;
+		byte first = bytes[0];
+		for (int ti = from; ti <= max; ti++) {
+			if (text[ti] != first) continue;
+			int pi = 1;
+			while (pi < m && text[ti + pi] == bytes[pi]) {
+				pi++;
+			}
+			if (pi == m && visitor.visit(ti)) return ti;
+		}
+		return -1;
+	}
+}
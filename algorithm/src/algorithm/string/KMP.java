@@ -0,0 +1,95 @@
+package algorithm.string;
+
+import algorithm.string.base.Matcher;
+
+/**
+ * KMP
+ *
+ * 失配时 文本串的指针不回退 模式串根据next表跳到合适的位置继续比较
+ * next[i]：模式串前i个字符组成的子串 真前缀和真后缀的最大公共长度（next[0] = -1）
+ * 时间复杂度O(n + m) 适合字符集小、模式串中有很多重复的场景（例如DNA序列）
+ *
+ * next的长度是m + 1：完全匹配之后 模式串跳到next[m]继续查找下一个（允许重叠）
+ *
+ * @author avril
+ *
+ */
+public class KMP extends Matcher {
+	/* char版本、byte版本的next表 */
+	private final int[] charNext;
+	private final int[] byteNext;
+
+	public KMP(CharSequence pattern) {
+		super(pattern);
+		charNext = next(codes(chars));
+		byteNext = next(codes(bytes));
+	}
+
+	public KMP(byte[] pattern) {
+		super(pattern);
+		charNext = next(codes(chars));
+		byteNext = next(codes(bytes));
+	}
+
+	@Override
+	protected int search(CharSequence text, int from, Visitor visitor) {
+		int m = chars.length;
+		int n = text.length();
+		int pi = 0;
+		for (int ti = from; ti < n; ) {
+			if (pi < 0 || text.charAt(ti) == chars[pi]) {
+				ti++;
+				pi++;
+				if (pi == m) {
+					if (visitor.visit(ti - m)) return ti - m;
+					pi = charNext[m];
+				}
+			} else {
+				pi = charNext[pi];
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	protected int search(byte[] text, int from, Visitor visitor) {
+		int m = bytes.length;
+		int n = text.length;
+		int pi = 0;
+		for (int ti = from; ti < n; ) {
+			if (pi < 0 || text[ti] == bytes[pi]) {
+				ti++;
+				pi++;
+				if (pi == m) {
+					if (visitor.visit(ti - m)) return ti - m;
+					pi = byteNext[m];
+				}
+			} else {
+				pi = byteNext[pi];
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * 构造next表
+	 * 已知next[i] = n 说明pattern[0, n)和pattern[i - n, i)相等
+	 * 如果pattern[i] == pattern[n] 那么next[i + 1] = n + 1
+	 * 否则继续看更短的公共前后缀next[n]
+	 * @param pattern
+	 */
+	private static int[] next(int[] pattern) {
+		int[] next = new int[pattern.length + 1];
+		next[0] = -1;
+		int i = 0;
+		int n = -1;
+		while (i < pattern.length) {
+			if (n < 0 || pattern[i] == pattern[n]) {
+				next[++i] = ++n;
+			} else {
+				n = next[n];
+			}
+		}
+		return next;
+	}
+}
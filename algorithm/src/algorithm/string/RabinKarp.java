@@ -0,0 +1,106 @@
+package algorithm.string;
+
+import algorithm.string.base.Matcher;
+
+/**
+ * RabinKarp
+ *
+ * 把长度为m的子串看成一个BASE进制的数（对2^64取模 也就是让long自然溢出）
+ * 窗口每往右移动一位 去掉最高位、加上最低位 O(1)就能算出新窗口的哈希值（滚动哈希）
+ * 哈希值相等时再逐个字符比较 排除哈希冲突
+ * 平均时间复杂度O(n + m) 更适合同时查找多个长度相同的模式串
+ *
+ * @author avril
+ *
+ */
+public class RabinKarp extends Matcher {
+	/* 进制（奇数 在模2^64下可逆） */
+	private static final long BASE = 1_000_003L;
+
+	/* 模式串的哈希值 */
+	private final long charHash;
+	private final long byteHash;
+
+	/* BASE ^ (m - 1) 用于去掉窗口的最高位 */
+	private final long charPower;
+	private final long bytePower;
+
+	public RabinKarp(CharSequence pattern) {
+		super(pattern);
+		charHash = hash(codes(chars));
+		byteHash = hash(codes(bytes));
+		charPower = power(chars.length);
+		bytePower = power(bytes.length);
+	}
+
+	public RabinKarp(byte[] pattern) {
+		super(pattern);
+		charHash = hash(codes(chars));
+		byteHash = hash(codes(bytes));
+		charPower = power(chars.length);
+		bytePower = power(bytes.length);
+	}
+
+	@Override
+	protected int search(CharSequence text, int from, Visitor visitor) {
+		int m = chars.length;
+		int n = text.length();
+		long hash = 0;
+		for (int i = 0; i < m; i++) {
+			hash = hash * BASE + text.charAt(from + i);
+		}
+		for (int ti = from; ; ti++) {
+			if (hash == charHash && equals(text, ti) && visitor.visit(ti)) return ti;
+			if (ti + m >= n) return -1;
+			hash = (hash - text.charAt(ti) * charPower) * BASE + text.charAt(ti + m);
+		}
+	}
+
+	@Override
+	protected int search(byte[] text, int from, Visitor visitor) {
+		int m = bytes.length;
+		int n = text.length;
+		long hash = 0;
+		for (int i = 0; i < m; i++) {
+			hash = hash * BASE + (text[from + i] & 0xff);
+		}
+		for (int ti = from; ; ti++) {
+			if (hash == byteHash && equals(text, ti) && visitor.visit(ti)) return ti;
+			if (ti + m >= n) return -1;
+			hash = (hash - (text[ti] & 0xff) * bytePower) * BASE + (text[ti + m] & 0xff);
+		}
+	}
+
+	/**
+	 * 哈希值相等之后 逐个字符确认
+	 */
+	private boolean equals(CharSequence text, int from) {
+		for (int i = 0; i < chars.length; i++) {
+			if (text.charAt(from + i) != chars[i]) return false;
+		}
+		return true;
+	}
+
+	private boolean equals(byte[] text, int from) {
+		for (int i = 0; i < bytes.length; i++) {
+			if (text[from + i] != bytes[i]) return false;
+		}
+		return true;
+	}
+
+	private static long hash(int[] pattern) {
+		long hash = 0;
+		for (int code : pattern) {
+			hash = hash * BASE + code;
+		}
+		return hash;
+	}
+
+	private static long power(int m) {
+		long power = 1;
+		for (int i = 1; i < m; i++) {
+			power *= BASE;
+		}
+		return power;
+	}
+}
@@ -0,0 +1,83 @@
+package algorithm.string;
+
+import algorithm.string.base.Matcher;
+
+/**
+ * Sunday
+ *
+ * 模式串从左往右比较 失配时看文本串中紧跟在模式串后面的那个字符
+ * 把它和模式串中最后一次出现的位置对齐 没有出现过就直接跳过它（移动m + 1）
+ * 实现简单 平均情况下比BoyerMoore还要快一些 模式串短、字符集大时尤其明显
+ *
+ * @author avril
+ *
+ */
+public class Sunday extends Matcher {
+	/* 移动表：字符（所在的桶）在模式串中最后一次出现的位置到模式串末尾之后的距离 */
+	private final int[] charShift;
+	private final int[] byteShift;
+
+	public Sunday(CharSequence pattern) {
+		super(pattern);
+		charShift = shift(codes(chars));
+		byteShift = shift(codes(bytes));
+	}
+
+	public Sunday(byte[] pattern) {
+		super(pattern);
+		charShift = shift(codes(chars));
+		byteShift = shift(codes(bytes));
+	}
+
+	@Override
+	protected int search(CharSequence text, int from, Visitor visitor) {
+		int m = chars.length;
+		int n = text.length();
+		int max = n - m;
+		int ti = from;
+		while (ti <= max) {
+			int pi = 0;
+			while (pi < m && text.charAt(ti + pi) == chars[pi]) {
+				pi++;
+			}
+			if (pi == m && visitor.visit(ti)) return ti;
+			if (ti + m >= n) break;
+			ti += charShift[text.charAt(ti + m) & 0xff];
+		}
+		return -1;
+	}
+
+	@Override
+	protected int search(byte[] text, int from, Visitor visitor) {
+		int m = bytes.length;
+		int n = text.length;
+		int max = n - m;
+		int ti = from;
+		while (ti <= max) {
+			int pi = 0;
+			while (pi < m && text[ti + pi] == bytes[pi]) {
+				pi++;
+			}
+			if (pi == m && visitor.visit(ti)) return ti;
+			if (ti + m >= n) break;
+			ti += byteShift[text[ti + m] & 0xff];
+		}
+		return -1;
+	}
+
+	/**
+	 * 移动表 没有出现过的字符为m + 1 同一个桶保留最靠右的位置（移动距离最小）
+	 * @param pattern
+	 */
+	private static int[] shift(int[] pattern) {
+		int m = pattern.length;
+		int[] table = new int[ALPHABET];
+		for (int i = 0; i < ALPHABET; i++) {
+			table[i] = m + 1;
+		}
+		for (int i = 0; i < m; i++) {
+			table[pattern[i] & 0xff] = m - i;
+		}
+		return table;
+	}
+}
@@ -0,0 +1,212 @@
+package algorithm.string.base;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Matcher 字符串匹配（在文本串中查找模式串）
+ *
+ * 模式串只需要预处理一次 之后可以在任意多个文本串中查找
+ * 文本串可以是CharSequence 也可以是byte[]（例如直接从日志文件中读出来的字节）
+ * ◼ 用CharSequence创建时 在byte[]中查找的是模式串的UTF-8编码
+ * ◼ 用byte[]创建时 在CharSequence中查找的是每个字节对应的字符（0 ~ 255）
+ *
+ * 每种算法都要针对char和byte分别预处理 并分别实现search
+ * 需要按字符建表的算法（坏字符表） 把字符映射到256个桶里（取低8位）
+ * 同一个桶取最保守的值 这样char的表也只需要256项 移动的距离只会偏小 不会漏掉匹配
+ *
+ * @author avril
+ *
+ */
+public abstract class Matcher {
+	/* 表的大小（字节的取值范围） */
+	protected static final int ALPHABET = 256;
+
+	/* 模式串（char版本、byte版本） */
+	protected final char[] chars;
+	protected final byte[] bytes;
+
+	protected Matcher(CharSequence pattern) {
+		if (pattern == null) {
+			throw new IllegalArgumentException("pattern must not be null.");
+		}
+		String string = pattern.toString();
+		chars = string.toCharArray();
+		bytes = string.getBytes(StandardCharsets.UTF_8);
+	}
+
+	protected Matcher(byte[] pattern) {
+		if (pattern == null) {
+			throw new IllegalArgumentException("pattern must not be null.");
+		}
+		bytes = pattern.clone();
+		chars = new char[bytes.length];
+		for (int i = 0; i < bytes.length; i++) {
+			chars[i] = (char) (bytes[i] & 0xff);
+		}
+	}
+
+	/**
+	 * 模式串的长度（字符数）
+	 */
+	public int length() {
+		return chars.length;
+	}
+
+	/**
+	 * 模式串在文本串中第一次出现的位置（不存在时返回-1）
+	 * @param text
+	 */
+	public int indexOf(CharSequence text) {
+		return indexOf(text, 0);
+	}
+
+	/**
+	 * 从from开始 模式串在文本串中第一次出现的位置（不存在时返回-1）
+	 * @param text
+	 * @param from
+	 */
+	public int indexOf(CharSequence text, int from) {
+		textNotNullCheck(text);
+		return find(text, from, index -> true);
+	}
+
+	/**
+	 * 模式串在文本串中第一次出现的位置（不存在时返回-1）
+	 * @param text
+	 */
+	public int indexOf(byte[] text) {
+		return indexOf(text, 0);
+	}
+
+	/**
+	 * 从from开始 模式串在文本串中第一次出现的位置（不存在时返回-1）
+	 * @param text
+	 * @param from
+	 */
+	public int indexOf(byte[] text, int from) {
+		textNotNullCheck(text);
+		return find(text, from, index -> true);
+	}
+
+	/**
+	 * 模式串在文本串中出现的次数（出现的位置可以重叠）
+	 * @param text
+	 */
+	public int count(CharSequence text) {
+		int[] count = { 0 };
+		findAll(text, index -> {
+			count[0]++;
+			return false;
+		});
+		return count[0];
+	}
+
+	/**
+	 * 模式串在文本串中出现的次数（出现的位置可以重叠）
+	 * @param text
+	 */
+	public int count(byte[] text) {
+		int[] count = { 0 };
+		findAll(text, index -> {
+			count[0]++;
+			return false;
+		});
+		return count[0];
+	}
+
+	/**
+	 * 从左到右访问模式串在文本串中出现的每一个位置
+	 * @param text
+	 * @param visitor 返回true时停止
+	 */
+	public void findAll(CharSequence text, Visitor visitor) {
+		textNotNullCheck(text);
+		if (visitor == null) return;
+		find(text, 0, visitor);
+	}
+
+	/**
+	 * 从左到右访问模式串在文本串中出现的每一个位置
+	 * @param text
+	 * @param visitor 返回true时停止
+	 */
+	public void findAll(byte[] text, Visitor visitor) {
+		textNotNullCheck(text);
+		if (visitor == null) return;
+		find(text, 0, visitor);
+	}
+
+	private int find(CharSequence text, int from, Visitor visitor) {
+		from = Math.max(from, 0);
+		if (chars.length == 0) return visitEmpty(from, text.length(), visitor);
+		if (text.length() - from < chars.length) return -1;
+		return search(text, from, visitor);
+	}
+
+	private int find(byte[] text, int from, Visitor visitor) {
+		from = Math.max(from, 0);
+		if (bytes.length == 0) return visitEmpty(from, text.length, visitor);
+		if (text.length - from < bytes.length) return -1;
+		return search(text, from, visitor);
+	}
+
+	/**
+	 * 空串在每个位置都出现（包括末尾）
+	 */
+	private int visitEmpty(int from, int length, Visitor visitor) {
+		for (int i = from; i <= length; i++) {
+			if (visitor.visit(i)) return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * 从from开始依次访问每一个匹配的位置（交由子类去实现）
+	 * 调用之前已经保证了模式串不为空 并且text.length() - from >= 模式串的长度
+	 * @param text
+	 * @param from
+	 * @param visitor
+	 * @return visitor返回true时的位置 全部访问完时返回-1
+	 */
+	protected abstract int search(CharSequence text, int from, Visitor visitor);
+
+	/**
+	 * 从from开始依次访问每一个匹配的位置（交由子类去实现）
+	 * @see #search(CharSequence, int, Visitor)
+	 */
+	protected abstract int search(byte[] text, int from, Visitor visitor);
+
+	/**
+	 * 把模式串转换成int数组（byte按无符号处理） 方便char和byte共用同一套预处理
+	 * @param pattern
+	 */
+	protected static int[] codes(char[] pattern) {
+		int[] codes = new int[pattern.length];
+		for (int i = 0; i < pattern.length; i++) {
+			codes[i] = pattern[i];
+		}
+		return codes;
+	}
+
+	protected static int[] codes(byte[] pattern) {
+		int[] codes = new int[pattern.length];
+		for (int i = 0; i < pattern.length; i++) {
+			codes[i] = pattern[i] & 0xff;
+		}
+		return codes;
+	}
+
+	private void textNotNullCheck(Object text) {
+		if (text == null) {
+			throw new IllegalArgumentException("text must not be null.");
+		}
+	}
+
+	/**
+	 * 访问器
+	 */
+	@FunctionalInterface
+	public static interface Visitor {
+		boolean visit(int index);
+	}
+}
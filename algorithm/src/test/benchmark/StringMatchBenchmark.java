@@ -0,0 +1,121 @@
+package test.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.function.Function;
+
+import algorithm.string.BoyerMoore;
+import algorithm.string.BruteForce;
+import algorithm.string.KMP;
+import algorithm.string.RabinKarp;
+import algorithm.string.Sunday;
+import algorithm.string.base.Matcher;
+
+/**
+ * 各种字符串匹配算法在不同模式串长度、字符集大小下的对比
+ * ◼ 日志：字符集大（可打印ASCII） 模式串从短到长
+ * ◼ DNA：字符集只有4个字符 模式串从短到长
+ * 每种情况都统计在整个文本中出现的次数 分别测试String和byte[]
+ *
+ * @author avril
+ *
+ */
+public class StringMatchBenchmark {
+	/* 文本的长度（字符数） */
+	private static final int TEXT_LENGTH = 16 << 20;
+
+	/* 每个测试重复的次数（取最快的一次） */
+	private static final int ROUNDS = 5;
+
+	private static final String[] LEVELS = { "INFO", "INFO", "INFO", "DEBUG", "WARN", "ERROR" };
+	private static final String[] ACTIONS = { "login", "logout", "query", "update", "upload" };
+
+	public static void main(String[] args) {
+		Random random = new Random(19);
+
+		String log = log(random);
+		System.out.println("==================== 日志（可打印ASCII） ====================");
+		test(log, "ERROR");
+		test(log, "status=503");
+		test(log, "action=upload status=503 latency=9");
+		test(log, "request_id=00000000-0000-0000-0000-000000000000");
+
+		String dna = dna(random);
+		System.out.println("==================== DNA（ACGT） ====================");
+		for (int length : new int[] { 4, 8, 16, 64 }) {
+			int begin = random.nextInt(dna.length() - length);
+			test(dna, dna.substring(begin, begin + length));
+		}
+	}
+
+	/**
+	 * 生成日志文本
+	 */
+	private static String log(Random random) {
+		StringBuilder sb = new StringBuilder(TEXT_LENGTH + 256);
+		long time = 1_600_000_000_000L;
+		while (sb.length() < TEXT_LENGTH) {
+			time += random.nextInt(100);
+			sb.append(time).append(' ')
+				.append(LEVELS[random.nextInt(LEVELS.length)]).append(" [worker-").append(random.nextInt(16)).append("] ")
+				.append("request_id=").append(Long.toHexString(random.nextLong())).append(' ')
+				.append("user=").append(random.nextInt(100_000)).append(' ')
+				.append("action=").append(ACTIONS[random.nextInt(ACTIONS.length)]).append(' ')
+				.append("status=").append(random.nextInt(50) == 0 ? 503 : 200).append(' ')
+				.append("latency=").append(random.nextInt(1000)).append("ms\n");
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * 生成DNA序列
+	 */
+	private static String dna(Random random) {
+		char[] chars = new char[TEXT_LENGTH];
+		for (int i = 0; i < chars.length; i++) {
+			chars[i] = "ACGT".charAt(random.nextInt(4));
+		}
+		return new String(chars);
+	}
+
+	private static void test(String text, String pattern) {
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		System.out.println("【" + pattern + "】 长度：" + pattern.length());
+
+		// String.indexOf作为参照
+		int count = 0;
+		long best = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			long begin = System.nanoTime();
+			count = 0;
+			for (int i = text.indexOf(pattern); i >= 0; i = text.indexOf(pattern, i + 1)) {
+				count++;
+			}
+			best = Math.min(best, System.nanoTime() - begin);
+		}
+		System.out.printf("%-12s 次数：%-8d String：%6.1fms%n", "indexOf", count, best / 1e6);
+
+		test("BruteForce", BruteForce::new, text, bytes, pattern);
+		test("KMP", KMP::new, text, bytes, pattern);
+		test("BoyerMoore", BoyerMoore::new, text, bytes, pattern);
+		test("Sunday", Sunday::new, text, bytes, pattern);
+		test("RabinKarp", RabinKarp::new, text, bytes, pattern);
+	}
+
+	private static void test(String name, Function<String, Matcher> compiler, String text, byte[] bytes, String pattern) {
+		Matcher matcher = compiler.apply(pattern);
+		int count = 0;
+		long bestString = Long.MAX_VALUE;
+		long bestBytes = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			long begin = System.nanoTime();
+			count = matcher.count(text);
+			bestString = Math.min(bestString, System.nanoTime() - begin);
+
+			begin = System.nanoTime();
+			matcher.count(bytes);
+			bestBytes = Math.min(bestBytes, System.nanoTime() - begin);
+		}
+		System.out.printf("%-12s 次数：%-8d String：%6.1fms byte[]：%6.1fms%n", name, count, bestString / 1e6, bestBytes / 1e6);
+	}
+}
@@ -106,7 +106,7 @@ public class BinaryHeap<E> extends AbstractHeap<E> implements Heap<E>, BinaryTre
         if (oldCapacity >= capacity) return;
         
         // 容量不够时，自动扩容到原来的1.5倍
-        int newCapacity = oldCapacity + oldCapacity >> 1; 
+        int newCapacity = Math.max(oldCapacity + (oldCapacity >> 1), capacity);
         E[] newElements = (E[]) new Object[newCapacity];
         for (int i = 0; i < elements.length; i++) {
             newElements[i] = elements[i];
@@ -0,0 +1,776 @@
+package struct.map;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Objects;
+
+import struct.map.base.Map;
+
+/**
+ * BPlusTreeMap B+树映射
+ *
+ * ◼ 每个节点最多有order个子节点（最多order - 1个key） 除了根节点以外 至少要有一半
+ * ◼ 所有的键值对都存放在叶子节点中 内部节点只存放用于导航的key
+ * ◼ 叶子节点之间通过next、prev串成双向链表 范围遍历找到起点之后直接沿着链表往右走
+ * ◼ 所有的叶子节点都在同一层 树的高度是O(log_order(n))
+ *
+ * 和二叉的TreeMap相比 一个节点里的key连续存放在一个数组中 在节点内二分查找
+ * 一次查找只需要访问很少的几个节点 缓存未命中的次数大大减少
+ * order的选择：一个key引用占4字节（开启压缩指针） 64阶的节点大约是4个缓存行
+ * 数据量很大、更看重范围遍历时可以选择更大的order（例如256 大约是一个4KB的页）
+ *
+ * 内部节点keys[i]的含义：children[i]中所有的key < keys[i] <= children[i + 1]中所有的key
+ *
+ * @author avril
+ *
+ * @param <K, V>
+ */
+@SuppressWarnings("unchecked")
+public class BPlusTreeMap<K, V> implements Map<K, V> {
+	/* 默认的阶数 */
+	public static final int DEFAULT_ORDER = 64;
+
+	/* 每个节点最多的key数量（order - 1） */
+	private final int maxKeys;
+
+	/* 除根节点以外 每个节点最少的key数量 */
+	private final int minKeys;
+
+	/* 数量 */
+	private int size;
+
+	/* 内部节点的层数（根节点是叶子节点时为0） */
+	private int height;
+
+	/* 根节点 */
+	private Node root;
+
+	/* 比较器 */
+	private Comparator<K> comparator;
+
+	public BPlusTreeMap() {
+		this(DEFAULT_ORDER, null);
+	}
+
+	public BPlusTreeMap(Comparator<K> comparator) {
+		this(DEFAULT_ORDER, comparator);
+	}
+
+	public BPlusTreeMap(int order) {
+		this(order, null);
+	}
+
+	/**
+	 * @param order 阶数（每个节点最多的子节点数量 至少为3）
+	 * @param comparator
+	 */
+	public BPlusTreeMap(int order, Comparator<K> comparator) {
+		if (order < 3) {
+			throw new IllegalArgumentException("order must be at least 3.");
+		}
+		this.maxKeys = order - 1;
+		this.minKeys = maxKeys >> 1;
+		this.comparator = comparator;
+	}
+
+	/**
+	 * 用已经排好序（升序并且不重复）的键值对批量构建 O(n)
+	 * @param keys
+	 * @param values 可以为null（所有的value都为null）
+	 * @param comparator
+	 */
+	public static <K, V> BPlusTreeMap<K, V> fromSorted(K[] keys, V[] values, Comparator<K> comparator) {
+		return fromSorted(DEFAULT_ORDER, keys, values, comparator);
+	}
+
+	/**
+	 * 用已经排好序（升序并且不重复）的键值对批量构建 O(n)
+	 * @param order 阶数
+	 * @param keys
+	 * @param values 可以为null（所有的value都为null）
+	 * @param comparator
+	 */
+	public static <K, V> BPlusTreeMap<K, V> fromSorted(int order, K[] keys, V[] values, Comparator<K> comparator) {
+		if (keys == null) {
+			throw new IllegalArgumentException("keys must not be null.");
+		}
+		if (values != null && values.length != keys.length) {
+			throw new IllegalArgumentException("values must have the same length as keys.");
+		}
+		return fromSorted(order, keys.length, Arrays.asList(keys).iterator(),
+				values == null ? null : Arrays.asList(values).iterator(), comparator);
+	}
+
+	/**
+	 * 用已经排好序（升序并且不重复）的迭代器批量构建 O(n)
+	 * 自底向上构建：先把键值对平均分配到尽量少的叶子节点中 再逐层往上建立内部节点
+	 * 除了根节点以外 每个节点都是满的或者接近满的 不需要任何分裂
+	 * @param order 阶数
+	 * @param size 键值对的数量
+	 * @param keys
+	 * @param values 可以为null（所有的value都为null）
+	 * @param comparator
+	 */
+	public static <K, V> BPlusTreeMap<K, V> fromSorted(int order, int size, Iterator<K> keys,
+			Iterator<V> values, Comparator<K> comparator) {
+		if (size < 0 || keys == null) {
+			throw new IllegalArgumentException("size must not be negative and keys must not be null.");
+		}
+		BPlusTreeMap<K, V> map = new BPlusTreeMap<>(order, comparator);
+		if (size == 0) return map;
+
+		// 叶子节点
+		int count = (size + map.maxKeys - 1) / map.maxKeys;
+		Node[] nodes = new Node[count];
+		Object[] firstKeys = new Object[count];
+		K prevKey = null;
+		Leaf prevLeaf = null;
+		for (int i = 0; i < count; i++) {
+			Leaf leaf = new Leaf(map.maxKeys);
+			int n = share(size, count, i);
+			for (int j = 0; j < n; j++) {
+				K key = keys.next();
+				map.keyNotNullCheck(key);
+				if (prevKey != null && map.compare(prevKey, key) >= 0) {
+					throw new IllegalArgumentException("keys must be sorted in ascending order without duplicates.");
+				}
+				leaf.keys[j] = key;
+				leaf.values[j] = values == null ? null : values.next();
+				prevKey = key;
+			}
+			leaf.size = n;
+			leaf.prev = prevLeaf;
+			if (prevLeaf != null) prevLeaf.next = leaf;
+			prevLeaf = leaf;
+			nodes[i] = leaf;
+			firstKeys[i] = leaf.keys[0];
+		}
+
+		// 内部节点 每一层的子节点平均分给上一层
+		while (count > 1) {
+			int parentCount = (count + order - 1) / order;
+			Node[] parents = new Node[parentCount];
+			Object[] parentFirstKeys = new Object[parentCount];
+			int child = 0;
+			for (int i = 0; i < parentCount; i++) {
+				Internal parent = new Internal(map.maxKeys);
+				int n = share(count, parentCount, i);
+				parentFirstKeys[i] = firstKeys[child];
+				for (int j = 0; j < n; j++, child++) {
+					parent.children[j] = nodes[child];
+					if (j > 0) parent.keys[j - 1] = firstKeys[child];
+				}
+				parent.size = n - 1;
+				parents[i] = parent;
+			}
+			nodes = parents;
+			firstKeys = parentFirstKeys;
+			count = parentCount;
+			map.height++;
+		}
+		map.root = nodes[0];
+		map.size = size;
+		return map;
+	}
+
+	/**
+	 * 把total个元素平均分成parts份 第index份的数量
+	 */
+	private static int share(int total, int parts, int index) {
+		return total / parts + (index < total % parts ? 1 : 0);
+	}
+
+	/**
+	 * 包含元素的数量
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * 是否为空
+	 */
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * 清空元素
+	 */
+	@Override
+	public void clear() {
+		root = null;
+		height = 0;
+		size = 0;
+	}
+
+	/**
+	 * 添加键值对
+	 * 找到key所在的叶子节点插入 叶子节点溢出时分裂成两半 右半部分的第一个key上升到父节点
+	 * 父节点溢出时继续分裂（中间的key上升） 根节点分裂时树的高度加1
+	 * @return 原本key对应的值
+	 */
+	@Override
+	public V put(K key, V value) {
+		keyNotNullCheck(key);
+
+		if (root == null) { // 添加第一个键值对
+			Leaf leaf = new Leaf(maxKeys);
+			leaf.keys[0] = key;
+			leaf.values[0] = value;
+			leaf.size = 1;
+			root = leaf;
+			size = 1;
+			return null;
+		}
+
+		// 记录从根节点到叶子节点的路径
+		Internal[] path = new Internal[height];
+		int[] indexes = new int[height];
+		Node node = root;
+		for (int depth = 0; depth < height; depth++) {
+			Internal internal = (Internal) node;
+			int index = childIndex(internal, key);
+			path[depth] = internal;
+			indexes[depth] = index;
+			node = internal.children[index];
+		}
+
+		Leaf leaf = (Leaf) node;
+		int index = leafIndex(leaf, key);
+		if (index >= 0) { // 已经存在 覆盖
+			V oldValue = (V) leaf.values[index];
+			leaf.values[index] = value;
+			return oldValue;
+		}
+		leaf.insert(-index - 1, key, value);
+		size++;
+		if (leaf.size <= maxKeys) return null;
+
+		// 叶子节点溢出 分裂
+		Node right = leaf.split();
+		Object upKey = ((Leaf) right).keys[0];
+		for (int depth = height - 1; depth >= 0; depth--) {
+			Internal parent = path[depth];
+			parent.insert(indexes[depth], upKey, right);
+			if (parent.size <= maxKeys) return null;
+			// 内部节点溢出 中间的key上升
+			upKey = parent.keys[parent.size >> 1];
+			right = parent.split();
+		}
+
+		// 根节点分裂
+		Internal newRoot = new Internal(maxKeys);
+		newRoot.keys[0] = upKey;
+		newRoot.children[0] = root;
+		newRoot.children[1] = right;
+		newRoot.size = 1;
+		root = newRoot;
+		height++;
+		return null;
+	}
+
+	/**
+	 * 通过key获取value
+	 * @param key
+	 */
+	@Override
+	public V get(K key) {
+		keyNotNullCheck(key);
+		Leaf leaf = leaf(key);
+		if (leaf == null) return null;
+		int index = leafIndex(leaf, key);
+		return index >= 0 ? (V) leaf.values[index] : null;
+	}
+
+	/**
+	 * 删除key
+	 * 叶子节点的key数量不足时 优先向兄弟节点借一个（同时更新父节点中的key）
+	 * 兄弟节点也借不出来时 和兄弟节点合并 父节点少一个key 可能继续向上合并
+	 * 根节点只剩一个子节点时 树的高度减1
+	 * @param key
+	 */
+	@Override
+	public V remove(K key) {
+		keyNotNullCheck(key);
+		if (root == null) return null;
+
+		Internal[] path = new Internal[height];
+		int[] indexes = new int[height];
+		Node node = root;
+		for (int depth = 0; depth < height; depth++) {
+			Internal internal = (Internal) node;
+			int index = childIndex(internal, key);
+			path[depth] = internal;
+			indexes[depth] = index;
+			node = internal.children[index];
+		}
+
+		Leaf leaf = (Leaf) node;
+		int index = leafIndex(leaf, key);
+		if (index < 0) return null;
+		V oldValue = (V) leaf.values[index];
+		leaf.remove(index);
+		size--;
+
+		if (height == 0) { // 根节点是叶子节点
+			if (leaf.size == 0) root = null;
+			return oldValue;
+		}
+
+		for (int depth = height - 1; depth >= 0 && node.size < minKeys; depth--) {
+			Internal parent = path[depth];
+			int i = indexes[depth];
+			if (i > 0 && parent.children[i - 1].size > minKeys) { // 向左兄弟借
+				borrowFromLeft(parent, i);
+			} else if (i < parent.size && parent.children[i + 1].size > minKeys) { // 向右兄弟借
+				borrowFromRight(parent, i);
+			} else if (i > 0) { // 和左兄弟合并
+				merge(parent, i - 1);
+			} else { // 和右兄弟合并
+				merge(parent, i);
+			}
+			node = parent;
+		}
+
+		// 根节点已经没有key了 唯一的子节点成为新的根节点
+		if (height > 0 && root.size == 0) {
+			root = ((Internal) root).children[0];
+			height--;
+		}
+		return oldValue;
+	}
+
+	/**
+	 * 是否包含key
+	 * @param key
+	 */
+	@Override
+	public boolean containsKey(K key) {
+		keyNotNullCheck(key);
+		Leaf leaf = leaf(key);
+		return leaf != null && leafIndex(leaf, key) >= 0;
+	}
+
+	/**
+	 * 是否包含value（沿着叶子节点的链表查找）
+	 * @param value
+	 */
+	@Override
+	public boolean containsValue(V value) {
+		for (Leaf leaf = firstLeaf(); leaf != null; leaf = leaf.next) {
+			for (int i = 0; i < leaf.size; i++) {
+				if (Objects.equals(value, leaf.values[i])) return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 按key从小到大遍历映射（沿着叶子节点的链表）
+	 * @param visitor
+	 */
+	@Override
+	public void traversal(Visitor<K, V> visitor) {
+		if (visitor == null) return;
+		for (Leaf leaf = firstLeaf(); leaf != null; leaf = leaf.next) {
+			for (int i = 0; i < leaf.size; i++) {
+				if (visitor.visit((K) leaf.keys[i], (V) leaf.values[i])) return;
+			}
+		}
+	}
+
+	/**
+	 * 范围遍历：按key从小到大访问[from, to]之间的键值对
+	 * 找到from所在的叶子节点之后 沿着链表往右走 复杂度为O(logn + k)
+	 * @param from 最小的key（包含）
+	 * @param to 最大的key（包含）
+	 * @param visitor
+	 */
+	public void traversal(K from, K to, Visitor<K, V> visitor) {
+		keyNotNullCheck(from);
+		keyNotNullCheck(to);
+		if (visitor == null || root == null || compare(from, to) > 0) return;
+
+		Leaf leaf = leaf(from);
+		int index = leafIndex(leaf, from);
+		if (index < 0) index = -index - 1;
+		for (; leaf != null; leaf = leaf.next, index = 0) {
+			for (; index < leaf.size; index++) {
+				K key = (K) leaf.keys[index];
+				if (compare(key, to) > 0) return;
+				if (visitor.visit(key, (V) leaf.values[index])) return;
+			}
+		}
+	}
+
+	/**
+	 * 最小的key（映射为空时返回null）
+	 */
+	public K firstKey() {
+		Leaf leaf = firstLeaf();
+		return leaf == null ? null : (K) leaf.keys[0];
+	}
+
+	/**
+	 * 最大的key（映射为空时返回null）
+	 */
+	public K lastKey() {
+		if (root == null) return null;
+		Node node = root;
+		for (int depth = 0; depth < height; depth++) {
+			node = ((Internal) node).children[node.size];
+		}
+		return (K) node.keys[node.size - 1];
+	}
+
+	/**
+	 * 小于等于key的最大的key（不存在时返回null）
+	 * @param key
+	 */
+	public K floorKey(K key) {
+		return lowerKey(key, true);
+	}
+
+	/**
+	 * 小于key的最大的key（不存在时返回null）
+	 * @param key
+	 */
+	public K lowerKey(K key) {
+		return lowerKey(key, false);
+	}
+
+	/**
+	 * 大于等于key的最小的key（不存在时返回null）
+	 * @param key
+	 */
+	public K ceilingKey(K key) {
+		return higherKey(key, true);
+	}
+
+	/**
+	 * 大于key的最小的key（不存在时返回null）
+	 * @param key
+	 */
+	public K higherKey(K key) {
+		return higherKey(key, false);
+	}
+
+	/**
+	 * 在key所在的叶子节点中往左找 找不到时就是前一个叶子节点的最后一个key
+	 * @param key
+	 * @param inclusive 是否可以等于key
+	 */
+	private K lowerKey(K key, boolean inclusive) {
+		keyNotNullCheck(key);
+		if (root == null) return null;
+		Leaf leaf = leaf(key);
+		int index = leafIndex(leaf, key);
+		// 第一个大于（或大于等于）key的位置 它左边的就是结果
+		index = index >= 0 ? (inclusive ? index + 1 : index) : -index - 1;
+		if (index > 0) return (K) leaf.keys[index - 1];
+		return leaf.prev == null ? null : (K) leaf.prev.keys[leaf.prev.size - 1];
+	}
+
+	/**
+	 * 在key所在的叶子节点中往右找 找不到时就是下一个叶子节点的第一个key
+	 * @param key
+	 * @param inclusive 是否可以等于key
+	 */
+	private K higherKey(K key, boolean inclusive) {
+		keyNotNullCheck(key);
+		if (root == null) return null;
+		Leaf leaf = leaf(key);
+		int index = leafIndex(leaf, key);
+		// 第一个大于（或大于等于）key的位置
+		index = index >= 0 ? (inclusive ? index : index + 1) : -index - 1;
+		if (index < leaf.size) return (K) leaf.keys[index];
+		return leaf.next == null ? null : (K) leaf.next.keys[0];
+	}
+
+	/**
+	 * 树的高度（包括叶子节点这一层）
+	 */
+	public int height() {
+		return root == null ? 0 : height + 1;
+	}
+
+	/**
+	 * key所在的叶子节点（映射为空时返回null）
+	 * @param key
+	 */
+	private Leaf leaf(K key) {
+		Node node = root;
+		for (int depth = 0; depth < height; depth++) {
+			Internal internal = (Internal) node;
+			node = internal.children[childIndex(internal, key)];
+		}
+		return (Leaf) node;
+	}
+
+	/**
+	 * 最左边的叶子节点（映射为空时返回null）
+	 */
+	private Leaf firstLeaf() {
+		Node node = root;
+		for (int depth = 0; depth < height; depth++) {
+			node = ((Internal) node).children[0];
+		}
+		return (Leaf) node;
+	}
+
+	/**
+	 * 在内部节点中二分查找key应该进入的子节点（第一个大于key的keys[i]对应children[i]）
+	 * @param node
+	 * @param key
+	 */
+	private int childIndex(Internal node, K key) {
+		int begin = 0;
+		int end = node.size;
+		while (begin < end) {
+			int mid = (begin + end) >>> 1;
+			if (compare(key, (K) node.keys[mid]) < 0) {
+				end = mid;
+			} else {
+				begin = mid + 1;
+			}
+		}
+		return begin;
+	}
+
+	/**
+	 * 在叶子节点中二分查找key
+	 * @param leaf
+	 * @param key
+	 * @return 找到时返回下标 找不到时返回 -(插入位置 + 1)
+	 */
+	private int leafIndex(Leaf leaf, K key) {
+		int begin = 0;
+		int end = leaf.size;
+		while (begin < end) {
+			int mid = (begin + end) >>> 1;
+			int cmp = compare(key, (K) leaf.keys[mid]);
+			if (cmp == 0) return mid;
+			if (cmp < 0) {
+				end = mid;
+			} else {
+				begin = mid + 1;
+			}
+		}
+		return -(begin + 1);
+	}
+
+	/**
+	 * parent.children[index]向左兄弟借一个key
+	 */
+	private void borrowFromLeft(Internal parent, int index) {
+		Node node = parent.children[index];
+		Node left = parent.children[index - 1];
+		if (node instanceof Leaf) {
+			Leaf leaf = (Leaf) node;
+			Leaf leftLeaf = (Leaf) left;
+			leaf.insert(0, leftLeaf.keys[leftLeaf.size - 1], leftLeaf.values[leftLeaf.size - 1]);
+			leftLeaf.remove(leftLeaf.size - 1);
+			parent.keys[index - 1] = leaf.keys[0];
+		} else {
+			// 父节点的key下降到node的最左边 左兄弟最右边的key上升到父节点
+			Internal internal = (Internal) node;
+			Internal leftInternal = (Internal) left;
+			System.arraycopy(internal.keys, 0, internal.keys, 1, internal.size);
+			System.arraycopy(internal.children, 0, internal.children, 1, internal.size + 1);
+			internal.keys[0] = parent.keys[index - 1];
+			internal.children[0] = leftInternal.children[leftInternal.size];
+			internal.size++;
+			parent.keys[index - 1] = leftInternal.keys[leftInternal.size - 1];
+			leftInternal.keys[leftInternal.size - 1] = null;
+			leftInternal.children[leftInternal.size] = null;
+			leftInternal.size--;
+		}
+	}
+
+	/**
+	 * parent.children[index]向右兄弟借一个key
+	 */
+	private void borrowFromRight(Internal parent, int index) {
+		Node node = parent.children[index];
+		Node right = parent.children[index + 1];
+		if (node instanceof Leaf) {
+			Leaf leaf = (Leaf) node;
+			Leaf rightLeaf = (Leaf) right;
+			leaf.insert(leaf.size, rightLeaf.keys[0], rightLeaf.values[0]);
+			rightLeaf.remove(0);
+			parent.keys[index] = rightLeaf.keys[0];
+		} else {
+			// 父节点的key下降到node的最右边 右兄弟最左边的key上升到父节点
+			Internal internal = (Internal) node;
+			Internal rightInternal = (Internal) right;
+			internal.keys[internal.size] = parent.keys[index];
+			internal.children[internal.size + 1] = rightInternal.children[0];
+			internal.size++;
+			parent.keys[index] = rightInternal.keys[0];
+			System.arraycopy(rightInternal.keys, 1, rightInternal.keys, 0, rightInternal.size - 1);
+			System.arraycopy(rightInternal.children, 1, rightInternal.children, 0, rightInternal.size);
+			rightInternal.keys[rightInternal.size - 1] = null;
+			rightInternal.children[rightInternal.size] = null;
+			rightInternal.size--;
+		}
+	}
+
+	/**
+	 * 把parent.children[index + 1]合并到parent.children[index]中 并删除父节点中它们之间的key
+	 */
+	private void merge(Internal parent, int index) {
+		Node left = parent.children[index];
+		Node right = parent.children[index + 1];
+		if (left instanceof Leaf) {
+			Leaf leftLeaf = (Leaf) left;
+			Leaf rightLeaf = (Leaf) right;
+			System.arraycopy(rightLeaf.keys, 0, leftLeaf.keys, leftLeaf.size, rightLeaf.size);
+			System.arraycopy(rightLeaf.values, 0, leftLeaf.values, leftLeaf.size, rightLeaf.size);
+			leftLeaf.size += rightLeaf.size;
+			leftLeaf.next = rightLeaf.next;
+			if (rightLeaf.next != null) rightLeaf.next.prev = leftLeaf;
+		} else {
+			// 父节点中的key下降 夹在两个节点中间
+			Internal leftInternal = (Internal) left;
+			Internal rightInternal = (Internal) right;
+			leftInternal.keys[leftInternal.size] = parent.keys[index];
+			System.arraycopy(rightInternal.keys, 0, leftInternal.keys, leftInternal.size + 1, rightInternal.size);
+			System.arraycopy(rightInternal.children, 0, leftInternal.children, leftInternal.size + 1, rightInternal.size + 1);
+			leftInternal.size += rightInternal.size + 1;
+		}
+
+		// 父节点删除keys[index]和children[index + 1]
+		System.arraycopy(parent.keys, index + 1, parent.keys, index, parent.size - index - 1);
+		System.arraycopy(parent.children, index + 2, parent.children, index + 1, parent.size - index - 1);
+		parent.keys[parent.size - 1] = null;
+		parent.children[parent.size] = null;
+		parent.size--;
+	}
+
+	/**
+	 * key非空check
+	 * @param key
+	 */
+	private void keyNotNullCheck(K key) {
+		if (key == null) {
+			throw new IllegalArgumentException("key must not be null!");
+		}
+	}
+
+	/**
+	 * 比较两个key的大小
+	 * @param k1
+	 * @param k2
+	 */
+	private int compare(K k1, K k2) {
+		if (comparator != null) {
+			return comparator.compare(k1, k2);
+		}
+		return ((Comparable<K>) k1).compareTo(k2);
+	}
+
+	/**
+	 * 节点（数组的容量比最多的key数量多1 插入之后溢出的节点再分裂）
+	 */
+	private static abstract class Node {
+		/* key的数量 */
+		int size;
+		final Object[] keys;
+
+		Node(int maxKeys) {
+			keys = new Object[maxKeys + 1];
+		}
+	}
+
+	/**
+	 * 叶子节点：存放键值对 并串成双向链表
+	 */
+	private static class Leaf extends Node {
+		final Object[] values;
+		Leaf prev;
+		Leaf next;
+
+		Leaf(int maxKeys) {
+			super(maxKeys);
+			values = new Object[maxKeys + 1];
+		}
+
+		void insert(int index, Object key, Object value) {
+			System.arraycopy(keys, index, keys, index + 1, size - index);
+			System.arraycopy(values, index, values, index + 1, size - index);
+			keys[index] = key;
+			values[index] = value;
+			size++;
+		}
+
+		void remove(int index) {
+			System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+			System.arraycopy(values, index + 1, values, index, size - index - 1);
+			size--;
+			keys[size] = null;
+			values[size] = null;
+		}
+
+		/**
+		 * 后一半的键值对移动到新的叶子节点中 并把新节点链接到自己后面
+		 */
+		Leaf split() {
+			Leaf right = new Leaf(keys.length - 1);
+			int half = size >> 1;
+			right.size = size - half;
+			System.arraycopy(keys, half, right.keys, 0, right.size);
+			System.arraycopy(values, half, right.values, 0, right.size);
+			Arrays.fill(keys, half, size, null);
+			Arrays.fill(values, half, size, null);
+			size = half;
+
+			right.next = next;
+			right.prev = this;
+			if (next != null) next.prev = right;
+			next = right;
+			return right;
+		}
+	}
+
+	/**
+	 * 内部节点：size个key 对应size + 1个子节点
+	 */
+	private static class Internal extends Node {
+		final Node[] children;
+
+		Internal(int maxKeys) {
+			super(maxKeys);
+			children = new Node[maxKeys + 2];
+		}
+
+		/**
+		 * children[index]分裂了 在它的右边插入key和新的子节点
+		 */
+		void insert(int index, Object key, Node right) {
+			System.arraycopy(keys, index, keys, index + 1, size - index);
+			System.arraycopy(children, index + 1, children, index + 2, size - index);
+			keys[index] = key;
+			children[index + 1] = right;
+			size++;
+		}
+
+		/**
+		 * 中间的key上升到父节点（由调用者读取） 它右边的key和子节点移动到新的内部节点中
+		 */
+		Internal split() {
+			Internal right = new Internal(keys.length - 1);
+			int mid = size >> 1;
+			right.size = size - mid - 1;
+			System.arraycopy(keys, mid + 1, right.keys, 0, right.size);
+			System.arraycopy(children, mid + 1, right.children, 0, right.size + 1);
+			Arrays.fill(keys, mid, size, null);
+			Arrays.fill(children, mid + 1, size + 1, null);
+			size = mid;
+			return right;
+		}
+	}
+}
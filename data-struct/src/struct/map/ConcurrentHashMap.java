@@ -0,0 +1,239 @@
+package struct.map;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import struct.map.base.Map;
+
+/**
+ * ConcurrentHashMap 线程安全的哈希表（分段锁版）
+ * 
+ * 整张表被拆分为若干个段（Segment） 每个段都是一个独立的HashMap（数组 + 红黑树）
+ * 并由自己的读写锁保护 不同段上的操作互不影响
+ * 
+ * ◼ 读操作（get、containsKey）只获取段的读锁 多个读线程之间不会互相阻塞
+ * ◼ 写操作（put、remove）获取段的写锁 只会阻塞同一个段上的其他操作
+ * ◼ size 使用 LongAdder 计数 不需要锁住所有的段
+ * ◼ traversal 是弱一致的：逐段拍快照后再访问 不会抛出异常 但可能看不到遍历期间的修改
+ * 
+ * 注意：红黑树在旋转的过程中会出现短暂的不一致状态 完全不加锁地去读可能会陷入死循环
+ * 所以这里的读操作使用的是读锁 而不是无锁读
+ * 
+ * @author avril
+ *
+ * @param <K, V>
+ */
+@SuppressWarnings({ "unchecked", "rawtypes" })
+public class ConcurrentHashMap<K, V> implements Map<K, V> {
+	/* 默认的段数量（并发级别） */
+	private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+	private static final int MAX_SEGMENTS = 1 << 16;
+	
+	/* 所有的段 */
+	private final Segment<K, V>[] segments;
+	
+	/* 数量 */
+	private final LongAdder count = new LongAdder();
+	
+	public ConcurrentHashMap() {
+		this(DEFAULT_CONCURRENCY_LEVEL);
+	}
+	
+	/**
+	 * @param concurrencyLevel 预计同时进行写操作的线程数量（会被调整为2的幂）
+	 */
+	public ConcurrentHashMap(int concurrencyLevel) {
+		if (concurrencyLevel <= 0) {
+			throw new IllegalArgumentException("concurrencyLevel must be positive.");
+		}
+		int n = 1;
+		while (n < concurrencyLevel && n < MAX_SEGMENTS) {
+			n <<= 1;
+		}
+		segments = new Segment[n];
+		for (int i = 0; i < n; i++) {
+			segments[i] = new Segment<>();
+		}
+	}
+
+	/**
+	 * 包含元素的数量
+	 */
+	@Override
+	public int size() {
+		long sum = count.sum();
+		return sum > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) sum;
+	}
+
+	/**
+	 * 是否为空
+	 */
+	@Override
+	public boolean isEmpty() {
+		return count.sum() == 0;
+	}
+
+	/**
+	 * 清空元素（逐段清空）
+	 */
+	@Override
+	public void clear() {
+		for (Segment<K, V> segment : segments) {
+			Lock lock = segment.writeLock();
+			lock.lock();
+			try {
+				count.add(-segment.map.size());
+				segment.map.clear();
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * 添加键值对
+	 * @return 原本key对应的值
+	 */
+	@Override
+	public V put(K key, V value) {
+		Segment<K, V> segment = segment(key);
+		Lock lock = segment.writeLock();
+		lock.lock();
+		try {
+			int oldSize = segment.map.size();
+			V oldValue = segment.map.put(key, value);
+			if (segment.map.size() > oldSize) {
+				count.increment();
+			}
+			return oldValue;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 通过key获取value
+	 * @param key
+	 */
+	@Override
+	public V get(K key) {
+		Segment<K, V> segment = segment(key);
+		Lock lock = segment.readLock();
+		lock.lock();
+		try {
+			return segment.map.get(key);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 删除key
+	 * @param key
+	 */
+	@Override
+	public V remove(K key) {
+		Segment<K, V> segment = segment(key);
+		Lock lock = segment.writeLock();
+		lock.lock();
+		try {
+			int oldSize = segment.map.size();
+			V oldValue = segment.map.remove(key);
+			if (segment.map.size() < oldSize) {
+				count.decrement();
+			}
+			return oldValue;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 是否包含key
+	 * @param key
+	 */
+	@Override
+	public boolean containsKey(K key) {
+		Segment<K, V> segment = segment(key);
+		Lock lock = segment.readLock();
+		lock.lock();
+		try {
+			return segment.map.containsKey(key);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 是否包含value（逐段查找）
+	 * @param value
+	 */
+	@Override
+	public boolean containsValue(V value) {
+		for (Segment<K, V> segment : segments) {
+			Lock lock = segment.readLock();
+			lock.lock();
+			try {
+				if (segment.map.containsValue(value)) return true;
+			} finally {
+				lock.unlock();
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 遍历映射（弱一致）
+	 * 每个段在读锁内拍一个快照 再在锁外访问 所以visitor中可以安全地修改这个映射
+	 * @param visitor
+	 */
+	@Override
+	public void traversal(Visitor<K, V> visitor) {
+		if (visitor == null) return;
+		for (Segment<K, V> segment : segments) {
+			Object[] entries;
+			Lock lock = segment.readLock();
+			lock.lock();
+			try {
+				if (segment.map.isEmpty()) continue;
+				entries = new Object[segment.map.size() << 1];
+				int[] index = { 0 };
+				segment.map.traversal((key, value) -> {
+					entries[index[0]++] = key;
+					entries[index[0]++] = value;
+					return false;
+				});
+			} finally {
+				lock.unlock();
+			}
+			
+			for (int i = 0; i < entries.length; i += 2) {
+				if (visitor.visit((K) entries[i], (V) entries[i + 1])) return;
+			}
+		}
+	}
+	
+	/**
+	 * 根据key找到对应的段
+	 * （段内的HashMap使用hash的低位来定位桶 这里打散后使用高位来定位段 避免两者相关）
+	 * @param key
+	 */
+	private Segment<K, V> segment(K key) {
+		int hash = key == null ? 0 : key.hashCode();
+		hash ^= hash >>> 16;
+		hash *= 0x9E3779B9;
+		return segments[(hash >>> 16) & (segments.length - 1)];
+	}
+	
+	/**
+	 * 段：一个由读写锁保护的HashMap
+	 * （这里必须使用一次性扩容的HashMap 渐进式扩容会在get时修改表结构 不能放在读锁中执行）
+	 * @param <K, V>
+	 */
+	private static class Segment<K, V> extends ReentrantReadWriteLock {
+		private static final long serialVersionUID = 1L;
+		
+		private final HashMap<K, V> map = new HashMap<>(false);
+	}
+}
@@ -0,0 +1,409 @@
+package struct.map;
+
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicMarkableReference;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import struct.map.base.Map;
+
+/**
+ * ConcurrentSkipListMap 线程安全的跳表映射（无锁版）
+ *
+ * 所有的修改都通过CAS完成 任何一个线程被挂起都不会阻塞其他线程
+ *
+ * ◼ 每个节点每一层的next都是一个AtomicMarkableReference（引用 + 删除标记）
+ *   标记之后就不能再往这个节点后面插入 查找时遇到带标记的节点会顺手把它摘掉
+ * ◼ 删除分为两步
+ *   1. 逻辑删除：CAS把value从非null改为null（成功的线程才是真正的删除者）
+ *   2. 物理删除：从高层到第0层依次给next打上标记 然后再查找一次把它摘掉
+ * ◼ 覆盖：CAS替换value 遇到value为null（正在被删除）的节点时重试
+ * ◼ 第0层链表决定了一个key是否存在 高层只是用来加速查找的索引
+ *
+ * 不允许null作为key或value（value为null表示已经被删除）
+ * size和遍历都是弱一致的
+ *
+ * @author avril
+ *
+ * @param <K, V>
+ */
+@SuppressWarnings({ "unchecked", "rawtypes" })
+public class ConcurrentSkipListMap<K, V> implements Map<K, V> {
+	/* 最高层数 */
+	private static final int MAX_LEVEL = 32;
+
+	/* 数量 */
+	private final LongAdder count = new LongAdder();
+
+	/* 出现过的最高层数（只增不减 查找从这一层开始 不必每次都从MAX_LEVEL开始） */
+	private final AtomicInteger level = new AtomicInteger(1);
+
+	/* 首节点（不存放任何键值对） */
+	private final Node<K, V> first = new Node<>(null, null, MAX_LEVEL);
+
+	/* 比较器 */
+	private final Comparator<K> comparator;
+
+	public ConcurrentSkipListMap(Comparator<K> comparator) {
+		this.comparator = comparator;
+	}
+
+	public ConcurrentSkipListMap() {
+		this(null);
+	}
+
+	/**
+	 * 包含元素的数量
+	 */
+	@Override
+	public int size() {
+		long sum = count.sum();
+		return sum > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) sum;
+	}
+
+	/**
+	 * 是否为空
+	 */
+	@Override
+	public boolean isEmpty() {
+		return count.sum() == 0;
+	}
+
+	/**
+	 * 清空元素（逐个删除）
+	 */
+	@Override
+	public void clear() {
+		for (Node<K, V> node = first.next(0); node != null; node = node.next(0)) {
+			remove(node.key);
+		}
+	}
+
+	/**
+	 * 添加键值对
+	 * @return 原本key对应的值
+	 */
+	@Override
+	public V put(K key, V value) {
+		keyNotNullCheck(key);
+		valueNotNullCheck(value);
+
+		Node<K, V>[] prevs = new Node[MAX_LEVEL];
+		Node<K, V>[] nexts = new Node[MAX_LEVEL];
+		// 先确定新节点的层数并抬高查找的起始层 保证find能找到新节点每一层的前驱
+		int newLevel = randomLevel();
+		raiseLevel(newLevel);
+		Node<K, V> newNode = null;
+		while (true) {
+			if (find(key, prevs, nexts)) { // 已经存在 CAS覆盖
+				Node<K, V> node = nexts[0];
+				V oldValue = node.value.get();
+				if (oldValue == null) { // 正在被删除 帮忙打上标记 重新查找时就会把它摘掉
+					mark(node);
+					continue;
+				}
+				if (node.value.compareAndSet(oldValue, value)) return oldValue;
+				continue; // 被并发修改 重新查找
+			}
+
+			if (newNode == null) {
+				newNode = new Node<>(key, value, newLevel);
+			}
+			for (int i = 0; i < newLevel; i++) {
+				newNode.nexts[i].set(nexts[i], false);
+			}
+
+			// 第0层插入成功 就代表添加成功了
+			if (!prevs[0].nexts[0].compareAndSet(nexts[0], newNode, false, false)) continue;
+			count.increment();
+
+			// 逐层建立索引
+			for (int i = 1; i < newLevel; i++) {
+				while (true) {
+					if (prevs[i].nexts[i].compareAndSet(nexts[i], newNode, false, false)) break;
+					// 这一层的前后关系变了 重新查找
+					find(key, prevs, nexts);
+					if (newNode.value.get() == null) return null; // 已经被删除了 不需要再建立索引
+					Node<K, V> next = newNode.nexts[i].getReference();
+					if (newNode.nexts[i].isMarked() || !newNode.nexts[i].compareAndSet(next, nexts[i], false, false)) {
+						return null; // 已经开始物理删除
+					}
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * 通过key获取value
+	 * @param key
+	 */
+	@Override
+	public V get(K key) {
+		keyNotNullCheck(key);
+		Node<K, V> node = node(key);
+		return node != null ? node.value.get() : null;
+	}
+
+	/**
+	 * 删除key
+	 * @param key
+	 */
+	@Override
+	public V remove(K key) {
+		keyNotNullCheck(key);
+
+		Node<K, V>[] prevs = new Node[MAX_LEVEL];
+		Node<K, V>[] nexts = new Node[MAX_LEVEL];
+		while (true) {
+			if (!find(key, prevs, nexts)) return null;
+
+			// 逻辑删除
+			Node<K, V> node = nexts[0];
+			V oldValue = node.value.get();
+			if (oldValue == null) return null; // 别的线程正在删除
+			if (!node.value.compareAndSet(oldValue, null)) continue;
+			count.decrement();
+
+			// 物理删除：打上标记之后再查找一次 把带标记的节点摘掉
+			mark(node);
+			find(key, prevs, nexts);
+			return oldValue;
+		}
+	}
+
+	/**
+	 * 是否包含key
+	 * @param key
+	 */
+	@Override
+	public boolean containsKey(K key) {
+		return get(key) != null;
+	}
+
+	/**
+	 * 是否包含value
+	 * @param value
+	 */
+	@Override
+	public boolean containsValue(V value) {
+		if (value == null) return false;
+		for (Node<K, V> node = first.next(0); node != null; node = node.next(0)) {
+			if (Objects.equals(value, node.value.get())) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * 按key从小到大遍历映射（弱一致）
+	 * @param visitor
+	 */
+	@Override
+	public void traversal(Visitor<K, V> visitor) {
+		if (visitor == null) return;
+		traversal(first.next(0), null, visitor);
+	}
+
+	/**
+	 * 范围遍历：按key从小到大访问[from, to]之间的键值对（弱一致）
+	 * @param from 最小的key（包含）
+	 * @param to 最大的key（包含）
+	 * @param visitor
+	 */
+	public void traversal(K from, K to, Visitor<K, V> visitor) {
+		keyNotNullCheck(from);
+		keyNotNullCheck(to);
+		if (visitor == null) return;
+		traversal(ceilingNode(from), to, visitor);
+	}
+
+	/**
+	 * 最小的key（映射为空时返回null）
+	 */
+	public K firstKey() {
+		for (Node<K, V> node = first.next(0); node != null; node = node.next(0)) {
+			if (node.value.get() != null) return node.key;
+		}
+		return null;
+	}
+
+	/**
+	 * 大于等于key的最小的key（不存在时返回null）
+	 * @param key
+	 */
+	public K ceilingKey(K key) {
+		keyNotNullCheck(key);
+		for (Node<K, V> node = ceilingNode(key); node != null; node = node.next(0)) {
+			if (node.value.get() != null) return node.key;
+		}
+		return null;
+	}
+
+	/**
+	 * 从node开始沿着第0层访问 跳过已经被删除的节点
+	 * @param node
+	 * @param to 最大的key（为null时表示不限）
+	 * @param visitor
+	 */
+	private void traversal(Node<K, V> node, K to, Visitor<K, V> visitor) {
+		for (; node != null; node = node.next(0)) {
+			if (to != null && compare(node.key, to) > 0) return;
+			V value = node.value.get();
+			if (value == null) continue;
+			if (visitor.visit(node.key, value)) return;
+		}
+	}
+
+	/**
+	 * 查找key在每一层的前驱和后继 顺便摘掉沿途带删除标记的节点
+	 * @param key
+	 * @param prevs 每一层最后一个比key小的节点
+	 * @param nexts 每一层第一个大于等于key的节点
+	 * @return 第0层是否存在这个key
+	 */
+	private boolean find(K key, Node<K, V>[] prevs, Node<K, V>[] nexts) {
+		boolean[] marked = { false };
+		retry: while (true) {
+			Node<K, V> prev = first;
+			Node<K, V> node = null;
+			for (int i = level.get() - 1; i >= 0; i--) {
+				node = prev.nexts[i].getReference();
+				while (node != null) {
+					Node<K, V> next = node.nexts[i].get(marked);
+					if (marked[0]) { // node已经被删除 把它从这一层摘掉
+						if (!prev.nexts[i].compareAndSet(node, next, false, false)) continue retry;
+						node = next;
+						continue;
+					}
+					if (compare(node.key, key) >= 0) break;
+					prev = node;
+					node = next;
+				}
+				prevs[i] = prev;
+				nexts[i] = node;
+			}
+			return node != null && compare(node.key, key) == 0;
+		}
+	}
+
+	/**
+	 * 从高层到低层给节点的next打上删除标记（可以由多个线程重复执行）
+	 * @param node
+	 */
+	private void mark(Node<K, V> node) {
+		for (int i = node.nexts.length - 1; i >= 0; i--) {
+			AtomicMarkableReference<Node<K, V>> ref = node.nexts[i];
+			while (!ref.isMarked()) {
+				Node<K, V> next = ref.getReference();
+				ref.compareAndSet(next, next, false, true);
+			}
+		}
+	}
+
+	/**
+	 * 只读的查找（不摘除节点 不会修改任何东西）
+	 * @param key
+	 */
+	private Node<K, V> node(K key) {
+		Node<K, V> node = ceilingNode(key);
+		return node != null && compare(node.key, key) == 0 ? node : null;
+	}
+
+	/**
+	 * 大于等于key的第一个没有被标记的节点（只读）
+	 * @param key
+	 */
+	private Node<K, V> ceilingNode(K key) {
+		Node<K, V> prev = first;
+		Node<K, V> node = null;
+		for (int i = level.get() - 1; i >= 0; i--) {
+			node = prev.nexts[i].getReference();
+			while (node != null) {
+				if (node.nexts[i].isMarked()) { // 跳过已经被删除的节点
+					node = node.nexts[i].getReference();
+					continue;
+				}
+				if (compare(node.key, key) >= 0) break;
+				prev = node;
+				node = node.nexts[i].getReference();
+			}
+		}
+		return node;
+	}
+
+	/**
+	 * 把出现过的最高层数提高到newLevel
+	 * @param newLevel
+	 */
+	private void raiseLevel(int newLevel) {
+		int old;
+		while (newLevel > (old = level.get()) && !level.compareAndSet(old, newLevel));
+	}
+
+	/**
+	 * 随机层数（每多一层的概率为1/2）
+	 */
+	private int randomLevel() {
+		int random = ThreadLocalRandom.current().nextInt();
+		return Math.min(MAX_LEVEL, Integer.numberOfTrailingZeros(~random) + 1);
+	}
+
+	/**
+	 * key非空check
+	 * @param key
+	 */
+	private void keyNotNullCheck(K key) {
+		if (key == null) {
+			throw new IllegalArgumentException("key must not be null!");
+		}
+	}
+
+	/**
+	 * value非空check（null用来表示已删除）
+	 * @param value
+	 */
+	private void valueNotNullCheck(V value) {
+		if (value == null) {
+			throw new IllegalArgumentException("value must not be null!");
+		}
+	}
+
+	/**
+	 * 比较两个key的大小
+	 * @param k1
+	 * @param k2
+	 */
+	private int compare(K k1, K k2) {
+		if (comparator != null) {
+			return comparator.compare(k1, k2);
+		}
+		return ((Comparable<K>) k1).compareTo(k2);
+	}
+
+	/**
+	 * 定义内部节点
+	 * @param <K, V>
+	 */
+	private static class Node<K, V> {
+		final K key;
+		final AtomicReference<V> value;
+		/* 每一层的下一个节点（带删除标记） */
+		final AtomicMarkableReference<Node<K, V>>[] nexts;
+
+		public Node(K key, V value, int level) {
+			this.key = key;
+			this.value = new AtomicReference<>(value);
+			nexts = new AtomicMarkableReference[level];
+			for (int i = 0; i < level; i++) {
+				nexts[i] = new AtomicMarkableReference<>(null, false);
+			}
+		}
+
+		Node<K, V> next(int level) {
+			return nexts[level].getReference();
+		}
+	}
+}
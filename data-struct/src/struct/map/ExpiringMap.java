@@ -0,0 +1,305 @@
+package struct.map;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import struct.map.base.Map;
+import struct.map.tool.Ticker;
+import struct.map.tool.TimerWheel;
+
+/**
+ * ExpiringMap 键值对会自动过期的映射
+ * 
+ * ◼ expireAfterWrite：写入（put）之后经过指定时间过期
+ * ◼ expireAfterAccess：最后一次访问（put、get）之后经过指定时间过期
+ * 
+ * 过期的键值对由分层时间轮（TimerWheel）管理 不需要扫描整张表
+ * 每次操作时先推进时间轮 清理掉已经到期的键值对（均摊O(1)）
+ * 另外get时也会检查键值对本身是否已经过期（惰性过期） 所以不会读到过期的值
+ * 
+ * @author avril
+ *
+ * @param <K, V>
+ */
+public class ExpiringMap<K, V> implements Map<K, V> {
+	/* 存放键值对的HashMap */
+	private final HashMap<K, Entry<K, V>> map;
+	
+	/* 过期时间（纳秒 小于等于0代表不使用） */
+	private final long expireAfterWriteNanos;
+	private final long expireAfterAccessNanos;
+	
+	/* 时钟 */
+	private final Ticker ticker;
+	
+	/* 时间轮 */
+	private final TimerWheel<Entry<K, V>> timerWheel;
+	
+	/**
+	 * 写入之后经过指定时间过期
+	 * @param expireAfterWrite
+	 * @param unit
+	 */
+	public ExpiringMap(long expireAfterWrite, TimeUnit unit) {
+		this(expireAfterWrite, 0, unit, Ticker.system());
+	}
+	
+	/**
+	 * @param expireAfterWrite 写入之后经过多久过期（小于等于0代表不使用）
+	 * @param expireAfterAccess 最后一次访问之后经过多久过期（小于等于0代表不使用）
+	 * @param unit 时间单位
+	 * @param ticker 时钟
+	 */
+	public ExpiringMap(long expireAfterWrite, long expireAfterAccess, TimeUnit unit, Ticker ticker) {
+		if (expireAfterWrite <= 0 && expireAfterAccess <= 0) {
+			throw new IllegalArgumentException("expireAfterWrite or expireAfterAccess must be positive.");
+		}
+		if (unit == null || ticker == null) {
+			throw new IllegalArgumentException("unit and ticker must not be null.");
+		}
+		this.expireAfterWriteNanos = unit.toNanos(expireAfterWrite);
+		this.expireAfterAccessNanos = unit.toNanos(expireAfterAccess);
+		this.ticker = ticker;
+		map = new HashMap<>();
+		timerWheel = new TimerWheel<>(ticker.read());
+	}
+
+	/**
+	 * 包含元素的数量（先清理已经到期的键值对）
+	 * 时间轮的精度是一格（约1毫秒） 所以可能还包含刚刚到期的键值对
+	 */
+	@Override
+	public int size() {
+		cleanUp();
+		return map.size();
+	}
+
+	/**
+	 * 是否为空
+	 */
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * 清空元素
+	 */
+	@Override
+	public void clear() {
+		map.traversal((key, entry) -> {
+			timerWheel.deschedule(entry);
+			return false;
+		});
+		map.clear();
+	}
+
+	/**
+	 * 添加键值对
+	 * @return 原本key对应的值（已经过期的值不会返回）
+	 */
+	@Override
+	public V put(K key, V value) {
+		long now = ticker.read();
+		cleanUp(now);
+		
+		Entry<K, V> entry = map.get(key);
+		V oldValue = null;
+		if (entry == null) {
+			entry = new Entry<>(key, value);
+			map.put(key, entry);
+			entry.writeTime = now;
+		} else {
+			oldValue = entry.isExpired(now) ? null : entry.value;
+			entry.value = value;
+			entry.writeTime = now;
+		}
+		entry.accessTime = now;
+		schedule(entry);
+		return oldValue;
+	}
+
+	/**
+	 * 通过key获取value
+	 * @param key
+	 */
+	@Override
+	public V get(K key) {
+		long now = ticker.read();
+		cleanUp(now);
+		
+		Entry<K, V> entry = map.get(key);
+		if (entry == null) return null;
+		if (entry.isExpired(now)) { // 惰性过期
+			expire(entry);
+			return null;
+		}
+		
+		if (expireAfterAccessNanos > 0) {
+			entry.accessTime = now;
+			schedule(entry);
+		}
+		return entry.value;
+	}
+
+	/**
+	 * 删除key
+	 * @param key
+	 */
+	@Override
+	public V remove(K key) {
+		long now = ticker.read();
+		cleanUp(now);
+		
+		Entry<K, V> entry = map.remove(key);
+		if (entry == null) return null;
+		timerWheel.deschedule(entry);
+		return entry.isExpired(now) ? null : entry.value;
+	}
+
+	/**
+	 * 是否包含key（不算作一次访问）
+	 * @param key
+	 */
+	@Override
+	public boolean containsKey(K key) {
+		long now = ticker.read();
+		cleanUp(now);
+		
+		Entry<K, V> entry = map.get(key);
+		return entry != null && !entry.isExpired(now);
+	}
+
+	/**
+	 * 是否包含value
+	 * @param value
+	 */
+	@Override
+	public boolean containsValue(V value) {
+		long now = ticker.read();
+		cleanUp(now);
+		
+		boolean[] result = { false };
+		map.traversal((key, entry) -> {
+			result[0] = !entry.isExpired(now) && Objects.equals(value, entry.value);
+			return result[0];
+		});
+		return result[0];
+	}
+
+	/**
+	 * 遍历映射（跳过已经过期的键值对）
+	 * @param visitor
+	 */
+	@Override
+	public void traversal(Visitor<K, V> visitor) {
+		if (visitor == null) return;
+		long now = ticker.read();
+		cleanUp(now);
+		
+		map.traversal((key, entry) -> {
+			if (entry.isExpired(now)) return false;
+			return visitor.visit(key, entry.value);
+		});
+	}
+	
+	/**
+	 * 推进时间轮 清理已经到期的键值对
+	 * （每次操作都会自动调用 长时间没有操作时也可以手动调用来释放内存）
+	 */
+	public void cleanUp() {
+		cleanUp(ticker.read());
+	}
+	
+	private void cleanUp(long now) {
+		timerWheel.advance(now, this::expire);
+	}
+	
+	/**
+	 * 删除到期的键值对
+	 * @param entry
+	 */
+	private void expire(Entry<K, V> entry) {
+		timerWheel.deschedule(entry);
+		// 只删除同一个Entry（避免误删）
+		if (map.get(entry.key) == entry) {
+			map.remove(entry.key);
+		}
+	}
+	
+	/**
+	 * 根据写入、访问时间重新安排到期时间
+	 * @param entry
+	 */
+	private void schedule(Entry<K, V> entry) {
+		entry.expireTime = expireTime(entry);
+		timerWheel.schedule(entry);
+	}
+	
+	/**
+	 * 计算到期时间（两种过期方式都开启时 取更早的那个）
+	 * @param entry
+	 */
+	private long expireTime(Entry<K, V> entry) {
+		long expireTime = Long.MAX_VALUE;
+		boolean first = true;
+		if (expireAfterWriteNanos > 0) {
+			expireTime = entry.writeTime + expireAfterWriteNanos;
+			first = false;
+		}
+		if (expireAfterAccessNanos > 0) {
+			long accessExpireTime = entry.accessTime + expireAfterAccessNanos;
+			if (first || accessExpireTime - expireTime < 0) {
+				expireTime = accessExpireTime;
+			}
+		}
+		return expireTime;
+	}
+	
+	/**
+	 * 键值对（同时也是时间轮中的任务节点）
+	 * @param <K, V>
+	 */
+	private static class Entry<K, V> implements TimerWheel.Timer<Entry<K, V>> {
+		private final K key;
+		private V value;
+		private long writeTime;
+		private long accessTime;
+		private long expireTime;
+		private TimerWheel.Timer<Entry<K, V>> prev, next;
+		
+		public Entry(K key, V value) {
+			this.key = key;
+			this.value = value;
+		}
+		
+		boolean isExpired(long now) {
+			return expireTime - now <= 0;
+		}
+
+		@Override
+		public long expireTime() {
+			return expireTime;
+		}
+
+		@Override
+		public TimerWheel.Timer<Entry<K, V>> prev() {
+			return prev;
+		}
+
+		@Override
+		public void setPrev(TimerWheel.Timer<Entry<K, V>> prev) {
+			this.prev = prev;
+		}
+
+		@Override
+		public TimerWheel.Timer<Entry<K, V>> next() {
+			return next;
+		}
+
+		@Override
+		public void setNext(TimerWheel.Timer<Entry<K, V>> next) {
+			this.next = next;
+		}
+	}
+}
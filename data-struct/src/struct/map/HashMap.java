@@ -16,13 +16,34 @@ public class HashMap<K, V> implements Map<K, V> {
 	private static final int DEFAULT_CAPACITY = 1 << 4;
 	private static final float DEFAULT_LOAD_FACTOR = 0.75f;
 	
+	/* 渐进式扩容时 每次操作顺带迁移的桶的数量 */
+	private static final int REHASH_STEP = 4;
+	
 	/* 数量 */
 	private int size;
 	
 	/* 内置hash表（数组） 里面用来存放红黑树得root 也就是最终数组里面会存在很多棵红黑树 */
 	private Node<K, V>[] table;
 	
+	/* 扩容时的旧表（不为null说明渐进式扩容还没有结束） */
+	private Node<K, V>[] oldTable;
+	
+	/* 旧表中下一个要迁移的桶的索引 */
+	private int rehashIndex;
+	
+	/* 是否使用渐进式扩容 */
+	private final boolean incremental;
+	
 	public HashMap() {
+        this(false);
+    }
+	
+	/**
+	 * @param incremental 是否使用渐进式扩容
+	 * （新旧2张表同时存在 每次put、get、remove时只迁移少量的桶 避免一次性迁移整张表带来的卡顿）
+	 */
+	public HashMap(boolean incremental) {
+        this.incremental = incremental;
         table = new Node[DEFAULT_CAPACITY];
     }
 
@@ -51,6 +72,8 @@ public class HashMap<K, V> implements Map<K, V> {
         for (int i = 0; i < table.length; i++) {
             table[i] = null;
         }
+        oldTable = null;
+        rehashIndex = 0;
         size = 0;
 	}
 
@@ -61,6 +84,7 @@ public class HashMap<K, V> implements Map<K, V> {
 	@Override
 	public V put(K key, V value) {
 		reSize();
+		rehash(key);
 		
 		int index = index(key);
 		// 取出index位置的红黑树根节点
@@ -70,6 +94,7 @@ public class HashMap<K, V> implements Map<K, V> {
 			table[index] = root;
 			size++;
 			fixAfterPut(root);
+			afterPut(root, true);
 			return null;
 		}
 		
@@ -117,6 +142,7 @@ public class HashMap<K, V> implements Map<K, V> {
                 V oldValue = node.value;
                 node.value = value;
                 node.hash = h1;
+                afterPut(node, false);
                 return oldValue;
             }
         } while (node != null);
@@ -131,6 +157,7 @@ public class HashMap<K, V> implements Map<K, V> {
 		size++;
 		
 		fixAfterPut(newNode);
+		afterPut(newNode, true);
 		return null;
 	}
 
@@ -140,8 +167,11 @@ public class HashMap<K, V> implements Map<K, V> {
 	 */
 	@Override
 	public V get(K key) {
+		rehash(key);
 		Node<K, V> node = node(key);
-		return node != null ? node.value : null;
+		if (node == null) return null;
+		afterGet(node);
+		return node.value;
 	}
 
 	/**
@@ -150,6 +180,7 @@ public class HashMap<K, V> implements Map<K, V> {
 	 */
 	@Override
 	public V remove(K key) {
+		rehash(key);
 		return remove(node(key));
 	}
 
@@ -159,6 +190,7 @@ public class HashMap<K, V> implements Map<K, V> {
 	 */
 	@Override
 	public boolean containsKey(K key) {
+		rehash(key);
 		return node(key) != null;
 	}
 
@@ -169,21 +201,9 @@ public class HashMap<K, V> implements Map<K, V> {
 	@Override
 	public boolean containsValue(V value) {
 		if (size == 0) return false;
-		Queue<Node<K, V>> queue = new LinkedList<>();
-		for (int i = 0; i < table.length; i++) {
-			if (table[i] == null) continue;
-			
-			queue.offer(table[i]);
-			while (!queue.isEmpty()) {
-				Node<K, V> node = queue.poll();
-				if (Objects.equals(value, node.value)) return true;
-				
-				if (node.left != null) queue.offer(node.left);
-				if (node.right != null) queue.offer(node.right);
-			}
-		}
-		
-		return false;
+		Visitor<K, V> visitor = (k, v) -> Objects.equals(value, v);
+		// 渐进式扩容期间 还有一部分节点留在旧表中
+		return traversal(table, visitor) || traversal(oldTable, visitor);
 	}
 
 	/**
@@ -193,6 +213,19 @@ public class HashMap<K, V> implements Map<K, V> {
 	@Override
 	public void traversal(Visitor<K, V> visitor) {
 		if (size == 0 || visitor == null) return;
+		// 渐进式扩容期间 还有一部分节点留在旧表中
+		if (traversal(table, visitor)) return;
+		traversal(oldTable, visitor);
+	}
+	
+	/**
+	 * 遍历指定的表
+	 * @param table
+	 * @param visitor
+	 * @return true代表遍历被visitor中止
+	 */
+	private boolean traversal(Node<K, V>[] table, Visitor<K, V> visitor) {
+		if (table == null) return false;
 		Queue<Node<K, V>> queue = new LinkedList<>();
 		for (int i = 0; i < table.length; i++) {
 			if (table[i] == null) continue;
@@ -200,38 +233,76 @@ public class HashMap<K, V> implements Map<K, V> {
 			queue.offer(table[i]);
 			while (!queue.isEmpty()) {
 				Node<K, V> node = queue.poll();
-				if (visitor.visit(node.key, node.value)) return;
+				if (visitor.visit(node.key, node.value)) return true;
 				
 				if (node.left != null) queue.offer(node.left);
 				if (node.right != null) queue.offer(node.right);
 			}
 		}
+		return false;
 	}
 	
 	/**
-	 * 动态扩容
+	 * 动态扩容（元素数量超过容量的0.75倍时 容量翻倍）
+	 * 渐进式扩容时 到下一次扩容之前至少还有0.75 * 旧容量次插入 每次操作至少迁移REHASH_STEP个桶 所以迁移一定会提前结束
 	 */
     private void reSize() {
-        if (size / table.length <= DEFAULT_LOAD_FACTOR) return;
+        if ((float) size / table.length <= DEFAULT_LOAD_FACTOR) return;
+        // 上一次的渐进式扩容还没有结束
+        if (oldTable != null) return;
         
-        Node<K, V>[] oldTable = table;
+        oldTable = table;
         table = new Node[oldTable.length << 1];
+        rehashIndex = 0;
+        // 渐进式扩容的场合 交给后续的操作去一点点迁移
+        if (incremental) return;
         
-        Queue<Node<K, V>> queue = new LinkedList<>();
         for (int i = 0; i < oldTable.length; i++) {
-            if (oldTable[i] == null) continue;
-            queue.offer(oldTable[i]);
-            while (!queue.isEmpty()) {
-                Node<K, V> node = queue.poll();
-                if (node.left != null) {
-                    queue.offer(node.left);
-                }
-                if (node.right != null) {
-                    queue.offer(node.right);
-                }
-                // 挪动代码放到最后
-                moveNode(node);
+            moveBucket(i);
+        }
+        oldTable = null;
+    }
+    
+    /**
+     * 渐进式扩容的迁移
+     * 先迁移key所在的桶（这样后续的操作只需要访问新表） 再顺带迁移REHASH_STEP个桶
+     * @param key
+     */
+    private void rehash(K key) {
+        if (oldTable == null) return;
+        
+        moveBucket(hash(key) & (oldTable.length - 1));
+        int end = Math.min(rehashIndex + REHASH_STEP, oldTable.length);
+        while (rehashIndex < end) {
+            moveBucket(rehashIndex++);
+        }
+        
+        if (rehashIndex == oldTable.length) { // 迁移完毕
+            oldTable = null;
+            rehashIndex = 0;
+        }
+    }
+    
+    /**
+     * 将旧表index位置的红黑树上的所有节点挪到新表
+     * @param index
+     */
+    private void moveBucket(int index) {
+        if (oldTable[index] == null) return;
+        
+        Queue<Node<K, V>> queue = new LinkedList<>();
+        queue.offer(oldTable[index]);
+        oldTable[index] = null;
+        while (!queue.isEmpty()) {
+            Node<K, V> node = queue.poll();
+            if (node.left != null) {
+                queue.offer(node.left);
+            }
+            if (node.right != null) {
+                queue.offer(node.right);
             }
+            // 挪动代码放到最后
+            moveNode(node);
         }
     }
     
@@ -362,6 +433,7 @@ public class HashMap<K, V> implements Map<K, V> {
 		if (node == null) return null;
 		
 		V oldValue = node.value;
+		Node<K, V> willNode = node;
 		
 		if (node.hasTwoChildren()) { // 度为2的节点
 			// 找到后继节点
@@ -406,6 +478,7 @@ public class HashMap<K, V> implements Map<K, V> {
 		}
 		
 		size--;
+		afterRemove(willNode, node);
 		return oldValue;
 	}
 	
@@ -478,9 +551,22 @@ public class HashMap<K, V> implements Map<K, V> {
 	}
 	
 	/**
-	 * 
-	 * @param willNode
-	 * @param removedNode
+	 * 添加或者覆盖键值对之后的处理（交由子类去实现
+	 * @param node 键值对所在的节点
+	 * @param added true代表新添加 false代表覆盖
+	 */
+	protected void afterPut(Node<K, V> node, boolean added) {}
+	
+	/**
+	 * get命中之后的处理（交由子类去实现
+	 * @param node
+	 */
+	protected void afterGet(Node<K, V> node) {}
+	
+	/**
+	 * 删除之后的处理（交由子类去实现
+	 * @param willNode 想要删除的节点（度为2时 它的内容已经被后继节点覆盖）
+	 * @param removedNode 真正被删除的节点
 	 */
 	protected void afterRemove(Node<K, V> willNode, Node<K, V> removedNode) {}
 	
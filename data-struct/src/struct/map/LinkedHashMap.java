@@ -4,6 +4,13 @@ import java.util.Objects;
 
 /**
  * LinkedHashMap
+ * 
+ * 在HashMap的基础上用双向链表把所有节点串起来 遍历时按照链表的顺序
+ * 
+ * ◼ 插入顺序（默认）：链表顺序就是键值对的添加顺序
+ * ◼ 访问顺序（accessOrder）：每次get命中、put覆盖都会把节点挪到链表尾部 头部就是最久未使用的节点
+ * ◼ 容量限制（maxWeight）：总权重超过上限时 从链表头部开始淘汰 配合访问顺序就是一个LRU缓存
+ * 
  * @author avril
  *
  * @param <K, V>
@@ -13,12 +20,116 @@ public class LinkedHashMap<K, V> extends HashMap<K, V> {
     /* 头尾指针 */
     private LinkedNode<K, V> first = null;
     private LinkedNode<K, V> last = null;
+    
+    /* 是否按访问顺序排列 */
+    private final boolean accessOrder;
+    
+    /* 总权重的上限（小于等于0代表不限制） */
+    private final long maxWeight;
+    
+    /* 计算每个键值对的权重（为null时每个键值对的权重都是1） */
+    private final Weigher<K, V> weigher;
+    
+    /* 当前的总权重 */
+    private long weight;
+    
+    /* 淘汰监听器 */
+    private EvictionListener<K, V> evictionListener;
+    
+    /* 统计 */
+    private long requestCount;
+    private long hitCount;
+    private long evictionCount;
+    
+    public LinkedHashMap() {
+        this(false);
+    }
+    
+    /**
+     * @param incremental 是否使用渐进式扩容
+     */
+    public LinkedHashMap(boolean incremental) {
+        this(incremental, false, 0, null);
+    }
+    
+    /**
+     * LRU缓存（按访问顺序 最多存放maxSize个键值对）
+     * @param maxSize
+     */
+    public LinkedHashMap(int maxSize) {
+        this(false, true, maxSize, null);
+    }
+    
+    /**
+     * LRU缓存（按访问顺序 总权重最多为maxWeight）
+     * @param maxWeight
+     * @param weigher
+     */
+    public LinkedHashMap(long maxWeight, Weigher<K, V> weigher) {
+        this(false, true, maxWeight, weigher);
+    }
+    
+    /**
+     * @param incremental 是否使用渐进式扩容
+     * @param accessOrder 是否按访问顺序排列
+     * @param maxWeight 总权重的上限（小于等于0代表不限制）
+     * @param weigher 计算每个键值对的权重（为null时每个键值对的权重都是1）
+     */
+    public LinkedHashMap(boolean incremental, boolean accessOrder, long maxWeight, Weigher<K, V> weigher) {
+        super(incremental);
+        this.accessOrder = accessOrder;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+    
+    /**
+     * 设置淘汰监听器（只有因为超出容量而被淘汰的键值对才会通知 remove、clear不会通知）
+     * @param evictionListener
+     */
+    public void setEvictionListener(EvictionListener<K, V> evictionListener) {
+        this.evictionListener = evictionListener;
+    }
+    
+    /**
+     * 当前的总权重
+     */
+    public long weight() {
+        return weight;
+    }
+    
+    /**
+     * get命中的次数
+     */
+    public long hitCount() {
+        return hitCount;
+    }
+    
+    /**
+     * get未命中的次数
+     */
+    public long missCount() {
+        return requestCount - hitCount;
+    }
+    
+    /**
+     * 因为超出容量而被淘汰的次数
+     */
+    public long evictionCount() {
+        return evictionCount;
+    }
+    
+    @Override
+    public V get(K key) {
+        requestCount++;
+        return super.get(key);
+    }
 
     @Override
     public void clear() {
         super.clear();
         first = null;
         last = null;
+        weight = 0;
     }
     
     @Override
@@ -41,11 +152,39 @@ public class LinkedHashMap<K, V> extends HashMap<K, V> {
         return false;
     }
     
+    @Override
+    protected void afterPut(Node<K, V> node, boolean added) {
+        LinkedNode<K, V> linkedNode = (LinkedNode<K, V>) node;
+        int newWeight = weigh(linkedNode.key, linkedNode.value);
+        weight += added ? newWeight : newWeight - linkedNode.weight;
+        linkedNode.weight = newWeight;
+        
+        // 新添加的节点已经在链表尾部了
+        if (!added && accessOrder) {
+            moveToLast(linkedNode);
+        }
+        
+        evict();
+    }
+    
+    @Override
+    protected void afterGet(Node<K, V> node) {
+        hitCount++;
+        if (accessOrder) {
+            moveToLast((LinkedNode<K, V>) node);
+        }
+    }
+    
     @Override
     protected void afterRemove(Node<K, V> willNode, Node<K, V> removedNode) {
         LinkedNode<K, V> node1 = (LinkedNode<K, V>)willNode;
         LinkedNode<K, V> node2 = (LinkedNode<K, V>)removedNode;
+        // node1原本存放的才是被删除的键值对
+        weight -= node1.weight;
         if (node1 != node2) { 
+            // node1的内容已经被node2覆盖 所以权重也跟着交换
+            node1.weight = node2.weight;
+
             LinkedNode<K, V> temp = node1.prev;
             node1.prev = node2.prev;
             node2.prev = temp;
@@ -89,6 +228,55 @@ public class LinkedHashMap<K, V> extends HashMap<K, V> {
         }
     }
 
+    /**
+     * 超出容量时 从链表头部（最久未使用）开始淘汰
+     */
+    private void evict() {
+        if (maxWeight <= 0) return;
+        while (weight > maxWeight && first != null) {
+            K key = first.key;
+            V value = first.value;
+            remove(key);
+            evictionCount++;
+            if (evictionListener != null) {
+                evictionListener.onEviction(key, value);
+            }
+        }
+    }
+    
+    /**
+     * 把节点挪到链表尾部
+     * @param node
+     */
+    private void moveToLast(LinkedNode<K, V> node) {
+        if (node == last) return;
+        
+        // 先从链表中摘除（node不是last 所以next一定不为null）
+        LinkedNode<K, V> prev = node.prev;
+        LinkedNode<K, V> next = node.next;
+        if (prev == null) {
+            first = next;
+        } else {
+            prev.next = next;
+        }
+        next.prev = prev;
+        
+        // 再接到尾部
+        node.prev = last;
+        node.next = null;
+        last.next = node;
+        last = node;
+    }
+    
+    private int weigh(K key, V value) {
+        if (weigher == null) return 1;
+        int weight = weigher.weigh(key, value);
+        if (weight < 0) {
+            throw new IllegalArgumentException("weight must not be negative.");
+        }
+        return weight;
+    }
+    
     @Override
     protected Node<K, V> createNode(K key, V value, Node<K, V> parent) {
         LinkedNode<K, V> node = new LinkedNode(key, value, parent);
@@ -105,9 +293,22 @@ public class LinkedHashMap<K, V> extends HashMap<K, V> {
     private static class LinkedNode<K, V> extends Node<K, V> {
         LinkedNode<K, V> prev = null;
         LinkedNode<K, V> next = null;
+        int weight;
         
         public LinkedNode(K key, V value, Node<K, V> parent) {
             super(key, value, parent);
         }
     }
+    
+    /** 计算键值对的权重 */
+    @FunctionalInterface
+    public static interface Weigher<K, V> {
+        int weigh(K key, V value);
+    }
+    
+    /** 淘汰监听器 */
+    @FunctionalInterface
+    public static interface EvictionListener<K, V> {
+        void onEviction(K key, V value);
+    }
 }
@@ -0,0 +1,293 @@
+package struct.map;
+
+import java.util.Objects;
+
+import struct.map.base.Map;
+
+/**
+ * OpenAddressingHashMap 开放定址哈希表（Robin Hood 线性探测版）
+ *
+ * 与HashMap（数组 + 红黑树）不同 这里不为键值对创建任何节点对象
+ * key、value、hash分别存放在3个平行数组中 冲突时向后线性探测
+ *
+ * ◼ Robin Hood
+ * 插入时如果当前槽位元素的探测距离比待插入元素的更短（“更富有”）就让出位置
+ * 这样所有元素的探测距离都比较平均 查找失败时也能提前结束
+ *
+ * ◼ 删除
+ * 不使用墓碑（tombstone） 而是把后面的元素依次往前挪（backward shift）
+ *
+ * @author avril
+ *
+ * @param <K, V>
+ */
+@SuppressWarnings("unchecked")
+public class OpenAddressingHashMap<K, V> implements Map<K, V> {
+	/* 定义默认容量 */
+	private static final int DEFAULT_CAPACITY = 1 << 4;
+	private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+	private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+	/* 空槽位的hash值（存入的hash最高位固定为1 所以不会和它冲突） */
+	private static final int EMPTY = 0;
+
+	/* 数量 */
+	private int size;
+
+	/* 扩容阈值 */
+	private int threshold;
+
+	/* 3个平行数组（下标相同的位置构成一个键值对） */
+	private int[] hashes;
+	private Object[] keys;
+	private Object[] values;
+
+	public OpenAddressingHashMap() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param expectedSize 预计要存放的键值对数量（用于避免频繁扩容）
+	 */
+	public OpenAddressingHashMap(int expectedSize) {
+		if (expectedSize < 0) {
+			throw new IllegalArgumentException("expectedSize must not be negative.");
+		}
+		allocate(tableSizeFor((int) Math.ceil(expectedSize / DEFAULT_LOAD_FACTOR)));
+	}
+
+	/**
+	 * 包含元素的数量
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * 是否为空
+	 */
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * 清空元素
+	 */
+	@Override
+	public void clear() {
+		if (size == 0) return;
+		for (int i = 0; i < hashes.length; i++) {
+			hashes[i] = EMPTY;
+			keys[i] = null;
+			values[i] = null;
+		}
+		size = 0;
+	}
+
+	/**
+	 * 添加键值对
+	 * @return 原本key对应的值
+	 */
+	@Override
+	public V put(K key, V value) {
+		int hash = hash(key);
+		int index = slot(key, hash);
+		if (index >= 0) { // 已经存在这个key 覆盖
+			V oldValue = (V) values[index];
+			keys[index] = key;
+			values[index] = value;
+			return oldValue;
+		}
+
+		if (size >= threshold) { // 只有真正插入新的key时才需要扩容
+			reSize();
+		}
+		insert(hash, key, value);
+		size++;
+		return null;
+	}
+
+	/**
+	 * 通过key获取value
+	 * @param key
+	 */
+	@Override
+	public V get(K key) {
+		int index = slot(key, hash(key));
+		return index >= 0 ? (V) values[index] : null;
+	}
+
+	/**
+	 * 删除key
+	 * @param key
+	 */
+	@Override
+	public V remove(K key) {
+		int index = slot(key, hash(key));
+		if (index < 0) return null;
+
+		V oldValue = (V) values[index];
+		int mask = hashes.length - 1;
+		// 把后面探测距离大于0的元素依次往前挪一格
+		int prev = index;
+		int next = (index + 1) & mask;
+		while (hashes[next] != EMPTY && distance(hashes[next], next) > 0) {
+			hashes[prev] = hashes[next];
+			keys[prev] = keys[next];
+			values[prev] = values[next];
+			prev = next;
+			next = (next + 1) & mask;
+		}
+		hashes[prev] = EMPTY;
+		keys[prev] = null;
+		values[prev] = null;
+
+		size--;
+		return oldValue;
+	}
+
+	/**
+	 * 是否包含key
+	 * @param key
+	 */
+	@Override
+	public boolean containsKey(K key) {
+		return slot(key, hash(key)) >= 0;
+	}
+
+	/**
+	 * 是否包含value
+	 * @param value
+	 */
+	@Override
+	public boolean containsValue(V value) {
+		if (size == 0) return false;
+		for (int i = 0; i < hashes.length; i++) {
+			if (hashes[i] != EMPTY && Objects.equals(value, values[i])) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * 遍历映射（按槽位顺序）
+	 * @param visitor
+	 */
+	@Override
+	public void traversal(Visitor<K, V> visitor) {
+		if (size == 0 || visitor == null) return;
+		for (int i = 0; i < hashes.length; i++) {
+			if (hashes[i] == EMPTY) continue;
+			if (visitor.visit((K) keys[i], (V) values[i])) return;
+		}
+	}
+
+	/**
+	 * 查找key所在的槽位
+	 * @param key
+	 * @param hash
+	 * @return 槽位索引 不存在时返回-1
+	 */
+	private int slot(K key, int hash) {
+		int mask = hashes.length - 1;
+		int index = hash & mask;
+		int dist = 0;
+		while (true) {
+			int h = hashes[index];
+			// 遇到空槽位 或者遇到比自己“更富有”的元素 说明key不存在
+			if (h == EMPTY || distance(h, index) < dist) return -1;
+			if (h == hash && Objects.equals(key, keys[index])) return index;
+			index = (index + 1) & mask;
+			dist++;
+		}
+	}
+
+	/**
+	 * 插入一个确定不存在的键值对（Robin Hood）
+	 * @param hash
+	 * @param key
+	 * @param value
+	 */
+	private void insert(int hash, Object key, Object value) {
+		int mask = hashes.length - 1;
+		int index = hash & mask;
+		int dist = 0;
+		while (hashes[index] != EMPTY) {
+			int existDist = distance(hashes[index], index);
+			if (existDist < dist) { // 劫富济贫 交换后继续为被换出来的元素寻找位置
+				int h = hashes[index];
+				Object k = keys[index];
+				Object v = values[index];
+				hashes[index] = hash;
+				keys[index] = key;
+				values[index] = value;
+				hash = h;
+				key = k;
+				value = v;
+				dist = existDist;
+			}
+			index = (index + 1) & mask;
+			dist++;
+		}
+		hashes[index] = hash;
+		keys[index] = key;
+		values[index] = value;
+	}
+
+	/**
+	 * 动态扩容（容量变为原来的2倍 并重新插入所有元素）
+	 */
+	private void reSize() {
+		int[] oldHashes = hashes;
+		Object[] oldKeys = keys;
+		Object[] oldValues = values;
+		if (oldHashes.length >= MAXIMUM_CAPACITY) {
+			throw new IllegalStateException("capacity exceeds the maximum.");
+		}
+
+		allocate(oldHashes.length << 1);
+		for (int i = 0; i < oldHashes.length; i++) {
+			if (oldHashes[i] == EMPTY) continue;
+			insert(oldHashes[i], oldKeys[i], oldValues[i]);
+		}
+	}
+
+	private void allocate(int capacity) {
+		hashes = new int[capacity];
+		keys = new Object[capacity];
+		values = new Object[capacity];
+		threshold = (int) (capacity * DEFAULT_LOAD_FACTOR);
+	}
+
+	/**
+	 * 槽位index上的元素距离它理想位置的探测距离
+	 * @param hash
+	 * @param index
+	 */
+	private int distance(int hash, int index) {
+		return (index - (hash & (hashes.length - 1))) & (hashes.length - 1);
+	}
+
+	/**
+	 * 高16 XOR 低16 再把最高位置为1（用来和空槽位区分）
+	 * @param key
+	 */
+	private int hash(K key) {
+		if (key == null) return Integer.MIN_VALUE;
+		int hash = key.hashCode();
+		return (hash ^ (hash >>> 16)) | Integer.MIN_VALUE;
+	}
+
+	/**
+	 * 大于等于cap的最小的2的幂
+	 * @param cap
+	 */
+	private static int tableSizeFor(int cap) {
+		int n = DEFAULT_CAPACITY;
+		while (n < cap && n < MAXIMUM_CAPACITY) {
+			n <<= 1;
+		}
+		return n;
+	}
+}
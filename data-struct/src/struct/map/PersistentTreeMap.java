@@ -0,0 +1,403 @@
+package struct.map;
+
+import java.util.Comparator;
+import java.util.Objects;
+
+import struct.map.base.Map.Visitor;
+
+/**
+ * PersistentTreeMap 持久化（不可变）树形映射（红黑树实现版）
+ *
+ * 与TreeMap不同 这里的节点创建之后就不会再被修改
+ * put、remove不会修改当前映射 而是返回一个新的映射
+ * 新映射只复制从根节点到被修改节点这一条路径上的节点（O(logn)个） 其余的节点全部与旧映射共享
+ * 所以旧映射可以当作一个快照 随便保留、在多个线程之间随便传递 不需要任何拷贝和同步
+ *
+ * ◼ 插入：Okasaki的平衡方式（把4种双红的情况统一变成 红色的父节点 + 2个黑色的子节点）
+ * ◼ 删除：Kahrs的删除方式（balanceLeft、balanceRight、append）
+ *
+ * @author avril
+ *
+ * @param <K, V>
+ */
+public final class PersistentTreeMap<K, V> {
+	/* 定义红黑树特有的颜色常量 */
+	private static final boolean RED = false;
+	private static final boolean BLACK = true;
+
+	/* 数量 */
+	private final int size;
+
+	/* 根节点 */
+	private final Node<K, V> root;
+
+	/* 比较器 */
+	private final Comparator<K> comparator;
+
+	public PersistentTreeMap() {
+		this(null);
+	}
+
+	public PersistentTreeMap(Comparator<K> comparator) {
+		this(null, 0, comparator);
+	}
+
+	private PersistentTreeMap(Node<K, V> root, int size, Comparator<K> comparator) {
+		this.root = root;
+		this.size = size;
+		this.comparator = comparator;
+	}
+
+	/**
+	 * 包含元素的数量
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * 是否为空
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * 空映射（比较器保持不变）
+	 */
+	public PersistentTreeMap<K, V> clear() {
+		return size == 0 ? this : new PersistentTreeMap<>(comparator);
+	}
+
+	/**
+	 * 添加键值对（当前映射不变）
+	 * O(logn) 只会新建一条路径上的节点
+	 * @return 添加之后的新映射
+	 */
+	public PersistentTreeMap<K, V> put(K key, V value) {
+		keyNotNullCheck(key);
+		Node<K, V> node = node(key);
+		if (node != null && node.key == key && node.value == value) return this;
+
+		Node<K, V> newRoot = blacken(insert(root, key, value));
+		return new PersistentTreeMap<>(newRoot, node == null ? size + 1 : size, comparator);
+	}
+
+	/**
+	 * 删除key（当前映射不变）
+	 * O(logn) 只会新建一条路径上的节点
+	 * @return 删除之后的新映射（key不存在时返回当前映射）
+	 */
+	public PersistentTreeMap<K, V> remove(K key) {
+		keyNotNullCheck(key);
+		// 先确认key存在 delete的各种情况都是建立在key一定存在的前提之上的
+		if (node(key) == null) return this;
+
+		Node<K, V> newRoot = blacken(delete(root, key));
+		return new PersistentTreeMap<>(newRoot, size - 1, comparator);
+	}
+
+	/**
+	 * 通过key获取value
+	 * @param key
+	 */
+	public V get(K key) {
+		keyNotNullCheck(key);
+		Node<K, V> node = node(key);
+		return node != null ? node.value : null;
+	}
+
+	/**
+	 * 是否包含key
+	 * @param key
+	 */
+	public boolean containsKey(K key) {
+		keyNotNullCheck(key);
+		return node(key) != null;
+	}
+
+	/**
+	 * 是否包含value
+	 * @param value
+	 */
+	public boolean containsValue(V value) {
+		boolean[] found = { false };
+		traversal((k, v) -> found[0] = Objects.equals(value, v));
+		return found[0];
+	}
+
+	/**
+	 * 最小的key（映射为空时返回null）
+	 */
+	public K firstKey() {
+		if (root == null) return null;
+		Node<K, V> node = root;
+		while (node.left != null) {
+			node = node.left;
+		}
+		return node.key;
+	}
+
+	/**
+	 * 最大的key（映射为空时返回null）
+	 */
+	public K lastKey() {
+		if (root == null) return null;
+		Node<K, V> node = root;
+		while (node.right != null) {
+			node = node.right;
+		}
+		return node.key;
+	}
+
+	/**
+	 * 按key从小到大遍历映射
+	 * @param visitor
+	 */
+	public void traversal(Visitor<K, V> visitor) {
+		if (visitor == null) return;
+		traversal(root, visitor);
+	}
+
+	private boolean traversal(Node<K, V> node, Visitor<K, V> visitor) {
+		if (node == null) return false;
+		if (traversal(node.left, visitor)) return true;
+		if (visitor.visit(node.key, node.value)) return true;
+		return traversal(node.right, visitor);
+	}
+
+	/**
+	 * 插入（只在黑色节点上做平衡 红色节点原样复制）
+	 * @param node
+	 * @param key
+	 * @param value
+	 */
+	private Node<K, V> insert(Node<K, V> node, K key, V value) {
+		if (node == null) return new Node<>(RED, null, key, value, null);
+
+		int cmp = compare(key, node.key);
+		if (cmp == 0) return new Node<>(node.color, node.left, key, value, node.right);
+		if (node.color == RED) {
+			return cmp < 0
+					? new Node<>(RED, insert(node.left, key, value), node.key, node.value, node.right)
+					: new Node<>(RED, node.left, node.key, node.value, insert(node.right, key, value));
+		}
+		return cmp < 0
+				? balance(insert(node.left, key, value), node, node.right)
+				: balance(node.left, node, insert(node.right, key, value));
+	}
+
+	/**
+	 * 删除（调用前必须确认key存在）
+	 * 从黑色子树中删除会让黑高度减1 由balanceLeft、balanceRight来弥补
+	 * @param node
+	 * @param key
+	 */
+	private Node<K, V> delete(Node<K, V> node, K key) {
+		int cmp = compare(key, node.key);
+		if (cmp < 0) {
+			if (isBlack(node.left)) {
+				return balanceLeft(delete(node.left, key), node, node.right);
+			}
+			return new Node<>(RED, delete(node.left, key), node.key, node.value, node.right);
+		}
+		if (cmp > 0) {
+			if (isBlack(node.right)) {
+				return balanceRight(node.left, node, delete(node.right, key));
+			}
+			return new Node<>(RED, node.left, node.key, node.value, delete(node.right, key));
+		}
+		return append(node.left, node.right);
+	}
+
+	/**
+	 * 以middle的键值对为根 把left、right组合起来 并消除其中的双红
+	 * @param left
+	 * @param middle 只使用它的键值对
+	 * @param right
+	 */
+	private static <K, V> Node<K, V> balance(Node<K, V> left, Node<K, V> middle, Node<K, V> right) {
+		if (isRed(left) && isRed(right)) {
+			return new Node<>(RED, blacken(left), middle.key, middle.value, blacken(right));
+		}
+		if (isRed(left)) {
+			if (isRed(left.left)) { // LL
+				return new Node<>(RED, blacken(left.left), left.key, left.value,
+						new Node<>(BLACK, left.right, middle.key, middle.value, right));
+			}
+			if (isRed(left.right)) { // LR
+				Node<K, V> child = left.right;
+				return new Node<>(RED, new Node<>(BLACK, left.left, left.key, left.value, child.left),
+						child.key, child.value,
+						new Node<>(BLACK, child.right, middle.key, middle.value, right));
+			}
+		}
+		if (isRed(right)) {
+			if (isRed(right.right)) { // RR
+				return new Node<>(RED, new Node<>(BLACK, left, middle.key, middle.value, right.left),
+						right.key, right.value, blacken(right.right));
+			}
+			if (isRed(right.left)) { // RL
+				Node<K, V> child = right.left;
+				return new Node<>(RED, new Node<>(BLACK, left, middle.key, middle.value, child.left),
+						child.key, child.value,
+						new Node<>(BLACK, child.right, right.key, right.value, right.right));
+			}
+		}
+		return new Node<>(BLACK, left, middle.key, middle.value, right);
+	}
+
+	/**
+	 * 左子树的黑高度比右子树少1时 恢复平衡
+	 * @param left 黑高度少1的左子树
+	 * @param middle 只使用它的键值对
+	 * @param right
+	 */
+	private static <K, V> Node<K, V> balanceLeft(Node<K, V> left, Node<K, V> middle, Node<K, V> right) {
+		if (isRed(left)) { // 左边直接染黑补上
+			return new Node<>(RED, blacken(left), middle.key, middle.value, right);
+		}
+		if (isBlack(right)) { // 右边染红降低黑高度 可能产生双红 交给balance
+			return balance(left, middle, redden(right));
+		}
+		// 右边是红色（它的左子节点必然是黑色）
+		Node<K, V> child = right.left;
+		return new Node<>(RED, new Node<>(BLACK, left, middle.key, middle.value, child.left),
+				child.key, child.value,
+				balance(child.right, right, redden(right.right)));
+	}
+
+	/**
+	 * 右子树的黑高度比左子树少1时 恢复平衡（与balanceLeft对称）
+	 * @param left
+	 * @param middle 只使用它的键值对
+	 * @param right 黑高度少1的右子树
+	 */
+	private static <K, V> Node<K, V> balanceRight(Node<K, V> left, Node<K, V> middle, Node<K, V> right) {
+		if (isRed(right)) {
+			return new Node<>(RED, left, middle.key, middle.value, blacken(right));
+		}
+		if (isBlack(left)) {
+			return balance(redden(left), middle, right);
+		}
+		Node<K, V> child = left.right;
+		return new Node<>(RED, balance(redden(left.left), left, child.left),
+				child.key, child.value,
+				new Node<>(BLACK, child.right, middle.key, middle.value, right));
+	}
+
+	/**
+	 * 把被删除节点的左右子树拼接成一棵（left中的key都小于right中的key）
+	 * @param left
+	 * @param right
+	 */
+	private static <K, V> Node<K, V> append(Node<K, V> left, Node<K, V> right) {
+		if (left == null) return right;
+		if (right == null) return left;
+
+		if (isRed(left) && isRed(right)) {
+			Node<K, V> middle = append(left.right, right.left);
+			if (isRed(middle)) {
+				return new Node<>(RED, new Node<>(RED, left.left, left.key, left.value, middle.left),
+						middle.key, middle.value,
+						new Node<>(RED, middle.right, right.key, right.value, right.right));
+			}
+			return new Node<>(RED, left.left, left.key, left.value,
+					new Node<>(RED, middle, right.key, right.value, right.right));
+		}
+		if (isBlack(left) && isBlack(right)) {
+			Node<K, V> middle = append(left.right, right.left);
+			if (isRed(middle)) {
+				return new Node<>(RED, new Node<>(BLACK, left.left, left.key, left.value, middle.left),
+						middle.key, middle.value,
+						new Node<>(BLACK, middle.right, right.key, right.value, right.right));
+			}
+			return balanceLeft(left.left, left, new Node<>(BLACK, middle, right.key, right.value, right.right));
+		}
+		if (isRed(right)) {
+			return new Node<>(RED, append(left, right.left), right.key, right.value, right.right);
+		}
+		return new Node<>(RED, left.left, left.key, left.value, append(left.right, right));
+	}
+
+	private static boolean isRed(Node<?, ?> node) {
+		return node != null && node.color == RED;
+	}
+
+	private static boolean isBlack(Node<?, ?> node) {
+		return node == null || node.color == BLACK;
+	}
+
+	/**
+	 * 染成黑色的副本（本来就是黑色时直接返回）
+	 * @param node
+	 */
+	private static <K, V> Node<K, V> blacken(Node<K, V> node) {
+		if (isBlack(node)) return node;
+		return new Node<>(BLACK, node.left, node.key, node.value, node.right);
+	}
+
+	/**
+	 * 染成红色的副本（调用时必然是黑色的非空节点）
+	 * @param node
+	 */
+	private static <K, V> Node<K, V> redden(Node<K, V> node) {
+		return new Node<>(RED, node.left, node.key, node.value, node.right);
+	}
+
+	/**
+	 * 获取指定key的节点
+	 * @param key
+	 */
+	private Node<K, V> node(K key) {
+		Node<K, V> node = root;
+		while (node != null) {
+			int cmp = compare(key, node.key);
+			if (cmp == 0) return node;
+			node = cmp > 0 ? node.right : node.left;
+		}
+		return null;
+	}
+
+	/**
+	 * key非空check
+	 * @param key
+	 */
+	private void keyNotNullCheck(K key) {
+		if (key == null) {
+			throw new IllegalArgumentException("key must not be null!");
+		}
+	}
+
+	/**
+	 * 比较两个key的大小
+	 * @param k1
+	 * @param k2
+	 */
+	@SuppressWarnings("unchecked")
+	private int compare(K k1, K k2) {
+		if (comparator != null) {
+			return comparator.compare(k1, k2);
+		}
+		return ((Comparable<K>) k1).compareTo(k2);
+	}
+
+	/**
+	 * 定义内部节点（不可变）
+	 * @param <K, V>
+	 */
+	private static final class Node<K, V> {
+		final boolean color;
+		final Node<K, V> left, right;
+		final K key;
+		final V value;
+
+		Node(boolean color, Node<K, V> left, K key, V value, Node<K, V> right) {
+			this.color = color;
+			this.left = left;
+			this.key = key;
+			this.value = value;
+			this.right = right;
+		}
+	}
+}
@@ -0,0 +1,295 @@
+package struct.map;
+
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+import struct.map.base.Map;
+
+/**
+ * SkipListMap 跳表映射
+ *
+ * 在有序链表的基础上 给每个节点随机分配层数 第i层的节点数量大约是第i-1层的一半
+ * 查找时从最高层开始 每一层都尽可能往右走 走不动了再下降一层
+ * 添加、删除、查找的平均复杂度都是O(logn) 并且不需要任何旋转
+ *
+ * @author avril
+ *
+ * @param <K, V>
+ */
+@SuppressWarnings({ "unchecked", "rawtypes" })
+public class SkipListMap<K, V> implements Map<K, V> {
+	/* 最高层数 */
+	private static final int MAX_LEVEL = 32;
+
+	/* 数量 */
+	private int size;
+
+	/* 当前的有效层数 */
+	private int level;
+
+	/* 首节点（不存放任何键值对） */
+	private Node<K, V> first;
+
+	/* 比较器 */
+	private Comparator<K> comparator;
+
+	public SkipListMap(Comparator<K> comparator) {
+		this.comparator = comparator;
+		first = new Node<>(null, null, MAX_LEVEL);
+	}
+
+	public SkipListMap() {
+		this(null);
+	}
+
+	/**
+	 * 包含元素的数量
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * 是否为空
+	 */
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * 清空元素
+	 */
+	@Override
+	public void clear() {
+		first = new Node<>(null, null, MAX_LEVEL);
+		level = 0;
+		size = 0;
+	}
+
+	/**
+	 * 添加键值对
+	 * @return 原本key对应的值
+	 */
+	@Override
+	public V put(K key, V value) {
+		keyNotNullCheck(key);
+
+		// 记录每一层最后一个比key小的节点（新节点要插在它们的后面）
+		Node<K, V>[] prevs = new Node[level];
+		Node<K, V> node = first;
+		for (int i = level - 1; i >= 0; i--) {
+			int cmp = -1;
+			while (node.nexts[i] != null && (cmp = compare(key, node.nexts[i].key)) > 0) {
+				node = node.nexts[i];
+			}
+			if (cmp == 0) { // 已经存在 覆盖
+				V oldValue = node.nexts[i].value;
+				node.nexts[i].value = value;
+				return oldValue;
+			}
+			prevs[i] = node;
+		}
+
+		int newLevel = randomLevel();
+		Node<K, V> newNode = new Node<>(key, value, newLevel);
+		for (int i = 0; i < newLevel; i++) {
+			if (i >= level) { // 新节点比当前所有节点都高 高出来的部分直接挂在首节点后面
+				first.nexts[i] = newNode;
+			} else {
+				newNode.nexts[i] = prevs[i].nexts[i];
+				prevs[i].nexts[i] = newNode;
+			}
+		}
+		level = Math.max(level, newLevel);
+		size++;
+		return null;
+	}
+
+	/**
+	 * 通过key获取value
+	 * @param key
+	 */
+	@Override
+	public V get(K key) {
+		Node<K, V> node = node(key);
+		return node != null ? node.value : null;
+	}
+
+	/**
+	 * 删除key
+	 * @param key
+	 */
+	@Override
+	public V remove(K key) {
+		keyNotNullCheck(key);
+
+		Node<K, V>[] prevs = new Node[level];
+		Node<K, V> node = first;
+		boolean exist = false;
+		for (int i = level - 1; i >= 0; i--) {
+			int cmp = -1;
+			while (node.nexts[i] != null && (cmp = compare(key, node.nexts[i].key)) > 0) {
+				node = node.nexts[i];
+			}
+			prevs[i] = node;
+			if (cmp == 0) exist = true;
+		}
+		if (!exist) return null;
+
+		// 每一层都把被删除的节点跳过去
+		Node<K, V> removedNode = node.nexts[0];
+		for (int i = 0; i < removedNode.nexts.length; i++) {
+			prevs[i].nexts[i] = removedNode.nexts[i];
+		}
+
+		// 更新有效层数
+		int newLevel = level;
+		while (--newLevel >= 0 && first.nexts[newLevel] == null) {
+			level = newLevel;
+		}
+		size--;
+		return removedNode.value;
+	}
+
+	/**
+	 * 是否包含key
+	 * @param key
+	 */
+	@Override
+	public boolean containsKey(K key) {
+		return node(key) != null;
+	}
+
+	/**
+	 * 是否包含value
+	 * @param value
+	 */
+	@Override
+	public boolean containsValue(V value) {
+		for (Node<K, V> node = first.nexts[0]; node != null; node = node.nexts[0]) {
+			if (Objects.equals(value, node.value)) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * 按key从小到大遍历映射
+	 * @param visitor
+	 */
+	@Override
+	public void traversal(Visitor<K, V> visitor) {
+		if (visitor == null) return;
+		for (Node<K, V> node = first.nexts[0]; node != null; node = node.nexts[0]) {
+			if (visitor.visit(node.key, node.value)) return;
+		}
+	}
+
+	/**
+	 * 范围遍历：按key从小到大访问[from, to]之间的键值对 O(logn + k)
+	 * @param from 最小的key（包含）
+	 * @param to 最大的key（包含）
+	 * @param visitor
+	 */
+	public void traversal(K from, K to, Visitor<K, V> visitor) {
+		keyNotNullCheck(from);
+		keyNotNullCheck(to);
+		if (visitor == null) return;
+
+		for (Node<K, V> node = ceilingNode(from); node != null; node = node.nexts[0]) {
+			if (compare(node.key, to) > 0) return;
+			if (visitor.visit(node.key, node.value)) return;
+		}
+	}
+
+	/**
+	 * 最小的key（映射为空时返回null）
+	 */
+	public K firstKey() {
+		Node<K, V> node = first.nexts[0];
+		return node == null ? null : node.key;
+	}
+
+	/**
+	 * 大于等于key的最小的key（不存在时返回null）
+	 * @param key
+	 */
+	public K ceilingKey(K key) {
+		keyNotNullCheck(key);
+		Node<K, V> node = ceilingNode(key);
+		return node == null ? null : node.key;
+	}
+
+	/**
+	 * 大于等于key的第一个节点
+	 * @param key
+	 */
+	private Node<K, V> ceilingNode(K key) {
+		Node<K, V> node = first;
+		for (int i = level - 1; i >= 0; i--) {
+			while (node.nexts[i] != null && compare(key, node.nexts[i].key) > 0) {
+				node = node.nexts[i];
+			}
+		}
+		return node.nexts[0];
+	}
+
+	/**
+	 * 获取指定key的节点
+	 * @param key
+	 */
+	private Node<K, V> node(K key) {
+		keyNotNullCheck(key);
+		Node<K, V> node = ceilingNode(key);
+		return node != null && compare(key, node.key) == 0 ? node : null;
+	}
+
+	/**
+	 * 随机层数（每多一层的概率为1/2）
+	 */
+	private int randomLevel() {
+		int random = ThreadLocalRandom.current().nextInt();
+		return Math.min(MAX_LEVEL, Integer.numberOfTrailingZeros(~random) + 1);
+	}
+
+	/**
+	 * key非空check
+	 * @param key
+	 */
+	private void keyNotNullCheck(K key) {
+		if (key == null) {
+			throw new IllegalArgumentException("key must not be null!");
+		}
+	}
+
+	/**
+	 * 比较两个key的大小
+	 * @param k1
+	 * @param k2
+	 */
+	private int compare(K k1, K k2) {
+		if (comparator != null) {
+			return comparator.compare(k1, k2);
+		}
+		return ((Comparable<K>) k1).compareTo(k2);
+	}
+
+	/**
+	 * 定义内部节点
+	 * @param <K, V>
+	 */
+	private static class Node<K, V> {
+		K key;
+		V value;
+		/* 每一层的下一个节点 */
+		Node<K, V>[] nexts;
+
+		public Node(K key, V value, int level) {
+			this.key = key;
+			this.value = value;
+			nexts = new Node[level];
+		}
+	}
+}
@@ -0,0 +1,121 @@
+package struct.map;
+
+import java.util.Comparator;
+
+import struct.map.base.Map;
+
+/**
+ * SnapshotTreeMap 支持快照的树形映射
+ *
+ * 内部只保存一个PersistentTreeMap的引用（volatile）
+ * ◼ 写：put、remove、clear之间互斥 基于当前版本生成新版本后替换引用（O(logn)）
+ * ◼ 读：直接读取当前版本 不加锁
+ * ◼ 快照：snapshot()直接返回当前版本 O(1) 之后的写入不会影响它
+ *
+ * @author avril
+ *
+ * @param <K, V>
+ */
+public class SnapshotTreeMap<K, V> implements Map<K, V> {
+	/* 当前版本 */
+	private volatile PersistentTreeMap<K, V> current;
+
+	public SnapshotTreeMap() {
+		this(null);
+	}
+
+	public SnapshotTreeMap(Comparator<K> comparator) {
+		current = new PersistentTreeMap<>(comparator);
+	}
+
+	/**
+	 * 当前版本的快照 O(1)
+	 */
+	public PersistentTreeMap<K, V> snapshot() {
+		return current;
+	}
+
+	/**
+	 * 包含元素的数量
+	 */
+	@Override
+	public int size() {
+		return current.size();
+	}
+
+	/**
+	 * 是否为空
+	 */
+	@Override
+	public boolean isEmpty() {
+		return current.isEmpty();
+	}
+
+	/**
+	 * 清空元素
+	 */
+	@Override
+	public synchronized void clear() {
+		current = current.clear();
+	}
+
+	/**
+	 * 添加键值对
+	 * @return 原本key对应的值
+	 */
+	@Override
+	public synchronized V put(K key, V value) {
+		PersistentTreeMap<K, V> old = current;
+		V oldValue = old.get(key);
+		current = old.put(key, value);
+		return oldValue;
+	}
+
+	/**
+	 * 通过key获取value
+	 * @param key
+	 */
+	@Override
+	public V get(K key) {
+		return current.get(key);
+	}
+
+	/**
+	 * 删除key
+	 * @param key
+	 */
+	@Override
+	public synchronized V remove(K key) {
+		PersistentTreeMap<K, V> old = current;
+		V oldValue = old.get(key);
+		current = old.remove(key);
+		return oldValue;
+	}
+
+	/**
+	 * 是否包含key
+	 * @param key
+	 */
+	@Override
+	public boolean containsKey(K key) {
+		return current.containsKey(key);
+	}
+
+	/**
+	 * 是否包含value
+	 * @param value
+	 */
+	@Override
+	public boolean containsValue(V value) {
+		return current.containsValue(value);
+	}
+
+	/**
+	 * 遍历映射（遍历的是开始时的版本 期间的写入不会影响遍历）
+	 * @param visitor
+	 */
+	@Override
+	public void traversal(Visitor<K, V> visitor) {
+		current.traversal(visitor);
+	}
+}
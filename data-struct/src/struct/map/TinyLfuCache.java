@@ -0,0 +1,365 @@
+package struct.map;
+
+import java.util.Objects;
+
+import struct.map.base.Map;
+import struct.map.tool.FrequencySketch;
+
+/**
+ * TinyLfuCache W-TinyLFU 缓存
+ * 
+ * 纯LRU会被大量只访问一次的数据（比如全表扫描）冲掉 这里在LRU的基础上加入了频率过滤
+ * 
+ * ◼ 窗口区（window）：容量的1% 新数据先进入这里（LRU） 用来接住突发的新热点
+ * ◼ 主区（main）：分段LRU（SLRU）
+ *    ✓ 试用区（probation）：从窗口区淘汰出来的数据进入这里
+ *    ✓ 保护区（protected）：主区容量的80% 在试用区被再次访问的数据晋升到这里
+ * ◼ 准入：主区满了以后 窗口区淘汰出来的候选者要和试用区头部的受害者比较访问频率
+ *    频率更高的一方留下（频率由FrequencySketch估算）
+ * 
+ * @author avril
+ *
+ * @param <K, V>
+ */
+public class TinyLfuCache<K, V> implements Map<K, V> {
+	/* 节点所在的区域 */
+	private static final int WINDOW = 0;
+	private static final int PROBATION = 1;
+	private static final int PROTECTED = 2;
+	
+	/* 容量 */
+	private final int maximumSize;
+	private final int windowMaximum;
+	private final int mainMaximum;
+	private final int protectedMaximum;
+	
+	/* 索引 */
+	private final HashMap<K, Node<K, V>> index = new HashMap<>();
+	
+	/* 3个LRU队列（头部是最久未使用的节点） */
+	private final LruQueue<K, V> window = new LruQueue<>();
+	private final LruQueue<K, V> probation = new LruQueue<>();
+	private final LruQueue<K, V> protect = new LruQueue<>();
+	
+	/* 频率草图 */
+	private final FrequencySketch<K> sketch;
+	
+	/* 统计 */
+	private long hitCount;
+	private long missCount;
+	private long evictionCount;
+	
+	/**
+	 * @param maximumSize 最多存放的键值对数量
+	 */
+	public TinyLfuCache(int maximumSize) {
+		if (maximumSize <= 0) {
+			throw new IllegalArgumentException("maximumSize must be positive.");
+		}
+		this.maximumSize = maximumSize;
+		windowMaximum = Math.max(1, maximumSize / 100);
+		mainMaximum = maximumSize - windowMaximum;
+		protectedMaximum = (int) (mainMaximum * 0.8);
+		sketch = new FrequencySketch<>(maximumSize);
+	}
+
+	/**
+	 * 包含元素的数量
+	 */
+	@Override
+	public int size() {
+		return index.size();
+	}
+
+	/**
+	 * 是否为空
+	 */
+	@Override
+	public boolean isEmpty() {
+		return index.isEmpty();
+	}
+
+	/**
+	 * 清空元素（频率信息会保留）
+	 */
+	@Override
+	public void clear() {
+		index.clear();
+		window.clear();
+		probation.clear();
+		protect.clear();
+	}
+
+	/**
+	 * 添加键值对
+	 * @return 原本key对应的值
+	 */
+	@Override
+	public V put(K key, V value) {
+		keyNotNullCheck(key);
+		sketch.increment(key);
+		
+		Node<K, V> node = index.get(key);
+		if (node != null) { // 覆盖 相当于一次访问
+			V oldValue = node.value;
+			node.value = value;
+			onAccess(node);
+			return oldValue;
+		}
+		
+		node = new Node<>(key, value);
+		index.put(key, node);
+		window.addLast(node);
+		evict();
+		return null;
+	}
+
+	/**
+	 * 通过key获取value
+	 * @param key
+	 */
+	@Override
+	public V get(K key) {
+		keyNotNullCheck(key);
+		sketch.increment(key);
+		
+		Node<K, V> node = index.get(key);
+		if (node == null) {
+			missCount++;
+			return null;
+		}
+		hitCount++;
+		onAccess(node);
+		return node.value;
+	}
+
+	/**
+	 * 删除key
+	 * @param key
+	 */
+	@Override
+	public V remove(K key) {
+		keyNotNullCheck(key);
+		Node<K, V> node = index.remove(key);
+		if (node == null) return null;
+		queueOf(node).remove(node);
+		return node.value;
+	}
+
+	/**
+	 * 是否包含key（不算作一次访问）
+	 * @param key
+	 */
+	@Override
+	public boolean containsKey(K key) {
+		keyNotNullCheck(key);
+		return index.containsKey(key);
+	}
+
+	/**
+	 * 是否包含value
+	 * @param value
+	 */
+	@Override
+	public boolean containsValue(V value) {
+		Visitor<K, V> visitor = (k, v) -> Objects.equals(value, v);
+		return traversal(window, visitor) || traversal(probation, visitor) || traversal(protect, visitor);
+	}
+
+	/**
+	 * 遍历映射（依次为窗口区、试用区、保护区）
+	 * @param visitor
+	 */
+	@Override
+	public void traversal(Visitor<K, V> visitor) {
+		if (visitor == null) return;
+		if (traversal(window, visitor)) return;
+		if (traversal(probation, visitor)) return;
+		traversal(protect, visitor);
+	}
+	
+	/**
+	 * get命中的次数
+	 */
+	public long hitCount() {
+		return hitCount;
+	}
+	
+	/**
+	 * get未命中的次数
+	 */
+	public long missCount() {
+		return missCount;
+	}
+	
+	/**
+	 * 因为超出容量而被淘汰的次数
+	 */
+	public long evictionCount() {
+		return evictionCount;
+	}
+	
+	/**
+	 * 最多存放的键值对数量
+	 */
+	public int maximumSize() {
+		return maximumSize;
+	}
+	
+	/**
+	 * 访问节点之后的调整
+	 * @param node
+	 */
+	private void onAccess(Node<K, V> node) {
+		if (node.queue == WINDOW) {
+			window.moveToLast(node);
+		} else if (node.queue == PROBATION) { // 在试用区被再次访问 晋升到保护区
+			probation.remove(node);
+			node.queue = PROTECTED;
+			protect.addLast(node);
+			// 保护区满了 把最久未使用的降级到试用区
+			if (protect.size > protectedMaximum) {
+				Node<K, V> demoted = protect.removeFirst();
+				demoted.queue = PROBATION;
+				probation.addLast(demoted);
+			}
+		} else {
+			protect.moveToLast(node);
+		}
+	}
+	
+	/**
+	 * 超出容量时的淘汰
+	 */
+	private void evict() {
+		// 窗口区满了 把最久未使用的节点作为候选者放入试用区
+		while (window.size > windowMaximum) {
+			Node<K, V> candidate = window.removeFirst();
+			candidate.queue = PROBATION;
+			probation.addLast(candidate);
+			
+			if (probation.size + protect.size <= mainMaximum) continue;
+			
+			// 主区也满了 候选者与受害者（试用区头部）比较频率 输的一方被淘汰
+			Node<K, V> victim = probation.first();
+			if (victim != candidate && sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+				evict(victim);
+			} else {
+				evict(candidate);
+			}
+		}
+	}
+	
+	private void evict(Node<K, V> node) {
+		queueOf(node).remove(node);
+		index.remove(node.key);
+		evictionCount++;
+	}
+	
+	private LruQueue<K, V> queueOf(Node<K, V> node) {
+		if (node.queue == WINDOW) return window;
+		if (node.queue == PROBATION) return probation;
+		return protect;
+	}
+	
+	/**
+	 * 遍历队列
+	 * @return true代表遍历被visitor中止
+	 */
+	private boolean traversal(LruQueue<K, V> queue, Visitor<K, V> visitor) {
+		Node<K, V> node = queue.head;
+		while (node != null) {
+			if (visitor.visit(node.key, node.value)) return true;
+			node = node.next;
+		}
+		return false;
+	}
+	
+	/**
+	 * key的非空检查
+	 * @param key
+	 */
+	private void keyNotNullCheck(K key) {
+		if (key == null) {
+			throw new IllegalArgumentException("the key must not be null !!");
+		}
+	}
+	
+	/**
+	 * 双向链表实现的LRU队列
+	 * @param <K, V>
+	 */
+	private static class LruQueue<K, V> {
+		private Node<K, V> head;
+		private Node<K, V> tail;
+		private int size;
+		
+		Node<K, V> first() {
+			return head;
+		}
+		
+		void addLast(Node<K, V> node) {
+			node.prev = tail;
+			node.next = null;
+			if (tail == null) {
+				head = node;
+			} else {
+				tail.next = node;
+			}
+			tail = node;
+			size++;
+		}
+		
+		Node<K, V> removeFirst() {
+			Node<K, V> node = head;
+			remove(node);
+			return node;
+		}
+		
+		void remove(Node<K, V> node) {
+			Node<K, V> prev = node.prev;
+			Node<K, V> next = node.next;
+			if (prev == null) {
+				head = next;
+			} else {
+				prev.next = next;
+			}
+			if (next == null) {
+				tail = prev;
+			} else {
+				next.prev = prev;
+			}
+			node.prev = null;
+			node.next = null;
+			size--;
+		}
+		
+		void moveToLast(Node<K, V> node) {
+			if (node == tail) return;
+			remove(node);
+			addLast(node);
+		}
+		
+		void clear() {
+			head = null;
+			tail = null;
+			size = 0;
+		}
+	}
+	
+	/**
+	 * 缓存节点
+	 * @param <K, V>
+	 */
+	private static class Node<K, V> {
+		private K key;
+		private V value;
+		private Node<K, V> prev, next;
+		private int queue = WINDOW;
+		
+		public Node(K key, V value) {
+			this.key = key;
+			this.value = value;
+		}
+	}
+}
@@ -1,10 +1,13 @@
 package struct.map;
 
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Queue;
 
 import struct.map.base.Map;
+import struct.tool.MergeSort;
 
 /**
  * TreeMap 树形映射
@@ -35,6 +38,78 @@ public class TreeMap<K, V> implements Map<K, V> {
 		this(null);
 	}
 	
+	/**
+	 * 用已经排好序（升序并且不重复）的键值对批量构建 O(n) 不需要任何旋转
+	 * @param keys
+	 * @param values 可以为null（所有的value都为null）
+	 * @param comparator
+	 */
+	public static <K, V> TreeMap<K, V> fromSorted(K[] keys, V[] values, Comparator<K> comparator) {
+		if (keys == null) {
+			throw new IllegalArgumentException("keys must not be null.");
+		}
+		if (values != null && values.length != keys.length) {
+			throw new IllegalArgumentException("values must have the same length as keys.");
+		}
+		return fromSorted(keys.length, Arrays.asList(keys).iterator(), 
+				values == null ? null : Arrays.asList(values).iterator(), comparator);
+	}
+	
+	/**
+	 * 用已经排好序（升序并且不重复）的迭代器批量构建 O(n) 不需要任何旋转
+	 * @param size 键值对的数量
+	 * @param keys
+	 * @param values 可以为null（所有的value都为null）
+	 * @param comparator
+	 */
+	public static <K, V> TreeMap<K, V> fromSorted(int size, Iterator<K> keys, Iterator<V> values, 
+			Comparator<K> comparator) {
+		if (size < 0 || keys == null) {
+			throw new IllegalArgumentException("size must not be negative and keys must not be null.");
+		}
+		TreeMap<K, V> map = new TreeMap<>(comparator);
+		map.root = map.buildFromSorted(0, 0, size - 1, redLevel(size), keys, values);
+		map.size = size;
+		map.sortedCheck();
+		return map;
+	}
+	
+	/**
+	 * 用未排序的键值对批量构建（先归并排序 再按有序的方式构建）
+	 * 重复的key保留最后一个value（和逐个put的结果一致）
+	 * @param keys
+	 * @param values 可以为null（所有的value都为null）
+	 * @param comparator
+	 */
+	public static <K, V> TreeMap<K, V> from(K[] keys, V[] values, Comparator<K> comparator) {
+		if (keys == null) {
+			throw new IllegalArgumentException("keys must not be null.");
+		}
+		if (values != null && values.length != keys.length) {
+			throw new IllegalArgumentException("values must have the same length as keys.");
+		}
+		K[] sortedKeys = Arrays.copyOf(keys, keys.length);
+		V[] sortedValues = values == null ? null : Arrays.copyOf(values, values.length);
+		// 归并排序是稳定的 相同的key之间保持原来的先后顺序
+		new MergeSort<>(comparator).sort(sortedKeys, sortedValues);
+		
+		TreeMap<K, V> map = new TreeMap<>(comparator);
+		// 去重（相同的key只保留最后一个）
+		int count = 0;
+		for (int i = 0; i < sortedKeys.length; i++) {
+			map.keyNotNullCheck(sortedKeys[i]);
+			if (count > 0 && map.compare(sortedKeys[count - 1], sortedKeys[i]) == 0) {
+				count--;
+			}
+			sortedKeys[count] = sortedKeys[i];
+			if (sortedValues != null) sortedValues[count] = sortedValues[i];
+			count++;
+		}
+		
+		return fromSorted(Arrays.copyOf(sortedKeys, count), 
+				sortedValues == null ? null : Arrays.copyOf(sortedValues, count), comparator);
+	}
+	
 	/**
 	 * 包含元素的数量
 	 */
@@ -166,6 +241,140 @@ public class TreeMap<K, V> implements Map<K, V> {
 		traversal(root, visitor);
 	}
 	
+	/**
+	 * 范围遍历：按key从小到大访问[from, to]之间的键值对
+	 * 只会进入可能包含范围内key的子树 复杂度为O(logn + k)
+	 * @param from 最小的key（包含）
+	 * @param to 最大的key（包含）
+	 * @param visitor
+	 */
+	public void traversal(K from, K to, Visitor<K, V> visitor) {
+		keyNotNullCheck(from);
+		keyNotNullCheck(to);
+		if (visitor == null || compare(from, to) > 0) return;
+		traversal(root, from, to, visitor);
+	}
+	
+	/**
+	 * 最小的key（映射为空时返回null）
+	 */
+	public K firstKey() {
+		if (root == null) return null;
+		Node<K, V> node = root;
+		while (node.left != null) {
+			node = node.left;
+		}
+		return node.key;
+	}
+	
+	/**
+	 * 最大的key（映射为空时返回null）
+	 */
+	public K lastKey() {
+		if (root == null) return null;
+		Node<K, V> node = root;
+		while (node.right != null) {
+			node = node.right;
+		}
+		return node.key;
+	}
+	
+	/**
+	 * 小于等于key的最大的key（不存在时返回null）
+	 * @param key
+	 */
+	public K floorKey(K key) {
+		return lowerKey(key, true);
+	}
+	
+	/**
+	 * 小于key的最大的key（不存在时返回null）
+	 * @param key
+	 */
+	public K lowerKey(K key) {
+		return lowerKey(key, false);
+	}
+	
+	/**
+	 * 大于等于key的最小的key（不存在时返回null）
+	 * @param key
+	 */
+	public K ceilingKey(K key) {
+		return higherKey(key, true);
+	}
+	
+	/**
+	 * 大于key的最小的key（不存在时返回null）
+	 * @param key
+	 */
+	public K higherKey(K key) {
+		return higherKey(key, false);
+	}
+	
+	/**
+	 * 从根节点往下找 每次往右走之前记录下当前节点（它比key小）
+	 * @param key
+	 * @param inclusive 是否可以等于key
+	 */
+	private K lowerKey(K key, boolean inclusive) {
+		keyNotNullCheck(key);
+		Node<K, V> node = root;
+		K result = null;
+		while (node != null) {
+			int cmp = compare(key, node.key);
+			if (cmp == 0 && inclusive) return node.key;
+			if (cmp > 0) {
+				result = node.key;
+				node = node.right;
+			} else {
+				node = node.left;
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * 从根节点往下找 每次往左走之前记录下当前节点（它比key大）
+	 * @param key
+	 * @param inclusive 是否可以等于key
+	 */
+	private K higherKey(K key, boolean inclusive) {
+		keyNotNullCheck(key);
+		Node<K, V> node = root;
+		K result = null;
+		while (node != null) {
+			int cmp = compare(key, node.key);
+			if (cmp == 0 && inclusive) return node.key;
+			if (cmp < 0) {
+				result = node.key;
+				node = node.left;
+			} else {
+				node = node.right;
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * 范围遍历（中序遍历 跳过不可能包含范围内key的子树）
+	 * @param node
+	 * @param from
+	 * @param to
+	 * @param visitor
+	 * @return true代表遍历被visitor中止
+	 */
+	private boolean traversal(Node<K, V> node, K from, K to, Visitor<K, V> visitor) {
+		if (node == null) return false;
+		
+		int cmpFrom = compare(from, node.key);
+		int cmpTo = compare(to, node.key);
+		// 只有from比当前key小 左子树中才可能有范围内的key
+		if (cmpFrom < 0 && traversal(node.left, from, to, visitor)) return true;
+		if (cmpFrom <= 0 && cmpTo >= 0 && visitor.visit(node.key, node.value)) return true;
+		// 只有to比当前key大 右子树中才可能有范围内的key
+		return cmpTo > 0 && traversal(node.right, from, to, visitor);
+	}
+	
 	/**
 	 * 遍历映射（中序遍历 数值默认从大到小 更有意义）
 	 * @param node
@@ -179,6 +388,67 @@ public class TreeMap<K, V> implements Map<K, V> {
 		traversal(node.right, visitor);
 	}
 	
+	/**
+	 * 自底向上构建[lo, hi]范围的子树（中序的顺序消费迭代器）
+	 * 除了最底层（可能不满的那一层）染成红色以外 其他节点都是黑色 所以天然满足红黑树的性质
+	 * @param level 当前子树的根节点所在的层（根节点为0）
+	 * @param lo
+	 * @param hi
+	 * @param redLevel 需要染成红色的层
+	 * @param keys
+	 * @param values
+	 */
+	private Node<K, V> buildFromSorted(int level, int lo, int hi, int redLevel, 
+			Iterator<K> keys, Iterator<V> values) {
+		if (hi < lo) return null;
+		
+		int mid = (lo + hi) >>> 1;
+		Node<K, V> left = buildFromSorted(level + 1, lo, mid - 1, redLevel, keys, values);
+		
+		K key = keys.next();
+		keyNotNullCheck(key);
+		Node<K, V> node = new Node<>(key, values == null ? null : values.next(), null);
+		node.color = level == redLevel ? RED : BLACK;
+		
+		if (left != null) {
+			node.left = left;
+			left.parent = node;
+		}
+		
+		Node<K, V> right = buildFromSorted(level + 1, mid + 1, hi, redLevel, keys, values);
+		if (right != null) {
+			node.right = right;
+			right.parent = node;
+		}
+		return node;
+	}
+	
+	/**
+	 * 完全二叉树中最底层的层号（这一层不满时需要染成红色 满的时候这一层不存在）
+	 * @param size
+	 */
+	private static int redLevel(int size) {
+		return 31 - Integer.numberOfLeadingZeros(size + 1);
+	}
+	
+	/**
+	 * 检查批量构建的结果是否严格升序
+	 */
+	private void sortedCheck() {
+		if (root == null) return;
+		Node<K, V> node = root;
+		while (node.left != null) {
+			node = node.left;
+		}
+		Node<K, V> next;
+		while ((next = successor(node)) != null) {
+			if (compare(node.key, next.key) >= 0) {
+				throw new IllegalArgumentException("keys must be sorted in ascending order without duplicates.");
+			}
+			node = next;
+		}
+	}
+	
 	/**
 	 * 添加之后的操作
 	 * @param node
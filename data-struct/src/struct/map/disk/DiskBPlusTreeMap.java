@@ -0,0 +1,520 @@
+package struct.map.disk;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import struct.map.base.Map;
+
+/**
+ * DiskBPlusTreeMap 磁盘上的B+树映射（key为long value为byte[]）
+ *
+ * 每个节点占用数据文件中的一页（4KB） 通过页号互相引用 重新打开文件就能直接使用 不需要重建
+ * ◼ 第0页是元数据页：根节点、高度、页数、键值对数量等
+ * ◼ 叶子节点：[数量][下一个叶子节点][key、value长度、value]... value占用固定的valueSize个字节
+ * ◼ 内部节点：[数量][key...][子节点页号...]
+ * 页的读写、缓存、事务和预写日志由Pager负责
+ *
+ * 事务：默认每次put、remove都是一个事务（自动提交）
+ * 关闭自动提交之后 多次修改在commit时一起写日志、一起fsync 可以大幅减少fsync的次数 rollback可以撤销
+ *
+ * 删除是惰性的：只从叶子节点中删掉键值对 不会合并节点 空出来的叶子节点留在链表中
+ * 再次插入时还可以复用 适合删除比例不高的场景
+ *
+ * 不支持多线程并发访问
+ *
+ * @author avril
+ *
+ */
+public class DiskBPlusTreeMap implements Map<Long, byte[]>, Closeable {
+	/* 默认的value长度上限、页缓存大小 */
+	public static final int DEFAULT_VALUE_SIZE = 64;
+	public static final int DEFAULT_CACHE_PAGES = 1024;
+
+	/* 文件标识 */
+	private static final long MAGIC = 0x42504c5553545245L;
+
+	/* 元数据页的布局 */
+	private static final int META_PAGE = 0;
+	private static final int META_MAGIC = 0;
+	private static final int META_VALUE_SIZE = 8;
+	private static final int META_ROOT = 12;
+	private static final int META_HEIGHT = 16;
+	private static final int META_PAGE_COUNT = 20;
+	private static final int META_SIZE = 24;
+
+	/* 节点页的布局 */
+	private static final int COUNT = 0;
+	private static final int NEXT = 4;
+	private static final int HEADER = 8;
+
+	/* 页号0是元数据页 所以可以用0表示没有下一个叶子节点 */
+	private static final int NIL = 0;
+
+	/* 内部节点最多的key数量（多留一个位置 插入之后溢出再分裂） */
+	private static final int MAX_INTERNAL_KEYS = (Pager.PAGE_SIZE - HEADER - 16) / 12;
+	private static final int CHILDREN = HEADER + (MAX_INTERNAL_KEYS + 1) * 8;
+
+	/* value长度的上限（每个叶子节点至少要能放下3个键值对） */
+	public static final int MAX_VALUE_SIZE = (Pager.PAGE_SIZE - HEADER) / 3 - 10;
+
+	private final Pager pager;
+
+	/* 每个value占用的字节数、叶子节点中每个键值对占用的字节数 */
+	private final int valueSize;
+	private final int entrySize;
+
+	/* 叶子节点最多的键值对数量 */
+	private final int maxLeafKeys;
+
+	/* 元数据（修改之后写回元数据页 随事务一起提交） */
+	private int root;
+	private int height;
+	private int pageCount;
+	private long size;
+
+	/* 是否自动提交 */
+	private boolean autoCommit = true;
+
+	public DiskBPlusTreeMap(File file) throws IOException {
+		this(file, DEFAULT_VALUE_SIZE, DEFAULT_CACHE_PAGES);
+	}
+
+	/**
+	 * 打开（或者创建）数据文件
+	 * @param file 数据文件 预写日志是同目录下的 文件名.wal
+	 * @param valueSize value的最大长度（创建之后不能修改）
+	 * @param cachePages 页缓存最多存放的页数
+	 */
+	public DiskBPlusTreeMap(File file, int valueSize, int cachePages) throws IOException {
+		if (file == null) {
+			throw new IllegalArgumentException("file must not be null.");
+		}
+		if (valueSize < 0 || valueSize > MAX_VALUE_SIZE) {
+			throw new IllegalArgumentException("valueSize must be between 0 and " + MAX_VALUE_SIZE + ".");
+		}
+		if (cachePages <= 0) {
+			throw new IllegalArgumentException("cachePages must be positive.");
+		}
+		this.valueSize = valueSize;
+		this.entrySize = 8 + 2 + valueSize;
+		this.maxLeafKeys = (Pager.PAGE_SIZE - HEADER) / entrySize - 1;
+
+		pager = new Pager(file, cachePages);
+		// 元数据页全部为0：新文件 或者第一次创建时在提交之前崩溃了（两种情况都当作新文件）
+		if (pager.isZero(META_PAGE)) { // 第1页是空的根节点
+			root = 1;
+			height = 0;
+			pageCount = 2;
+			size = 0;
+			pager.allocate(root);
+			writeMeta();
+			pager.commit();
+		} else {
+			ByteBuffer meta = pager.read(META_PAGE).buffer;
+			if (meta.getLong(META_MAGIC) != MAGIC) {
+				pager.close();
+				throw new IllegalArgumentException("file is not a DiskBPlusTreeMap.");
+			}
+			if (meta.getInt(META_VALUE_SIZE) != valueSize) {
+				pager.close();
+				throw new IllegalArgumentException("valueSize does not match the file: " + meta.getInt(META_VALUE_SIZE));
+			}
+			readMeta();
+		}
+	}
+
+	/**
+	 * 设置是否自动提交（打开时会先提交之前的修改）
+	 * @param autoCommit
+	 */
+	public void setAutoCommit(boolean autoCommit) {
+		this.autoCommit = autoCommit;
+		if (autoCommit) commit();
+	}
+
+	/**
+	 * 提交之前的所有修改（写预写日志并fsync）
+	 */
+	public void commit() {
+		try {
+			pager.commit();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * 撤销上次提交之后的所有修改
+	 */
+	public void rollback() {
+		pager.rollback();
+		readMeta();
+	}
+
+	/**
+	 * 提交没有提交的修改 然后关闭文件
+	 */
+	@Override
+	public void close() throws IOException {
+		pager.commit();
+		pager.close();
+	}
+
+	/**
+	 * 包含元素的数量
+	 */
+	@Override
+	public int size() {
+		return size > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) size;
+	}
+
+	/**
+	 * 是否为空
+	 */
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * 清空元素（根节点换成一个新的空叶子节点 旧的页之后会被重新分配）
+	 */
+	@Override
+	public void clear() {
+		root = 1;
+		height = 0;
+		pageCount = 2;
+		size = 0;
+		pager.allocate(root);
+		writeMeta();
+		afterWrite();
+	}
+
+	/**
+	 * 添加键值对
+	 * @param key
+	 * @param value 长度不能超过valueSize
+	 * @return 原本key对应的值
+	 */
+	@Override
+	public byte[] put(Long key, byte[] value) {
+		keyNotNullCheck(key);
+		if (value == null || value.length > valueSize) {
+			throw new IllegalArgumentException("value must not be null and its length must not exceed " + valueSize + ".");
+		}
+		long k = key;
+
+		// 记录从根节点到叶子节点的路径
+		int[] path = new int[height];
+		int[] indexes = new int[height];
+		int node = root;
+		for (int depth = 0; depth < height; depth++) {
+			int index = childIndex(pager.read(node).buffer, k);
+			path[depth] = node;
+			indexes[depth] = index;
+			node = child(pager.read(node).buffer, index);
+		}
+
+		int index = leafIndex(pager.read(node).buffer, k);
+		Page leaf = pager.write(node);
+		if (index >= 0) { // 已经存在 覆盖
+			byte[] oldValue = value(leaf.buffer, index);
+			setValue(leaf, index, value);
+			afterWrite();
+			return oldValue;
+		}
+
+		// 插入到叶子节点
+		index = -index - 1;
+		int count = leaf.buffer.getInt(COUNT);
+		int offset = entry(index);
+		System.arraycopy(leaf.data, offset, leaf.data, offset + entrySize, (count - index) * entrySize);
+		leaf.buffer.putLong(offset, k);
+		setValue(leaf, index, value);
+		leaf.buffer.putInt(COUNT, ++count);
+		size++;
+
+		if (count > maxLeafKeys) {
+			// 叶子节点溢出 后一半移动到新的叶子节点
+			Page right = pager.allocate(pageCount++);
+			int half = count >> 1;
+			System.arraycopy(leaf.data, entry(half), right.data, entry(0), (count - half) * entrySize);
+			right.buffer.putInt(COUNT, count - half);
+			right.buffer.putInt(NEXT, leaf.buffer.getInt(NEXT));
+			leaf.buffer.putInt(COUNT, half);
+			leaf.buffer.putInt(NEXT, right.id);
+			long upKey = right.buffer.getLong(entry(0));
+			int rightId = right.id;
+
+			int depth = height - 1;
+			for (; depth >= 0; depth--) {
+				Page parent = pager.write(path[depth]);
+				insertChild(parent, indexes[depth], upKey, rightId);
+				int n = parent.buffer.getInt(COUNT);
+				if (n <= MAX_INTERNAL_KEYS) break;
+
+				// 内部节点溢出 中间的key上升
+				int mid = n >> 1;
+				upKey = parent.buffer.getLong(HEADER + mid * 8);
+				Page sibling = pager.allocate(pageCount++);
+				int rightCount = n - mid - 1;
+				System.arraycopy(parent.data, HEADER + (mid + 1) * 8, sibling.data, HEADER, rightCount * 8);
+				System.arraycopy(parent.data, CHILDREN + (mid + 1) * 4, sibling.data, CHILDREN, (rightCount + 1) * 4);
+				sibling.buffer.putInt(COUNT, rightCount);
+				parent.buffer.putInt(COUNT, mid);
+				rightId = sibling.id;
+			}
+
+			if (depth < 0) { // 根节点分裂
+				Page newRoot = pager.allocate(pageCount++);
+				newRoot.buffer.putInt(COUNT, 1);
+				newRoot.buffer.putLong(HEADER, upKey);
+				newRoot.buffer.putInt(CHILDREN, root);
+				newRoot.buffer.putInt(CHILDREN + 4, rightId);
+				root = newRoot.id;
+				height++;
+			}
+		}
+
+		writeMeta();
+		afterWrite();
+		return null;
+	}
+
+	/**
+	 * 通过key获取value
+	 * @param key
+	 */
+	@Override
+	public byte[] get(Long key) {
+		keyNotNullCheck(key);
+		ByteBuffer leaf = pager.read(leaf(key)).buffer;
+		int index = leafIndex(leaf, key);
+		return index >= 0 ? value(leaf, index) : null;
+	}
+
+	/**
+	 * 删除key（惰性删除 不合并节点）
+	 * @param key
+	 */
+	@Override
+	public byte[] remove(Long key) {
+		keyNotNullCheck(key);
+		int node = leaf(key);
+		int index = leafIndex(pager.read(node).buffer, key);
+		if (index < 0) return null;
+
+		Page leaf = pager.write(node);
+		byte[] oldValue = value(leaf.buffer, index);
+		int count = leaf.buffer.getInt(COUNT);
+		System.arraycopy(leaf.data, entry(index + 1), leaf.data, entry(index), (count - index - 1) * entrySize);
+		leaf.buffer.putInt(COUNT, count - 1);
+		size--;
+		writeMeta();
+		afterWrite();
+		return oldValue;
+	}
+
+	/**
+	 * 是否包含key
+	 * @param key
+	 */
+	@Override
+	public boolean containsKey(Long key) {
+		keyNotNullCheck(key);
+		return leafIndex(pager.read(leaf(key)).buffer, key) >= 0;
+	}
+
+	/**
+	 * 是否包含value（沿着叶子节点的链表查找）
+	 * @param value
+	 */
+	@Override
+	public boolean containsValue(byte[] value) {
+		if (value == null) return false;
+		boolean[] found = { false };
+		traversal((k, v) -> found[0] = Arrays.equals(v, value));
+		return found[0];
+	}
+
+	/**
+	 * 按key从小到大遍历映射（沿着叶子节点的链表）
+	 * @param visitor
+	 */
+	@Override
+	public void traversal(Visitor<Long, byte[]> visitor) {
+		if (visitor == null) return;
+		int node = root;
+		for (int depth = 0; depth < height; depth++) {
+			node = child(pager.read(node).buffer, 0);
+		}
+		traversal(node, 0, Long.MAX_VALUE, visitor);
+	}
+
+	/**
+	 * 范围遍历：按key从小到大访问[from, to]之间的键值对
+	 * @param from 最小的key（包含）
+	 * @param to 最大的key（包含）
+	 * @param visitor
+	 */
+	public void traversal(long from, long to, Visitor<Long, byte[]> visitor) {
+		if (visitor == null || from > to) return;
+		int node = leaf(from);
+		int index = leafIndex(pager.read(node).buffer, from);
+		traversal(node, index >= 0 ? index : -index - 1, to, visitor);
+	}
+
+	/**
+	 * 从node的第index个键值对开始 沿着叶子节点的链表访问 直到key超过to
+	 */
+	private void traversal(int node, int index, long to, Visitor<Long, byte[]> visitor) {
+		for (; node != NIL; node = pager.read(node).buffer.getInt(NEXT), index = 0) {
+			ByteBuffer leaf = pager.read(node).buffer;
+			int count = leaf.getInt(COUNT);
+			for (; index < count; index++) {
+				long key = leaf.getLong(entry(index));
+				if (key > to) return;
+				if (visitor.visit(key, value(leaf, index))) return;
+			}
+		}
+	}
+
+	/**
+	 * 数据文件中已经使用的页数
+	 */
+	public int pageCount() {
+		return pageCount;
+	}
+
+	/**
+	 * 树的高度（包括叶子节点这一层）
+	 */
+	public int height() {
+		return height + 1;
+	}
+
+	/**
+	 * key所在的叶子节点
+	 * @param key
+	 */
+	private int leaf(long key) {
+		int node = root;
+		for (int depth = 0; depth < height; depth++) {
+			ByteBuffer buffer = pager.read(node).buffer;
+			node = child(buffer, childIndex(buffer, key));
+		}
+		return node;
+	}
+
+	/**
+	 * 在内部节点中二分查找key应该进入的子节点（第一个大于key的keys[i]对应children[i]）
+	 */
+	private int childIndex(ByteBuffer node, long key) {
+		int begin = 0;
+		int end = node.getInt(COUNT);
+		while (begin < end) {
+			int mid = (begin + end) >>> 1;
+			if (key < node.getLong(HEADER + mid * 8)) {
+				end = mid;
+			} else {
+				begin = mid + 1;
+			}
+		}
+		return begin;
+	}
+
+	/**
+	 * 在叶子节点中二分查找key
+	 * @return 找到时返回下标 找不到时返回 -(插入位置 + 1)
+	 */
+	private int leafIndex(ByteBuffer leaf, long key) {
+		int begin = 0;
+		int end = leaf.getInt(COUNT);
+		while (begin < end) {
+			int mid = (begin + end) >>> 1;
+			long k = leaf.getLong(entry(mid));
+			if (key == k) return mid;
+			if (key < k) {
+				end = mid;
+			} else {
+				begin = mid + 1;
+			}
+		}
+		return -(begin + 1);
+	}
+
+	/**
+	 * children[index]分裂了 在它的右边插入key和新的子节点
+	 */
+	private void insertChild(Page node, int index, long key, int right) {
+		int count = node.buffer.getInt(COUNT);
+		System.arraycopy(node.data, HEADER + index * 8, node.data, HEADER + (index + 1) * 8, (count - index) * 8);
+		System.arraycopy(node.data, CHILDREN + (index + 1) * 4, node.data, CHILDREN + (index + 2) * 4, (count - index) * 4);
+		node.buffer.putLong(HEADER + index * 8, key);
+		node.buffer.putInt(CHILDREN + (index + 1) * 4, right);
+		node.buffer.putInt(COUNT, count + 1);
+	}
+
+	private int child(ByteBuffer node, int index) {
+		return node.getInt(CHILDREN + index * 4);
+	}
+
+	/**
+	 * 叶子节点中第index个键值对的偏移量
+	 */
+	private int entry(int index) {
+		return HEADER + index * entrySize;
+	}
+
+	private byte[] value(ByteBuffer leaf, int index) {
+		int offset = entry(index) + 8;
+		byte[] value = new byte[leaf.getShort(offset) & 0xffff];
+		System.arraycopy(leaf.array(), offset + 2, value, 0, value.length);
+		return value;
+	}
+
+	private void setValue(Page leaf, int index, byte[] value) {
+		int offset = entry(index) + 8;
+		leaf.buffer.putShort(offset, (short) value.length);
+		System.arraycopy(value, 0, leaf.data, offset + 2, value.length);
+	}
+
+	private void readMeta() {
+		ByteBuffer meta = pager.read(META_PAGE).buffer;
+		root = meta.getInt(META_ROOT);
+		height = meta.getInt(META_HEIGHT);
+		pageCount = meta.getInt(META_PAGE_COUNT);
+		size = meta.getLong(META_SIZE);
+	}
+
+	private void writeMeta() {
+		ByteBuffer meta = pager.write(META_PAGE).buffer;
+		meta.putLong(META_MAGIC, MAGIC);
+		meta.putInt(META_VALUE_SIZE, valueSize);
+		meta.putInt(META_ROOT, root);
+		meta.putInt(META_HEIGHT, height);
+		meta.putInt(META_PAGE_COUNT, pageCount);
+		meta.putLong(META_SIZE, size);
+	}
+
+	/**
+	 * 每次修改之后 自动提交时立即提交
+	 */
+	private void afterWrite() {
+		if (autoCommit) commit();
+	}
+
+	/**
+	 * key非空check
+	 * @param key
+	 */
+	private void keyNotNullCheck(Long key) {
+		if (key == null) {
+			throw new IllegalArgumentException("key must not be null!");
+		}
+	}
+}
@@ -0,0 +1,31 @@
+package struct.map.disk;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Page 页（文件读写的最小单位）
+ *
+ * 内容存放在堆上的byte[]中 通过ByteBuffer按偏移量读写基本类型
+ *
+ * @author avril
+ *
+ */
+final class Page {
+	/* 页号（在文件中的偏移量 = 页号 * 页大小） */
+	final int id;
+	final byte[] data;
+	final ByteBuffer buffer;
+
+	Page(int id, byte[] data) {
+		this.id = id;
+		this.data = data;
+		this.buffer = ByteBuffer.wrap(data);
+	}
+
+	/**
+	 * 复制一份（事务中修改的是副本 提交之前不影响缓存中的页）
+	 */
+	Page copy() {
+		return new Page(id, data.clone());
+	}
+}
@@ -0,0 +1,227 @@
+package struct.map.disk;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import struct.map.LinkedHashMap;
+import struct.map.primitive.IntHashMap;
+
+/**
+ * Pager 页管理器
+ *
+ * ◼ 数据文件按区域（REGION_PAGES个页）映射到内存（MappedByteBuffer） 访问到哪里映射到哪里 文件随之变长
+ * ◼ 页缓存：最近访问过的页（只有已经提交的干净页）放在LRU缓存中 满了就淘汰最久没用的
+ * ◼ 事务缓冲：事务中修改的页是缓存页的副本 单独存放 提交之前不会写入数据文件（no-steal）
+ *   所以回滚只需要丢掉这些副本
+ * ◼ 提交：先写预写日志并fsync 再写回映射区域 最后放进页缓存
+ * ◼ 检查点：日志超过CHECKPOINT_BYTES时 把映射区域刷到磁盘 然后清空日志
+ *
+ * @author avril
+ *
+ */
+final class Pager implements Closeable {
+	/* 页大小 */
+	static final int PAGE_SIZE = 4096;
+
+	/* 每次映射的页数（1MB） */
+	private static final int REGION_PAGES = 256;
+
+	/* 日志超过这个长度就做一次检查点 */
+	private static final long CHECKPOINT_BYTES = 16L << 20;
+
+	private final FileChannel channel;
+
+	/* 已经映射的区域 */
+	private MappedByteBuffer[] regions = new MappedByteBuffer[0];
+
+	/* 页缓存（LRU 只存放干净页） */
+	private final LinkedHashMap<Integer, Page> cache;
+
+	/* 事务缓冲（本事务修改过的页） */
+	private final IntHashMap<Page> dirty = new IntHashMap<>();
+
+	private final WriteAheadLog wal;
+
+	/**
+	 * 打开数据文件 如果日志中还有没写回的事务 先重放
+	 * @param file 数据文件（日志文件为同目录下的 文件名.wal）
+	 * @param cachePages 页缓存最多存放的页数
+	 */
+	Pager(File file, int cachePages) throws IOException {
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		cache = new LinkedHashMap<>(cachePages);
+		wal = new WriteAheadLog(new File(file.getPath() + ".wal"), PAGE_SIZE);
+		if (wal.replay(this::writeBack) > 0 || wal.size() > 0) {
+			checkpoint();
+		}
+	}
+
+	/**
+	 * 页的内容是否全部为0（还没有提交过任何内容）
+	 * 不能用文件长度判断：第一次映射区域时文件就变长了 如果在第一次提交之前崩溃 文件中只有0
+	 * @param id
+	 */
+	boolean isZero(int id) {
+		for (byte b : read(id).data) {
+			if (b != 0) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * 读取一页（只读 不要修改返回的页）
+	 * @param id
+	 */
+	Page read(int id) {
+		Page page = dirty.get(id);
+		if (page != null) return page;
+		page = cache.get(id);
+		if (page != null) return page;
+
+		// 缓存未命中 从映射区域复制出来
+		byte[] data = new byte[PAGE_SIZE];
+		ByteBuffer region = region(id).duplicate();
+		region.position(offset(id));
+		region.get(data);
+		page = new Page(id, data);
+		cache.put(id, page);
+		return page;
+	}
+
+	/**
+	 * 获取一页用于修改（第一次修改时复制一份放进事务缓冲）
+	 * @param id
+	 */
+	Page write(int id) {
+		Page page = dirty.get(id);
+		if (page != null) return page;
+		page = read(id).copy();
+		dirty.put(id, page);
+		return page;
+	}
+
+	/**
+	 * 新建一页（内容全部为0 不需要读取旧的内容）
+	 * @param id
+	 */
+	Page allocate(int id) {
+		Page page = new Page(id, new byte[PAGE_SIZE]);
+		dirty.put(id, page);
+		return page;
+	}
+
+	/**
+	 * 提交事务
+	 * 写日志失败时日志会截断回原来的长度（见WriteAheadLog.append） 修改仍然留在事务缓冲中 可以重试或者回滚
+	 */
+	void commit() throws IOException {
+		if (dirty.isEmpty()) return;
+
+		Page[] pages = new Page[dirty.size()];
+		int[] index = { 0 };
+		dirty.traversal((id, page) -> {
+			pages[index[0]++] = page;
+			return false;
+		});
+		// 按页号排序 写回映射区域时更接近顺序写
+		Arrays.sort(pages, (p1, p2) -> Integer.compare(p1.id, p2.id));
+
+		wal.append(pages);
+		for (Page page : pages) {
+			writeBack(page.id, page.data);
+			cache.put(page.id, page);
+		}
+		dirty.clear();
+
+		if (wal.size() > CHECKPOINT_BYTES) {
+			checkpoint();
+		}
+	}
+
+	/**
+	 * 回滚事务（丢弃所有修改过的页）
+	 */
+	void rollback() {
+		dirty.clear();
+	}
+
+	/**
+	 * 是否有没提交的修改
+	 */
+	boolean hasUncommitted() {
+		return !dirty.isEmpty();
+	}
+
+	/**
+	 * 检查点：数据文件落盘之后 日志就不再需要了
+	 */
+	void checkpoint() throws IOException {
+		for (MappedByteBuffer region : regions) {
+			if (region != null) region.force();
+		}
+		channel.force(true);
+		wal.truncate();
+	}
+
+	/**
+	 * 检查点之后关闭（没有提交的修改会被丢弃）
+	 */
+	@Override
+	public void close() throws IOException {
+		dirty.clear();
+		checkpoint();
+		wal.close();
+		channel.close();
+		regions = new MappedByteBuffer[0];
+		cache.clear();
+	}
+
+	/**
+	 * 把页的内容写回映射区域
+	 * @param id
+	 * @param data
+	 */
+	private void writeBack(int id, byte[] data) {
+		ByteBuffer region = region(id).duplicate();
+		region.position(offset(id));
+		region.put(data);
+	}
+
+	/**
+	 * 页所在的映射区域（还没有映射的话就映射它 文件不够长时会自动变长）
+	 * @param id
+	 */
+	private MappedByteBuffer region(int id) {
+		int index = id / REGION_PAGES;
+		if (index >= regions.length) {
+			regions = Arrays.copyOf(regions, Math.max(index + 1, regions.length + (regions.length >> 1)));
+		}
+		MappedByteBuffer region = regions[index];
+		if (region == null) {
+			long regionSize = (long) REGION_PAGES * PAGE_SIZE;
+			try {
+				region = channel.map(FileChannel.MapMode.READ_WRITE, index * regionSize, regionSize);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			regions[index] = region;
+		}
+		return region;
+	}
+
+	/**
+	 * 页在映射区域中的偏移量
+	 * @param id
+	 */
+	private static int offset(int id) {
+		return id % REGION_PAGES * PAGE_SIZE;
+	}
+}
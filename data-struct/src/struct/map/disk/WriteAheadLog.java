@@ -0,0 +1,158 @@
+package struct.map.disk;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * WriteAheadLog 预写日志
+ *
+ * 事务提交时 先把所有修改过的页的完整内容追加到日志文件 再写一条提交记录 然后fsync
+ * 只有日志落盘之后 才会把这些页写回数据文件 所以数据文件在任何时刻崩溃都可以通过日志恢复
+ *
+ * 记录格式：
+ * ◼ 页记录：[PAGE(1字节)][页号(4字节)][页的内容(pageSize字节)]
+ * ◼ 提交记录：[COMMIT(1字节)][页数(4字节)][CRC32(8字节)] 校验和覆盖了本事务的所有页记录
+ * 恢复时只重放校验通过的完整事务 写了一半（没有提交记录或者校验失败）的尾部直接丢弃
+ *
+ * @author avril
+ *
+ */
+final class WriteAheadLog implements Closeable {
+	/* 记录类型 */
+	private static final byte PAGE = 1;
+	private static final byte COMMIT = 2;
+
+	/* 提交记录的长度 */
+	private static final int COMMIT_RECORD_SIZE = 1 + 4 + 8;
+
+	private final FileChannel channel;
+	private final int pageSize;
+
+	WriteAheadLog(File file, int pageSize) throws IOException {
+		this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		this.pageSize = pageSize;
+	}
+
+	/**
+	 * 追加一个事务（所有页记录 + 提交记录）并落盘
+	 * 失败时把日志截断回追加之前的长度：否则写了一半的记录留在日志中 之后的事务追加在它后面
+	 * 重放时遇到这条不完整的记录就停止了 后面已经提交成功的事务会被丢掉
+	 * @param pages 本事务修改过的页
+	 */
+	void append(Page[] pages) throws IOException {
+		int recordSize = 1 + 4 + pageSize;
+		ByteBuffer buffer = ByteBuffer.allocate(pages.length * recordSize + COMMIT_RECORD_SIZE);
+		CRC32 crc = new CRC32();
+		for (Page page : pages) {
+			int begin = buffer.position();
+			buffer.put(PAGE).putInt(page.id).put(page.data);
+			crc.update(buffer.array(), begin, recordSize);
+		}
+		buffer.put(COMMIT).putInt(pages.length).putLong(crc.getValue());
+		buffer.flip();
+
+		long before = channel.size();
+		try {
+			channel.position(before);
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			channel.force(false);
+		} catch (IOException | RuntimeException e) {
+			try {
+				channel.truncate(before);
+				channel.force(false);
+			} catch (IOException suppressed) {
+				e.addSuppressed(suppressed);
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * 按顺序重放所有完整的事务
+	 * @param writer 把页写回数据文件
+	 * @return 重放的事务数量
+	 */
+	int replay(PageWriter writer) throws IOException {
+		int recordSize = 1 + 4 + pageSize;
+		long position = 0;
+		long size = channel.size();
+		int transactions = 0;
+		ByteBuffer record = ByteBuffer.allocate(recordSize);
+		ByteBuffer commit = ByteBuffer.allocate(COMMIT_RECORD_SIZE);
+		while (true) {
+			// 先把一个事务完整读出来并校验 校验通过之后才写回
+			List<Page> pages = new ArrayList<>();
+			CRC32 crc = new CRC32();
+			while (position + recordSize <= size) {
+				record.clear();
+				read(record, position);
+				if (record.get(0) != PAGE) break;
+				crc.update(record.array(), 0, recordSize);
+				pages.add(new Page(record.getInt(1), Arrays.copyOfRange(record.array(), 5, recordSize)));
+				position += recordSize;
+			}
+			if (position + COMMIT_RECORD_SIZE > size) return transactions;
+			commit.clear();
+			read(commit, position);
+			if (commit.get(0) != COMMIT || commit.getInt(1) != pages.size() || commit.getLong(5) != crc.getValue()) {
+				return transactions;
+			}
+			position += COMMIT_RECORD_SIZE;
+
+			for (Page page : pages) {
+				writer.write(page.id, page.data);
+			}
+			transactions++;
+		}
+	}
+
+	/**
+	 * 日志的长度（字节）
+	 */
+	long size() throws IOException {
+		return channel.size();
+	}
+
+	/**
+	 * 清空日志（数据文件已经落盘之后调用）
+	 */
+	void truncate() throws IOException {
+		channel.truncate(0);
+		channel.force(false);
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * 从position开始读满buffer（调用者保证文件足够长）
+	 */
+	private void read(ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			int n = channel.read(buffer, position);
+			if (n < 0) throw new IOException("unexpected end of log.");
+			position += n;
+		}
+	}
+
+	/**
+	 * 重放时把页写回数据文件
+	 */
+	@FunctionalInterface
+	static interface PageWriter {
+		void write(int pageId, byte[] data) throws IOException;
+	}
+}
@@ -0,0 +1,263 @@
+package struct.map.primitive;
+
+/**
+ * IntIntHashMap key和value都为int的哈希表
+ * 
+ * key、value都直接存放在int[]中 完全没有对象（get、put不产生垃圾）
+ * 冲突时线性探测 删除时把后面的元素往前挪（不使用墓碑）
+ * 
+ * 数组中用0来表示空槽位 key为0的键值对单独存放
+ * 由于int无法表示“没有值” key不存在时返回构造时指定的noValue（默认为0）
+ * 
+ * @author avril
+ *
+ */
+public class IntIntHashMap {
+	/* 定义默认容量 */
+	private static final int DEFAULT_CAPACITY = 1 << 4;
+	private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+	private static final int MAXIMUM_CAPACITY = 1 << 30;
+	
+	/* 空槽位 */
+	private static final int FREE = 0;
+	
+	/* 数量（包括key为0的键值对） */
+	private int size;
+	
+	/* 扩容阈值 */
+	private int threshold;
+	
+	/* 平行数组 */
+	private int[] keys;
+	private int[] values;
+	
+	/* key为0的键值对 */
+	private boolean hasZeroKey;
+	private int zeroValue;
+	
+	/* key不存在时返回的值 */
+	private final int noValue;
+	
+	public IntIntHashMap() {
+		this(DEFAULT_CAPACITY, 0);
+	}
+	
+	/**
+	 * @param expectedSize 预计要存放的键值对数量
+	 * @param noValue key不存在时get、put、remove返回的值
+	 */
+	public IntIntHashMap(int expectedSize, int noValue) {
+		if (expectedSize < 0) {
+			throw new IllegalArgumentException("expectedSize must not be negative.");
+		}
+		this.noValue = noValue;
+		allocate(PrimitiveHashing.tableSizeFor(expectedSize, DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR, MAXIMUM_CAPACITY));
+	}
+	
+	/**
+	 * 包含元素的数量
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * 是否为空
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+	
+	/**
+	 * key不存在时返回的值
+	 */
+	public int noValue() {
+		return noValue;
+	}
+	
+	/**
+	 * 清空元素
+	 */
+	public void clear() {
+		if (size == 0) return;
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = FREE;
+		}
+		hasZeroKey = false;
+		size = 0;
+	}
+	
+	/**
+	 * 添加键值对
+	 * @return 原本key对应的值（不存在时返回noValue）
+	 */
+	public int put(int key, int value) {
+		if (key == FREE) {
+			int oldValue = hasZeroKey ? zeroValue : noValue;
+			zeroValue = value;
+			if (!hasZeroKey) {
+				hasZeroKey = true;
+				size++;
+			}
+			return oldValue;
+		}
+		
+		int mask = keys.length - 1;
+		int index = PrimitiveHashing.hash(key) & mask;
+		while (keys[index] != FREE) {
+			if (keys[index] == key) { // 已经存在 覆盖
+				int oldValue = values[index];
+				values[index] = value;
+				return oldValue;
+			}
+			index = (index + 1) & mask;
+		}
+		
+		keys[index] = key;
+		values[index] = value;
+		if (++size >= threshold) {
+			reSize();
+		}
+		return noValue;
+	}
+	
+	/**
+	 * 通过key获取value
+	 * @param key
+	 * @return 不存在时返回noValue
+	 */
+	public int get(int key) {
+		if (key == FREE) return hasZeroKey ? zeroValue : noValue;
+		int index = index(key);
+		return index >= 0 ? values[index] : noValue;
+	}
+	
+	/**
+	 * 删除key
+	 * @param key
+	 * @return 原本key对应的值（不存在时返回noValue）
+	 */
+	public int remove(int key) {
+		if (key == FREE) {
+			if (!hasZeroKey) return noValue;
+			hasZeroKey = false;
+			size--;
+			return zeroValue;
+		}
+		
+		int index = index(key);
+		if (index < 0) return noValue;
+		
+		int oldValue = values[index];
+		shiftKeys(index);
+		size--;
+		return oldValue;
+	}
+	
+	/**
+	 * 是否包含key
+	 * @param key
+	 */
+	public boolean containsKey(int key) {
+		return key == FREE ? hasZeroKey : index(key) >= 0;
+	}
+	
+	/**
+	 * 是否包含value
+	 * @param value
+	 */
+	public boolean containsValue(int value) {
+		if (hasZeroKey && zeroValue == value) return true;
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] != FREE && values[i] == value) return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * 遍历映射
+	 * @param visitor
+	 */
+	public void traversal(Visitor visitor) {
+		if (size == 0 || visitor == null) return;
+		if (hasZeroKey && visitor.visit(FREE, zeroValue)) return;
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] == FREE) continue;
+			if (visitor.visit(keys[i], values[i])) return;
+		}
+	}
+	
+	/**
+	 * 查找key所在的槽位
+	 * @param key
+	 * @return 不存在时返回-1
+	 */
+	private int index(int key) {
+		int mask = keys.length - 1;
+		int index = PrimitiveHashing.hash(key) & mask;
+		int k;
+		while ((k = keys[index]) != FREE) {
+			if (k == key) return index;
+			index = (index + 1) & mask;
+		}
+		return -1;
+	}
+	
+	/**
+	 * 删除index位置的元素 并把后面受影响的元素往前挪
+	 * @param index
+	 */
+	private void shiftKeys(int index) {
+		int mask = keys.length - 1;
+		int next = index;
+		while (true) {
+			next = (next + 1) & mask;
+			int key = keys[next];
+			if (key == FREE) break;
+			int ideal = PrimitiveHashing.hash(key) & mask;
+			// 如果next上的元素的理想位置不在(index, next]之间 就把它挪到index
+			if (PrimitiveHashing.outside(ideal, index, next)) {
+				keys[index] = key;
+				values[index] = values[next];
+				index = next;
+			}
+		}
+		keys[index] = FREE;
+	}
+	
+	/**
+	 * 动态扩容
+	 */
+	private void reSize() {
+		int[] oldKeys = keys;
+		int[] oldValues = values;
+		if (oldKeys.length >= MAXIMUM_CAPACITY) {
+			throw new IllegalStateException("capacity exceeds the maximum.");
+		}
+		
+		allocate(oldKeys.length << 1);
+		int mask = keys.length - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			int key = oldKeys[i];
+			if (key == FREE) continue;
+			int index = PrimitiveHashing.hash(key) & mask;
+			while (keys[index] != FREE) {
+				index = (index + 1) & mask;
+			}
+			keys[index] = key;
+			values[index] = oldValues[i];
+		}
+	}
+	
+	private void allocate(int capacity) {
+		keys = new int[capacity];
+		values = new int[capacity];
+		threshold = (int) (capacity * DEFAULT_LOAD_FACTOR);
+	}
+	
+	/** 访问器 */
+	@FunctionalInterface
+	public static interface Visitor {
+		boolean visit(int key, int value);
+	}
+}
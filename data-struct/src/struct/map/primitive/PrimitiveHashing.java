@@ -0,0 +1,52 @@
+package struct.map.primitive;
+
+/**
+ * 基本类型哈希表共用的工具方法
+ * 
+ * @author avril
+ *
+ */
+class PrimitiveHashing {
+	/* 黄金分割数（2^32 / φ） 用于打散连续的key */
+	private static final int GOLDEN_RATIO = 0x9E3779B9;
+	
+	private PrimitiveHashing() {}
+	
+	static int hash(int key) {
+		int hash = key * GOLDEN_RATIO;
+		return hash ^ (hash >>> 16);
+	}
+	
+	static int hash(long key) {
+		return hash((int) (key ^ (key >>> 32)));
+	}
+	
+	/**
+	 * 理想位置ideal是否不在循环区间(index, next]内
+	 * （线性探测删除时 只有这样的元素才能挪到index）
+	 * @param ideal
+	 * @param index
+	 * @param next
+	 */
+	static boolean outside(int ideal, int index, int next) {
+		return index <= next 
+				? (ideal <= index || ideal > next) 
+				: (ideal <= index && ideal > next);
+	}
+	
+	/**
+	 * 根据预计的数量算出容量（2的幂）
+	 * @param expectedSize
+	 * @param minCapacity
+	 * @param loadFactor
+	 * @param maxCapacity
+	 */
+	static int tableSizeFor(int expectedSize, int minCapacity, float loadFactor, int maxCapacity) {
+		int cap = (int) Math.ceil(expectedSize / loadFactor) + 1;
+		int n = minCapacity;
+		while (n < cap && n < maxCapacity) {
+			n <<= 1;
+		}
+		return n;
+	}
+}
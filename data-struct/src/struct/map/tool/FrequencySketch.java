@@ -0,0 +1,134 @@
+package struct.map.tool;
+
+/**
+ * FrequencySketch 频率草图（Count-Min Sketch）
+ * 
+ * 用很少的内存估算每个元素出现的次数（只会高估 不会低估）
+ * 
+ * ◼ 结构
+ * 一个long[] 每个long被分成16个4bit的计数器（最大计数为15）
+ * 每个元素对应4行计数器 估算值取4个计数器中的最小值
+ * 
+ * ◼ 哈希
+ * 和布隆过滤器（algorithm.bloomFilter.BloomFilter）的做法一样
+ * 利用hashCode生成2个整数 再组合出多个不同的索引
+ * 
+ * ◼ 衰减
+ * 累计记录的次数达到阈值后 所有计数器减半 让频率能够反映最近的访问情况
+ * 
+ * @author avril
+ *
+ * @param <E>
+ */
+public class FrequencySketch<E> {
+	/* 行数 */
+	private static final int DEPTH = 4;
+	
+	/* 计数器的最大值（4bit） */
+	private static final int MAX_COUNT = 15;
+	
+	/* 每个4bit计数器都减半时使用的掩码 */
+	private static final long RESET_MASK = 0x7777777777777777L;
+	
+	/* 计数器表 */
+	private long[] table;
+	
+	/* 累计记录的次数 */
+	private int size;
+	
+	/* 衰减阈值 */
+	private int sampleSize;
+	
+	/**
+	 * @param maximumSize 缓存的最大容量（用来决定表的大小）
+	 */
+	public FrequencySketch(int maximumSize) {
+		if (maximumSize <= 0) {
+			throw new IllegalArgumentException("maximumSize must be positive.");
+		}
+		int length = 1;
+		while (length < maximumSize && length < (1 << 30)) {
+			length <<= 1;
+		}
+		table = new long[length];
+		sampleSize = maximumSize > Integer.MAX_VALUE / 10 ? Integer.MAX_VALUE : maximumSize * 10;
+	}
+	
+	/**
+	 * 估算元素出现的次数
+	 * @param e
+	 */
+	public int frequency(E e) {
+		int hash1 = spread(e.hashCode());
+		int hash2 = hash1 >>> 16;
+		
+		int frequency = MAX_COUNT;
+		for (int i = 0; i < DEPTH; i++) {
+			int combinedHash = combinedHash(hash1, hash2, i);
+			int index = combinedHash & (table.length - 1);
+			int offset = offset(combinedHash, i);
+			int count = (int) ((table[index] >>> offset) & 0xFL);
+			frequency = Math.min(frequency, count);
+		}
+		return frequency;
+	}
+	
+	/**
+	 * 记录一次出现
+	 * @param e
+	 */
+	public void increment(E e) {
+		int hash1 = spread(e.hashCode());
+		int hash2 = hash1 >>> 16;
+		
+		boolean added = false;
+		for (int i = 0; i < DEPTH; i++) {
+			int combinedHash = combinedHash(hash1, hash2, i);
+			int index = combinedHash & (table.length - 1);
+			int offset = offset(combinedHash, i);
+			long mask = 0xFL << offset;
+			if ((table[index] & mask) != mask) { // 还没有达到最大值
+				table[index] += 1L << offset;
+				added = true;
+			}
+		}
+		
+		if (added && ++size >= sampleSize) {
+			reset();
+		}
+	}
+	
+	/**
+	 * 所有计数器减半
+	 */
+	private void reset() {
+		for (int i = 0; i < table.length; i++) {
+			table[i] = (table[i] >>> 1) & RESET_MASK;
+		}
+		size >>>= 1;
+	}
+	
+	/**
+	 * 利用2个整数组合出第i行的哈希值（可能是负数 索引和偏移都只取其中的一部分bit）
+	 */
+	private int combinedHash(int hash1, int hash2, int i) {
+		return hash1 + (i * hash2);
+	}
+	
+	/**
+	 * 第i行的计数器在long中的偏移（每行占用4个计数器 避免不同行落到同一个计数器上）
+	 * 使用最高的2个bit：表的长度不超过2^30 索引只会用到低30位 所以同一个long中的元素也能分散到不同的计数器上
+	 */
+	private int offset(int combinedHash, int i) {
+		int counter = (i << 2) + (combinedHash >>> 30);
+		return counter << 2;
+	}
+	
+	/**
+	 * 打散hashCode（避免连续的hashCode落到相邻的位置）
+	 */
+	private int spread(int hash) {
+		hash *= 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+}
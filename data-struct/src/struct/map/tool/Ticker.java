@@ -0,0 +1,20 @@
+package struct.map.tool;
+
+/**
+ * Ticker 时钟（返回纳秒级的时间）
+ * 
+ * 测试时可以传入一个手动推进的时钟 让过期行为变得可以预测
+ * 
+ * @author avril
+ *
+ */
+@FunctionalInterface
+public interface Ticker {
+	/* 当前时间（纳秒） */
+	long read();
+	
+	/** 系统时钟 */
+	static Ticker system() {
+		return System::nanoTime;
+	}
+}
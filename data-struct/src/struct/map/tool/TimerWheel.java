@@ -0,0 +1,204 @@
+package struct.map.tool;
+
+/**
+ * TimerWheel 分层时间轮
+ * 
+ * 像钟表的秒针、分针、时针一样 用多层的环形数组来存放定时任务
+ * 越上层的一格代表的时间跨度越大 到期时间较远的任务放在上层
+ * 时间推进时只需要处理走过的格子：到期的任务被取出 还没到期的任务重新放到更下层的格子里
+ * 所以添加、删除都是O(1) 推进的代价也是均摊O(1)
+ * 
+ * ◼ 每层64格 第0层每格约1.05毫秒（2^20纳秒） 每往上一层跨度放大64倍
+ * ◼ 4层一共可以覆盖2^44纳秒（约4.9小时） 更远的任务放在最上层 每次轮到它所在的格子时再重新安排
+ * 
+ * @author avril
+ *
+ * @param <T> 任务节点的类型
+ */
+@SuppressWarnings({ "unchecked", "rawtypes" })
+public class TimerWheel<T extends TimerWheel.Timer<T>> {
+	/* 每层的格子数（2的幂） */
+	private static final int BUCKETS = 64;
+	private static final int BUCKET_BITS = 6;
+	
+	/* 层数 */
+	private static final int LEVELS = 4;
+	
+	/* 第0层每格的跨度（2^20纳秒） */
+	private static final int BASE_SHIFT = 20;
+	
+	/* wheel[level][bucket] 是一个带哨兵的双向循环链表 */
+	private final Sentinel<T>[][] wheel;
+	
+	/* 上一次推进到的时间 */
+	private long time;
+	
+	public TimerWheel(long now) {
+		time = now;
+		wheel = new Sentinel[LEVELS][BUCKETS];
+		for (int i = 0; i < LEVELS; i++) {
+			for (int j = 0; j < BUCKETS; j++) {
+				wheel[i][j] = new Sentinel<>();
+			}
+		}
+	}
+	
+	/**
+	 * 添加任务（如果已经在时间轮中 会先移除）
+	 * @param timer
+	 */
+	public void schedule(T timer) {
+		deschedule(timer);
+		link(bucket(timer.expireTime()), timer);
+	}
+	
+	/**
+	 * 移除任务
+	 * @param timer
+	 */
+	public void deschedule(T timer) {
+		Timer<T> prev = timer.prev();
+		if (prev == null) return; // 不在时间轮中
+		Timer<T> next = timer.next();
+		prev.setNext(next);
+		next.setPrev(prev);
+		timer.setPrev(null);
+		timer.setNext(null);
+	}
+	
+	/**
+	 * 推进时间轮 把到期的任务交给expirer
+	 * @param now 当前时间
+	 * @param expirer
+	 */
+	public void advance(long now, Expirer<T> expirer) {
+		long previous = time;
+		if (now - previous < 0) return;
+		time = now;
+		
+		for (int level = 0; level < LEVELS; level++) {
+			int shift = shift(level);
+			long previousTicks = previous >>> shift;
+			long currentTicks = now >>> shift;
+			if (currentTicks - previousTicks <= 0) break; // 这一层的指针没有移动 更上层也不会移动
+			expire(level, previousTicks, currentTicks, now, expirer);
+		}
+	}
+	
+	/**
+	 * 处理第level层中指针走过的格子
+	 */
+	private void expire(int level, long previousTicks, long currentTicks, long now, Expirer<T> expirer) {
+		Sentinel<T>[] buckets = wheel[level];
+		// 走过的格子数 最多一圈
+		int steps = (int) Math.min(currentTicks - previousTicks + 1, BUCKETS);
+		int start = (int) (previousTicks & (BUCKETS - 1));
+		for (int i = 0; i < steps; i++) {
+			Sentinel<T> sentinel = buckets[(start + i) & (BUCKETS - 1)];
+			// 把整个格子的链表摘下来 再逐个处理
+			Timer<T> node = sentinel.next();
+			sentinel.setPrev(sentinel);
+			sentinel.setNext(sentinel);
+			while (node != sentinel) {
+				Timer<T> next = node.next();
+				node.setPrev(null);
+				node.setNext(null);
+				T timer = (T) node;
+				if (timer.expireTime() - now <= 0) {
+					expirer.expire(timer);
+				} else { // 还没到期 重新安排到合适的格子
+					link(bucket(timer.expireTime()), timer);
+				}
+				node = next;
+			}
+		}
+	}
+	
+	/**
+	 * 根据到期时间找到对应的格子
+	 * @param expireTime
+	 */
+	private Sentinel<T> bucket(long expireTime) {
+		// 已经到期的任务放到当前的格子 下次推进时处理
+		if (expireTime - time < 0) {
+			expireTime = time;
+		}
+		long duration = expireTime - time;
+		for (int level = 0; level < LEVELS - 1; level++) {
+			if (duration < (1L << shift(level + 1))) {
+				return wheel[level][(int) ((expireTime >>> shift(level)) & (BUCKETS - 1))];
+			}
+		}
+		// 太远的任务放在最上层 到时再重新安排
+		int level = LEVELS - 1;
+		long ticks = Math.max(expireTime, time + (1L << shift(level))) >>> shift(level);
+		return wheel[level][(int) (ticks & (BUCKETS - 1))];
+	}
+	
+	private int shift(int level) {
+		return BASE_SHIFT + level * BUCKET_BITS;
+	}
+	
+	private void link(Sentinel<T> sentinel, T timer) {
+		Timer<T> last = sentinel.prev();
+		timer.setPrev(last);
+		timer.setNext(sentinel);
+		last.setNext(timer);
+		sentinel.setPrev(timer);
+	}
+	
+	/**
+	 * 时间轮中的任务节点（节点自身就是链表节点 不需要额外分配对象）
+	 * @param <T>
+	 */
+	public static interface Timer<T extends Timer<T>> {
+		/* 到期时间（纳秒） */
+		long expireTime();
+		
+		Timer<T> prev();
+		void setPrev(Timer<T> prev);
+		
+		Timer<T> next();
+		void setNext(Timer<T> next);
+	}
+	
+	/** 到期处理 */
+	@FunctionalInterface
+	public static interface Expirer<T> {
+		void expire(T timer);
+	}
+	
+	/**
+	 * 每个格子的哨兵节点
+	 * @param <T>
+	 */
+	private static class Sentinel<T extends Timer<T>> implements Timer<T> {
+		private Timer<T> prev = this;
+		private Timer<T> next = this;
+		
+		@Override
+		public long expireTime() {
+			return 0;
+		}
+
+		@Override
+		public Timer<T> prev() {
+			return prev;
+		}
+
+		@Override
+		public void setPrev(Timer<T> prev) {
+			this.prev = prev;
+		}
+
+		@Override
+		public Timer<T> next() {
+			return next;
+		}
+
+		@Override
+		public void setNext(Timer<T> next) {
+			this.next = next;
+		}
+	}
+}
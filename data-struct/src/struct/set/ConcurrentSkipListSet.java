@@ -0,0 +1,101 @@
+package struct.set;
+
+import java.util.Comparator;
+
+import struct.map.ConcurrentSkipListMap;
+import struct.set.base.Set;
+
+/**
+ * ConcurrentSkipListSet 线程安全的有序集合（无锁跳表实现版）
+ * 
+ * @author avril
+ *
+ * @param <E>
+ */
+public class ConcurrentSkipListSet<E> implements Set<E> {
+	/* 所有元素共用的value（跳表中null表示已删除 所以不能用null） */
+	private static final Object PRESENT = Boolean.TRUE;
+
+	/* 内置无锁跳表 */
+	private ConcurrentSkipListMap<E, Object> map;
+
+	public ConcurrentSkipListSet() {
+		this(null);
+	}
+
+	public ConcurrentSkipListSet(Comparator<E> comparator) {
+		map = new ConcurrentSkipListMap<>(comparator);
+	}
+
+	/**
+	 * 获取元素数量
+	 */
+	@Override
+	public int size() {
+		return map.size();
+	}
+
+	/**
+	 * 是否为空
+	 */
+	@Override
+	public boolean isEmpty() {
+		return map.isEmpty();
+	}
+
+	/**
+	 * 清空元素
+	 */
+	@Override
+	public void clear() {
+		map.clear();
+	}
+
+	/**
+	 * 是否包含元素
+	 * @param element
+	 */
+	@Override
+	public boolean contains(E element) {
+		return map.containsKey(element);
+	}
+
+	/**
+	 * 添加元素
+	 * @param element
+	 */
+	@Override
+	public void add(E element) {
+		map.put(element, PRESENT);
+	}
+
+	/**
+	 * 删除元素
+	 * @param element
+	 */
+	@Override
+	public void remove(E element) {
+		map.remove(element);
+	}
+
+	/**
+	 * 遍历集合（从小到大 弱一致）
+	 * @param visitor
+	 */
+	@Override
+	public void traversal(Visitor<E> visitor) {
+		if (visitor == null) return;
+		map.traversal((key, value) -> visitor.visit(key));
+	}
+
+	/**
+	 * 范围遍历：按从小到大访问[from, to]之间的元素（弱一致）
+	 * @param from 最小的元素（包含）
+	 * @param to 最大的元素（包含）
+	 * @param visitor
+	 */
+	public void traversal(E from, E to, Visitor<E> visitor) {
+		if (visitor == null) return;
+		map.traversal(from, to, (key, value) -> visitor.visit(key));
+	}
+}
@@ -77,6 +77,50 @@ public class TreeSet<E> implements Set<E> {
 		tree.remove(element);
 	}
 
+	/**
+	 * 拆分：当前集合保留小于key的元素 返回由大于等于key的元素组成的集合
+	 * O(logn)
+	 * @param key
+	 */
+	public TreeSet<E> split(E key) {
+		TreeSet<E> greater = new TreeSet<>();
+		greater.tree = tree.split(key);
+		return greater;
+	}
+
+	/**
+	 * 连接：other中的元素必须都大于当前集合中的元素 连接之后other变为空
+	 * O(logn)
+	 * @param other
+	 */
+	public void join(TreeSet<E> other) {
+		tree.join(other.tree);
+	}
+
+	/**
+	 * 并集 结果保存在当前集合中 other变为空
+	 * @param other
+	 */
+	public void union(TreeSet<E> other) {
+		tree.union(other.tree);
+	}
+
+	/**
+	 * 交集 结果保存在当前集合中 other变为空
+	 * @param other
+	 */
+	public void intersection(TreeSet<E> other) {
+		tree.intersection(other.tree);
+	}
+
+	/**
+	 * 差集（当前集合 - other） 结果保存在当前集合中 other变为空
+	 * @param other
+	 */
+	public void difference(TreeSet<E> other) {
+		tree.difference(other.tree);
+	}
+
 	/**
 	 * 遍历集合
 	 * @param visitor
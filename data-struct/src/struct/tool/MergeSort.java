@@ -0,0 +1,119 @@
+package struct.tool;
+
+import java.util.Comparator;
+
+/**
+ * MergeSort 归并排序 [稳定排序]
+ * （与algorithm工程中的algorithm.sort.merge.MergeSort思路相同 这里额外支持比较器和跟随排序的value数组）
+ * 
+ * 执行流程
+ * (1) 不断地将当前序列平均分割成2个子序列
+ *     ✓ 直到不能再分割（序列中只剩1个元素）
+ * (2) 不断地将2个子序列合并成一个有序序列
+ *     ✓ 直到最终只剩下1个有序序列
+ * 
+ * @author avril
+ *
+ * @param <E>
+ */
+@SuppressWarnings("unchecked")
+public class MergeSort<E> {
+	/* 比较器 */
+	private Comparator<E> comparator;
+	
+	/* 要排序的数组 以及跟随它一起移动的数组（可以为null） */
+	private E[] array;
+	private Object[] values;
+	
+	/* 内置左半数组 */
+	private E[] leftArray;
+	private Object[] leftValues;
+	
+	public MergeSort(Comparator<E> comparator) {
+		this.comparator = comparator;
+	}
+	
+	public MergeSort() {
+		this(null);
+	}
+	
+	/**
+	 * 排序
+	 * @param array
+	 */
+	public void sort(E[] array) {
+		sort(array, null);
+	}
+	
+	/**
+	 * 排序array 同时让values[i]跟着array[i]一起移动（用于键值对的排序）
+	 * @param array
+	 * @param values 可以为null
+	 */
+	public void sort(E[] array, Object[] values) {
+		if (array == null || array.length < 2) return;
+		if (values != null && values.length != array.length) {
+			throw new IllegalArgumentException("values must have the same length as array.");
+		}
+		this.array = array;
+		this.values = values;
+		leftArray = (E[]) new Object[array.length >> 1];
+		leftValues = values == null ? null : new Object[array.length >> 1];
+		sort(0, array.length);
+		
+		this.array = null;
+		this.values = null;
+		leftArray = null;
+		leftValues = null;
+	}
+	
+	/*
+	 * 对 [begin, end) 范围的数据进行归并排序 
+	 * @param begin
+	 * @param end
+	 */
+	private void sort(int begin, int end) {
+		if (end - begin < 2) return;
+		
+		int mid = (begin + end) >> 1;
+		sort(begin, mid);
+		sort(mid, end);
+		merge(begin, mid, end);
+	}
+	
+	/*
+	 * 对 [begin, mid) 和 [mid, end) 范围的序列合并成一个有序序列
+	 * @param begin
+	 * @param mid
+	 * @param end
+	 */
+	private void merge(int begin, int mid, int end) {
+		int li = 0, le = mid - begin;
+		int ri = mid, re = end;
+		int ai = begin;
+		
+		// 备份左边数组
+		for (int i = li; i < le; i++) {
+			leftArray[i] = array[begin + i];
+			if (values != null) leftValues[i] = values[begin + i];
+		}
+		
+		// 如果左边还没有结束
+		while (li < le) {
+			if (ri < re && compare(array[ri], leftArray[li]) < 0) {
+				if (values != null) values[ai] = values[ri];
+				array[ai++] = array[ri++];
+			} else {
+				if (values != null) values[ai] = leftValues[li];
+				array[ai++] = leftArray[li++];
+			}
+		}
+	}
+	
+	private int compare(E e1, E e2) {
+		if (comparator != null) {
+			return comparator.compare(e1, e2);
+		}
+		return ((Comparable<E>) e1).compareTo(e2);
+	}
+}
@@ -22,6 +22,139 @@ public class AVLTree<E> extends BinaryBalancedSearchTree<E> {
 		super(comparator);
 	}
 	
+	/**
+	 * @param comparator
+	 * @param orderStatistic 是否开启顺序统计（rank、select、countInRange）
+	 */
+	public AVLTree(Comparator<E> comparator, boolean orderStatistic) {
+		super(comparator, orderStatistic);
+	}
+	
+	/**
+	 * 拆分：当前树保留小于key的元素 返回由大于等于key的元素组成的树
+	 * O(logn)
+	 * @param key
+	 */
+	public AVLTree<E> split(E key) {
+		AVLTree<E> greater = new AVLTree<>(comparator, true);
+		splitTo(key, greater);
+		return greater;
+	}
+	
+	/**
+	 * 连接：把other（元素都必须大于当前树中的元素）接到当前树的后面 other变为空
+	 * O(logn)
+	 * @param other
+	 */
+	public void join(AVLTree<E> other) {
+		joinWith(other);
+	}
+	
+	/**
+	 * 并集 结果保存在当前树中 other变为空
+	 * @param other
+	 */
+	public void union(AVLTree<E> other) {
+		unionWith(other);
+	}
+	
+	/**
+	 * 交集 结果保存在当前树中 other变为空
+	 * @param other
+	 */
+	public void intersection(AVLTree<E> other) {
+		intersectionWith(other);
+	}
+	
+	/**
+	 * 差集（当前树 - other） 结果保存在当前树中 other变为空
+	 * @param other
+	 */
+	public void difference(AVLTree<E> other) {
+		differenceWith(other);
+	}
+	
+	/**
+	 * 高度相差不超过1时直接以middle为根 否则沿着较高子树的边缘往下找到高度合适的位置挂上去 再往上恢复平衡
+	 * O(|左右高度差|)
+	 */
+	@Override
+	protected Piece<E> join(Piece<E> left, Node<E> middle, Piece<E> right) {
+		Node<E> top;
+		if (left.rank > right.rank + 1) { // 挂到left的右边缘上
+			Node<E> parent = null;
+			Node<E> node = left.root;
+			while (height(node) > right.rank + 1) {
+				parent = node;
+				node = node.right;
+			}
+			link(middle, node, right.root);
+			middle.parent = parent;
+			parent.right = middle;
+			top = reBalanceUp(middle);
+		} else if (right.rank > left.rank + 1) { // 挂到right的左边缘上
+			Node<E> parent = null;
+			Node<E> node = right.root;
+			while (height(node) > left.rank + 1) {
+				parent = node;
+				node = node.left;
+			}
+			link(middle, left.root, node);
+			middle.parent = parent;
+			parent.left = middle;
+			top = reBalanceUp(middle);
+		} else {
+			link(middle, left.root, right.root);
+			top = middle;
+		}
+		return new Piece<>(top, height(top));
+	}
+	
+	/**
+	 * 让node成为left、right的父节点
+	 */
+	private void link(Node<E> node, Node<E> left, Node<E> right) {
+		node.left = left;
+		node.right = right;
+		if (left != null) left.parent = node;
+		if (right != null) right.parent = node;
+		updateHeight(node);
+		updateSubtreeSize(node);
+	}
+	
+	/**
+	 * 从node往上更新高度、数量 并恢复平衡 直到子树的根节点
+	 * @param node
+	 * @return 子树的根节点
+	 */
+	private Node<E> reBalanceUp(Node<E> node) {
+		while (node.parent != null) {
+			node = node.parent;
+			if (isBalanced(node)) {
+				updateHeight(node);
+				updateSubtreeSize(node);
+			} else {
+				reBalance(node); // 旋转时会更新相关节点的高度和数量
+				node = node.parent;
+			}
+		}
+		return node;
+	}
+	
+	@Override
+	protected int rankOf(Node<E> root) {
+		return height(root);
+	}
+	
+	@Override
+	protected int childRank(Node<E> parent, int parentRank, Node<E> child) {
+		return height(child);
+	}
+	
+	private int height(Node<E> node) {
+		return node == null ? 0 : ((AVLNode<E>) node).height;
+	}
+	
 	/**
 	 * 定义AVL内部节点
 	 * @param <E>
@@ -177,7 +310,7 @@ public class AVLTree<E> extends BinaryBalancedSearchTree<E> {
 			r.parent.left = d;
 		} else if (r.isRightChild()) {
 			r.parent.right = d;
-		} else {
+		} else if (r == root) {
 			root = d;
 		}
 		
@@ -191,6 +324,7 @@ public class AVLTree<E> extends BinaryBalancedSearchTree<E> {
 			c.parent = b;
 		}
 		updateHeight(b); // b的左右子树发生改变 所以需要重新计算高度
+		if (orderStatistic) updateSubtreeSize(b);
 		
 		// e-f-g
 		f.left = e;
@@ -202,6 +336,7 @@ public class AVLTree<E> extends BinaryBalancedSearchTree<E> {
 			g.parent = f;
 		}
 		updateHeight(f); // f的左右子树发生改变 所以需要重新计算高度
+		if (orderStatistic) updateSubtreeSize(f);
 		
 		// b-d-f
 		d.left = b;
@@ -209,6 +344,7 @@ public class AVLTree<E> extends BinaryBalancedSearchTree<E> {
 		d.right = f;
 		f.parent = d;
 		updateHeight(d); // d的左右子树发生改变 所以需要重新计算高度	
+		if (orderStatistic) updateSubtreeSize(d);
 	}
 	
 	/**
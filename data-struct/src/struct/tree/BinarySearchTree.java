@@ -14,10 +14,22 @@ import struct.tree.base.BinaryTree;
 @SuppressWarnings("unchecked")
 public class BinarySearchTree<E> extends BinaryTree<E> {
 	/* 比较器 */
-	private Comparator<E> comparator;
+	protected Comparator<E> comparator;
+	
+	/* 是否维护子树节点数量（开启后支持rank、select、countInRange） */
+	protected boolean orderStatistic;
 	
 	public BinarySearchTree(Comparator<E> comparator) {
+		this(comparator, false);
+	}
+	
+	/**
+	 * @param comparator
+	 * @param orderStatistic 是否开启顺序统计（每次添加、删除需要额外更新一条路径上的子树数量）
+	 */
+	public BinarySearchTree(Comparator<E> comparator, boolean orderStatistic) {
 		this.comparator = comparator;
+		this.orderStatistic = orderStatistic;
 	}
 	
 	public BinarySearchTree() {
@@ -64,6 +76,13 @@ public class BinarySearchTree<E> extends BinaryTree<E> {
 		}
 		size++;
 		
+		// 先把整条路径上的子树数量更新好 平衡时的旋转只需要局部重新计算
+		if (orderStatistic) {
+			for (Node<E> p = parent; p != null; p = p.parent) {
+				p.subtreeSize++;
+			}
+		}
+		
 		afterAdd(newNode);
 	}
 	
@@ -95,6 +114,131 @@ public class BinarySearchTree<E> extends BinaryTree<E> {
 		return node(element) != null;
 	}
 	
+	/**
+	 * 比element小的元素数量（即element在升序中的排名 从0开始）
+	 * O(logn)
+	 * @param element
+	 */
+	public int rank(E element) {
+		elementNotNullCheck(element);
+		orderStatisticCheck();
+		return rank(element, false);
+	}
+	
+	/**
+	 * 升序中第k小的元素（k从0开始）
+	 * O(logn)
+	 * @param k
+	 */
+	public E select(int k) {
+		orderStatisticCheck();
+		if (k < 0 || k >= size) {
+			throw new IndexOutOfBoundsException("size = " + size + ", k = " + k + "!");
+		}
+		Node<E> node = root;
+		while (true) {
+			int leftSize = subtreeSize(node.left);
+			if (k < leftSize) {
+				node = node.left;
+			} else if (k > leftSize) {
+				k -= leftSize + 1;
+				node = node.right;
+			} else {
+				return node.element;
+			}
+		}
+	}
+	
+	/**
+	 * [from, to]范围内（包含两端）的元素数量
+	 * O(logn)
+	 * @param from
+	 * @param to
+	 */
+	public int countInRange(E from, E to) {
+		elementNotNullCheck(from);
+		elementNotNullCheck(to);
+		orderStatisticCheck();
+		if (compare(from, to) > 0) return 0;
+		return rank(to, true) - rank(from, false);
+	}
+	
+	/**
+	 * 比element小（inclusive时为小于等于）的元素数量
+	 * @param element
+	 * @param inclusive
+	 */
+	private int rank(E element, boolean inclusive) {
+		int rank = 0;
+		Node<E> node = root;
+		while (node != null) {
+			int cmp = compare(element, node.element);
+			if (cmp > 0) { // node以及它的左子树都比element小
+				rank += subtreeSize(node.left) + 1;
+				node = node.right;
+			} else if (cmp < 0) {
+				node = node.left;
+			} else {
+				return rank + subtreeSize(node.left) + (inclusive ? 1 : 0);
+			}
+		}
+		return rank;
+	}
+	
+	/**
+	 * 开启顺序统计（按后序遍历一次算出所有子树的数量 O(n) 之后由添加、删除、旋转来维护）
+	 */
+	public void enableOrderStatistic() {
+		if (orderStatistic) return;
+		
+		// 借助parent指针进行后序遍历 保证子节点先于父节点计算
+		Node<E> node = firstPostorder(root);
+		while (node != null) {
+			updateSubtreeSize(node);
+			Node<E> parent = node.parent;
+			if (parent != null && node == parent.left && parent.right != null) {
+				node = firstPostorder(parent.right);
+			} else {
+				node = parent;
+			}
+		}
+		orderStatistic = true;
+	}
+	
+	/**
+	 * 子树中后序遍历的第一个节点
+	 * @param node
+	 */
+	private Node<E> firstPostorder(Node<E> node) {
+		if (node == null) return null;
+		while (!node.isLeaf()) {
+			node = node.left != null ? node.left : node.right;
+		}
+		return node;
+	}
+	
+	/**
+	 * 子树的节点数量（空子树为0）
+	 * @param node
+	 */
+	protected int subtreeSize(Node<E> node) {
+		return node == null ? 0 : node.subtreeSize;
+	}
+	
+	/**
+	 * 根据左右子树重新计算节点的子树数量
+	 * @param node
+	 */
+	protected void updateSubtreeSize(Node<E> node) {
+		node.subtreeSize = 1 + subtreeSize(node.left) + subtreeSize(node.right);
+	}
+	
+	private void orderStatisticCheck() {
+		if (!orderStatistic) {
+			throw new UnsupportedOperationException("order statistic is not enabled for this tree.");
+		}
+	}
+	
 	/**
 	 * 元素非空check
 	 * @param element
@@ -110,7 +254,7 @@ public class BinarySearchTree<E> extends BinaryTree<E> {
 	 * @param e1
 	 * @param e2
 	 */
-	private int compare(E e1, E e2) {
+	protected int compare(E e1, E e2) {
 		if (comparator != null) {
 			return comparator.compare(e1, e2);
 		}
@@ -151,6 +295,13 @@ public class BinarySearchTree<E> extends BinaryTree<E> {
 			node = s; // 这里将后继节点s赋值给node 交给后续处理来删除
 		}
 		
+		// 真正被摘掉的是node 它的所有祖先的子树数量减1
+		if (orderStatistic) {
+			for (Node<E> p = node.parent; p != null; p = p.parent) {
+				p.subtreeSize--;
+			}
+		}
+		
 		// 删除node节点（这里的node的度必然为1或者0）
 		Node<E> replace = node.left != null ? node.left : node.right;
 		if (replace != null) { // node是度为1的节点
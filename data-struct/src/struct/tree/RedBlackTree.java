@@ -1,7 +1,10 @@
 package struct.tree;
 
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.Iterator;
 
+import struct.tool.MergeSort;
 import struct.tree.base.BinaryBalancedSearchTree;
 
 /**
@@ -33,6 +36,133 @@ public class RedBlackTree<E> extends BinaryBalancedSearchTree<E> {
 		super(comparator);
 	}
 	
+	/**
+	 * @param comparator
+	 * @param orderStatistic 是否开启顺序统计（rank、select、countInRange）
+	 */
+	public RedBlackTree(Comparator<E> comparator, boolean orderStatistic) {
+		super(comparator, orderStatistic);
+	}
+	
+	/**
+	 * 用已经排好序（升序并且不重复）的元素批量构建 O(n) 不需要任何旋转
+	 * @param elements
+	 * @param comparator
+	 */
+	public static <E> RedBlackTree<E> fromSorted(E[] elements, Comparator<E> comparator) {
+		if (elements == null) {
+			throw new IllegalArgumentException("elements must not be null.");
+		}
+		return fromSorted(elements.length, Arrays.asList(elements).iterator(), comparator);
+	}
+	
+	/**
+	 * 用已经排好序（升序并且不重复）的迭代器批量构建 O(n) 不需要任何旋转
+	 * @param size 元素的数量
+	 * @param elements
+	 * @param comparator
+	 */
+	public static <E> RedBlackTree<E> fromSorted(int size, Iterator<E> elements, Comparator<E> comparator) {
+		if (size < 0 || elements == null) {
+			throw new IllegalArgumentException("size must not be negative and elements must not be null.");
+		}
+		RedBlackTree<E> tree = new RedBlackTree<>(comparator);
+		tree.root = tree.buildFromSorted(0, 0, size - 1, redLevel(size), elements);
+		tree.size = size;
+		tree.sortedCheck();
+		return tree;
+	}
+	
+	/**
+	 * 用未排序的元素批量构建（先归并排序 再按有序的方式构建 重复的元素只保留最后一个）
+	 * @param elements
+	 * @param comparator
+	 */
+	public static <E> RedBlackTree<E> from(E[] elements, Comparator<E> comparator) {
+		if (elements == null) {
+			throw new IllegalArgumentException("elements must not be null.");
+		}
+		E[] sorted = Arrays.copyOf(elements, elements.length);
+		new MergeSort<>(comparator).sort(sorted);
+		
+		RedBlackTree<E> tree = new RedBlackTree<>(comparator);
+		// 去重（归并排序是稳定的 相同的元素只保留最后一个 和逐个add的结果一致）
+		int count = 0;
+		for (int i = 0; i < sorted.length; i++) {
+			if (sorted[i] == null) {
+				throw new IllegalArgumentException("element must not be null!");
+			}
+			if (count > 0 && tree.compare(sorted[count - 1], sorted[i]) == 0) {
+				count--;
+			}
+			sorted[count++] = sorted[i];
+		}
+		return fromSorted(Arrays.copyOf(sorted, count), comparator);
+	}
+	
+	/**
+	 * 自底向上构建[lo, hi]范围的子树（按中序的顺序消费迭代器）
+	 * 除了最底层（可能不满的那一层）染成红色以外 其他节点都是黑色 所以天然满足红黑树的性质
+	 * @param level 当前子树的根节点所在的层（根节点为0）
+	 * @param lo
+	 * @param hi
+	 * @param redLevel 需要染成红色的层
+	 * @param elements
+	 */
+	private Node<E> buildFromSorted(int level, int lo, int hi, int redLevel, Iterator<E> elements) {
+		if (hi < lo) return null;
+		
+		int mid = (lo + hi) >>> 1;
+		Node<E> left = buildFromSorted(level + 1, lo, mid - 1, redLevel, elements);
+		
+		E element = elements.next();
+		if (element == null) {
+			throw new IllegalArgumentException("element must not be null!");
+		}
+		Node<E> node = createNode(element, null);
+		color(node, level == redLevel ? RED : BLACK);
+		
+		if (left != null) {
+			node.left = left;
+			left.parent = node;
+		}
+		
+		Node<E> right = buildFromSorted(level + 1, mid + 1, hi, redLevel, elements);
+		if (right != null) {
+			node.right = right;
+			right.parent = node;
+		}
+		// 子树数量顺带算好（O(1)） 和逐个添加构建出来的树状态保持一致
+		updateSubtreeSize(node);
+		return node;
+	}
+	
+	/**
+	 * 完全二叉树中最底层的层号（这一层不满时需要染成红色 满的时候这一层不存在）
+	 * @param size
+	 */
+	private static int redLevel(int size) {
+		return 31 - Integer.numberOfLeadingZeros(size + 1);
+	}
+	
+	/**
+	 * 检查批量构建的结果是否严格升序
+	 */
+	private void sortedCheck() {
+		if (root == null) return;
+		Node<E> node = root;
+		while (node.left != null) {
+			node = node.left;
+		}
+		Node<E> next;
+		while ((next = successor(node)) != null) {
+			if (compare(node.element, next.element) >= 0) {
+				throw new IllegalArgumentException("elements must be sorted in ascending order without duplicates.");
+			}
+			node = next;
+		}
+	}
+	
 	/**
 	 * 添加节点后的平衡操作
 	 * @param node
@@ -157,6 +287,175 @@ public class RedBlackTree<E> extends BinaryBalancedSearchTree<E> {
 		}
 	}
 	
+	/**
+	 * 拆分：当前树保留小于key的元素 返回由大于等于key的元素组成的树
+	 * O(logn)
+	 * @param key
+	 */
+	public RedBlackTree<E> split(E key) {
+		RedBlackTree<E> greater = new RedBlackTree<>(comparator, true);
+		splitTo(key, greater);
+		return greater;
+	}
+	
+	/**
+	 * 连接：把other（元素都必须大于当前树中的元素）接到当前树的后面 other变为空
+	 * O(logn)
+	 * @param other
+	 */
+	public void join(RedBlackTree<E> other) {
+		joinWith(other);
+	}
+	
+	/**
+	 * 并集 结果保存在当前树中 other变为空
+	 * @param other
+	 */
+	public void union(RedBlackTree<E> other) {
+		unionWith(other);
+	}
+	
+	/**
+	 * 交集 结果保存在当前树中 other变为空
+	 * @param other
+	 */
+	public void intersection(RedBlackTree<E> other) {
+		intersectionWith(other);
+	}
+	
+	/**
+	 * 差集（当前树 - other） 结果保存在当前树中 other变为空
+	 * @param other
+	 */
+	public void difference(RedBlackTree<E> other) {
+		differenceWith(other);
+	}
+	
+	/**
+	 * 平衡参数为黑高度（从节点自身到叶子节点路径上的黑色节点数量）
+	 * 先把两边的根节点染黑 黑高度相同时middle染红直接作为根
+	 * 否则沿着较高子树的边缘往下找到黑高度相同的黑色节点 把红色的middle挂在那里 再往上修复双红
+	 * O(|左右黑高度差|)
+	 */
+	@Override
+	protected Piece<E> join(Piece<E> left, Node<E> middle, Piece<E> right) {
+		int leftRank = left.rank;
+		int rightRank = right.rank;
+		// 红色的根节点染黑后 黑高度+1
+		if (isRed(left.root)) {
+			black(left.root);
+			leftRank++;
+		}
+		if (isRed(right.root)) {
+			black(right.root);
+			rightRank++;
+		}
+		
+		red(middle);
+		if (leftRank == rightRank) {
+			link(middle, left.root, right.root);
+			return new Piece<>(middle, leftRank);
+		}
+		
+		boolean toRight = leftRank > rightRank;
+		Node<E> parent = null;
+		Node<E> node = toRight ? left.root : right.root;
+		int rank = toRight ? leftRank : rightRank;
+		int targetRank = toRight ? rightRank : leftRank;
+		while (isRed(node) || rank != targetRank) {
+			if (isBlack(node)) rank--;
+			parent = node;
+			node = toRight ? node.right : node.left;
+		}
+		
+		int added;
+		if (toRight) {
+			link(middle, node, right.root);
+			parent.right = middle;
+			added = right.size() + 1;
+		} else {
+			link(middle, left.root, node);
+			parent.left = middle;
+			added = left.size() + 1;
+		}
+		middle.parent = parent;
+		for (Node<E> p = parent; p != null; p = p.parent) {
+			p.subtreeSize += added;
+		}
+		
+		boolean grew = fixJoin(middle, toRight);
+		Node<E> top = middle;
+		while (top.parent != null) {
+			top = top.parent;
+		}
+		return new Piece<>(top, (toRight ? leftRank : rightRank) + (grew ? 1 : 0));
+	}
+	
+	/**
+	 * 修复join之后的双红（红色节点都在同一侧的边缘上 只会出现RR或者LL的情况）
+	 * @param node 新挂上去的红色节点
+	 * @param toRight 是否挂在右边缘上
+	 * @return 子树的根节点是否由红染黑（黑高度+1）
+	 */
+	private boolean fixJoin(Node<E> node, boolean toRight) {
+		while (true) {
+			Node<E> parent = node.parent;
+			if (parent == null) { // 上溢到了子树的根节点
+				if (isBlack(node)) return false;
+				black(node);
+				return true;
+			}
+			if (isBlack(parent)) return false;
+			
+			Node<E> grand = parent.parent; // parent是红色 所以一定不是根节点
+			Node<E> uncle = toRight ? grand.left : grand.right;
+			if (isRed(uncle)) { // 上溢
+				black(parent);
+				black(uncle);
+				node = red(grand);
+				continue;
+			}
+			black(parent);
+			red(grand);
+			if (toRight) {
+				rotateLeft(grand);
+			} else {
+				rotateRight(grand);
+			}
+			return false;
+		}
+	}
+	
+	/**
+	 * 让node成为left、right的父节点
+	 */
+	private void link(Node<E> node, Node<E> left, Node<E> right) {
+		node.left = left;
+		node.right = right;
+		if (left != null) left.parent = node;
+		if (right != null) right.parent = node;
+		updateSubtreeSize(node);
+	}
+	
+	@Override
+	protected int rankOf(Node<E> root) {
+		int rank = 0;
+		for (Node<E> node = root; node != null; node = node.left) {
+			if (isBlack(node)) rank++;
+		}
+		return rank;
+	}
+	
+	@Override
+	protected int childRank(Node<E> parent, int parentRank, Node<E> child) {
+		return isBlack(parent) ? parentRank - 1 : parentRank;
+	}
+	
+	@Override
+	protected void fixRoot(Node<E> root) {
+		black(root);
+	}
+	
 	/**
 	 * 是否为黑色
 	 * @param node
@@ -0,0 +1,118 @@
+package struct.tree.array;
+
+/**
+ * IntAVLTree AVL树（int键 数组存储版）
+ *
+ * 平衡逻辑与AVLTree一致 meta数组中保存节点的高度
+ *
+ * @author avril
+ *
+ */
+public class IntAVLTree extends IntBinaryBalancedSearchTree {
+	public IntAVLTree() {
+		super();
+	}
+
+	public IntAVLTree(int capacity) {
+		super(capacity);
+	}
+
+	/**
+	 * 添加节点后的平衡操作
+	 * @param node
+	 */
+	@Override
+	protected void afterAdd(int node) {
+		while ((node = parent[node]) != NIL) {
+			if (isBalanced(node)) {
+				// 更新高度
+				updateHeight(node);
+			} else {
+				// 恢复平衡 整棵树恢复平衡
+				reBalance(node);
+				break;
+			}
+		}
+	}
+
+	/**
+	 * 删除节点后的平衡操作
+	 * @param node 被删除的节点或者用于替代的节点
+	 */
+	@Override
+	protected void afterRemove(int node) {
+		while ((node = parent[node]) != NIL) {
+			if (isBalanced(node)) {
+				updateHeight(node);
+			} else {
+				reBalance(node);
+			}
+		}
+	}
+
+	/**
+	 * 新添加的节点肯定是叶子节点 所以初始高度都是1
+	 */
+	@Override
+	protected byte initialMeta() {
+		return 1;
+	}
+
+	@Override
+	protected void afterRotate(int grand, int p, int child) {
+		super.afterRotate(grand, p, child);
+		// 更新高度
+		updateHeight(grand);
+		updateHeight(p);
+	}
+
+	/**
+	 * 恢复节点平衡
+	 * @param grand 高度最低的那个不平衡节点
+	 */
+	private void reBalance(int grand) {
+		int p = tallerChild(grand);
+		int node = tallerChild(p);
+
+		if (isLeftChild(p)) { // L
+			if (isLeftChild(node)) { // LL
+				rotateRight(grand);
+			} else { // LR
+				rotateLeft(p);
+				rotateRight(grand);
+			}
+		} else { // R
+			if (isLeftChild(node)) { // RL
+				rotateRight(p);
+				rotateLeft(grand);
+			} else { // RR
+				rotateLeft(grand);
+			}
+		}
+	}
+
+	private int height(int node) {
+		return node == NIL ? 0 : meta[node];
+	}
+
+	/** 判断节点是否平衡 */
+	private boolean isBalanced(int node) {
+		return Math.abs(height(left[node]) - height(right[node])) <= 1;
+	}
+
+	/** 更新节点高度 */
+	private void updateHeight(int node) {
+		meta[node] = (byte) (1 + Math.max(height(left[node]), height(right[node])));
+	}
+
+	/** 返回比较高的子节点 */
+	private int tallerChild(int node) {
+		int leftHeight = height(left[node]);
+		int rightHeight = height(right[node]);
+		if (leftHeight > rightHeight) return left[node];
+		if (leftHeight < rightHeight) return right[node];
+
+		// 当相等的时候 返回跟父节点同方向的子节点
+		return isLeftChild(node) ? left[node] : right[node];
+	}
+}
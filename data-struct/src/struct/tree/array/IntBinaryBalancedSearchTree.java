@@ -0,0 +1,64 @@
+package struct.tree.array;
+
+/**
+ * IntBinaryBalancedSearchTree 二叉平衡搜索树（int键 数组存储版）
+ *
+ * @author avril
+ *
+ */
+public abstract class IntBinaryBalancedSearchTree extends IntBinarySearchTree {
+	public IntBinaryBalancedSearchTree() {
+		super();
+	}
+
+	public IntBinaryBalancedSearchTree(int capacity) {
+		super(capacity);
+	}
+
+	/**
+	 * 左旋转
+	 * @param grand
+	 */
+	protected void rotateLeft(int grand) {
+		int p = right[grand];
+		int child = left[p];
+		right[grand] = child;
+		left[p] = grand;
+
+		afterRotate(grand, p, child);
+	}
+
+	/**
+	 * 右旋转
+	 * @param grand
+	 */
+	protected void rotateRight(int grand) {
+		int p = left[grand];
+		int child = right[p];
+		left[grand] = child;
+		right[p] = grand;
+
+		afterRotate(grand, p, child);
+	}
+
+	protected void afterRotate(int grand, int p, int child) {
+		// 让p成为子树的根节点
+		int gp = parent[grand];
+		parent[p] = gp;
+		if (gp == NIL) { // grand是root节点
+			root = p;
+		} else if (grand == left[gp]) {
+			left[gp] = p;
+		} else {
+			right[gp] = p;
+		}
+
+		// 更新child的parent
+		if (child != NIL) {
+			parent[child] = grand;
+		}
+
+		// 更新grand的parent
+		parent[grand] = p;
+	}
+}
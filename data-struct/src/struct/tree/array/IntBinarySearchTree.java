@@ -0,0 +1,365 @@
+package struct.tree.array;
+
+import java.util.Arrays;
+
+import printer.BinaryTreeInfo;
+
+/**
+ * IntBinarySearchTree 二叉搜索树（int键 数组存储版）
+ *
+ * 与BinarySearchTree的逻辑完全一致 区别在于节点的存储方式
+ * 不为每个节点创建对象 而是用节点编号（int）代替引用
+ * key、left、right、parent、meta（AVL树的高度 / 红黑树的颜色）分别存放在平行数组中
+ * 编号0表示空节点（null） 真正的节点从1开始编号
+ * 删除后空出来的编号通过空闲链表（借用left数组串起来）重新利用
+ *
+ * 每个节点只占用 4 * 4 + 1 = 17 字节 并且数据连续存放 缓存更加友好
+ *
+ * @author avril
+ *
+ */
+public class IntBinarySearchTree implements BinaryTreeInfo {
+	/* 空节点 */
+	protected static final int NIL = 0;
+
+	/* 默认容量 */
+	private static final int DEFAULT_CAPACITY = 1 << 4;
+
+	/* 数量 */
+	protected int size;
+
+	/* 根节点 */
+	protected int root = NIL;
+
+	/* 平行数组（下标为节点编号） */
+	protected int[] keys;
+	protected int[] left;
+	protected int[] right;
+	protected int[] parent;
+	protected byte[] meta;
+
+	/* 从未使用过的最小编号 */
+	private int next = 1;
+
+	/* 空闲链表的头（删除后回收的编号） */
+	private int free = NIL;
+
+	public IntBinarySearchTree() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param capacity 初始容量（预计的节点数量）
+	 */
+	public IntBinarySearchTree(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("capacity must not be negative.");
+		}
+		capacity = Math.max(capacity + 1, DEFAULT_CAPACITY);
+		keys = new int[capacity];
+		left = new int[capacity];
+		right = new int[capacity];
+		parent = new int[capacity];
+		meta = new byte[capacity];
+	}
+
+	/**
+	 * 包含元素的数量
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * 是否为空
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * 清空（保留已经分配的数组）
+	 */
+	public void clear() {
+		Arrays.fill(left, 0, next, NIL);
+		Arrays.fill(right, 0, next, NIL);
+		Arrays.fill(parent, 0, next, NIL);
+		root = NIL;
+		size = 0;
+		next = 1;
+		free = NIL;
+	}
+
+	/**
+	 * 添加元素
+	 * @param key
+	 */
+	public void add(int key) {
+		if (root == NIL) { // 添加的是第一个节点root
+			root = createNode(key, NIL);
+			size++;
+			afterAdd(root);
+			return;
+		}
+
+		// 添加的不是第一个节点的话 首先得找到根节点
+		int node = root;
+		int p = root; // 用于记录最终用于插入父节点
+		int cmp = 0; // 用于记录插入的方向
+		while (node != NIL) {
+			cmp = Integer.compare(key, keys[node]);
+			p = node;
+			if (cmp > 0) {
+				node = right[node];
+			} else if (cmp < 0) {
+				node = left[node];
+			} else { // 相等（int键不需要覆盖）
+				return;
+			}
+		}
+
+		int newNode = createNode(key, p);
+		// 看看插入到父节点的哪个位置
+		if (cmp > 0) {
+			right[p] = newNode;
+		} else {
+			left[p] = newNode;
+		}
+		size++;
+
+		afterAdd(newNode);
+	}
+
+	/**
+	 * 删除元素
+	 * @param key
+	 */
+	public void remove(int key) {
+		removeNode(node(key));
+	}
+
+	/**
+	 * 是否包含元素
+	 * @param key
+	 */
+	public boolean contains(int key) {
+		return node(key) != NIL;
+	}
+
+	/**
+	 * 中序遍历（按key从小到大 借助parent不需要栈）
+	 * @param visitor 返回true时停止遍历
+	 */
+	public void traversal(Visitor visitor) {
+		if (root == NIL || visitor == null) return;
+
+		int node = root;
+		while (left[node] != NIL) {
+			node = left[node];
+		}
+		while (node != NIL) {
+			if (visitor.visit(keys[node])) return;
+			node = successor(node);
+		}
+	}
+
+	/**
+	 * 树的高度
+	 */
+	public int height() {
+		return height(root);
+	}
+
+	private int height(int node) {
+		if (node == NIL) return 0;
+		return 1 + Math.max(height(left[node]), height(right[node]));
+	}
+
+	/**
+	 * 添加之后的平衡操作（交由子类去实现
+	 * @param node
+	 */
+	protected void afterAdd(int node) {}
+
+	/**
+	 * 删除之后的平衡操作（交由子类去实现
+	 * @param node 被删除的节点 或者用于替代的节点
+	 */
+	protected void afterRemove(int node) {}
+
+	/**
+	 * 新节点的meta初始值（AVL树的高度为1 红黑树为红色）
+	 */
+	protected byte initialMeta() {
+		return 0;
+	}
+
+	/**
+	 * 获取指定key的节点
+	 * @param key
+	 */
+	private int node(int key) {
+		int node = root;
+		while (node != NIL) {
+			int k = keys[node];
+			if (key == k) return node;
+			node = key > k ? right[node] : left[node];
+		}
+		return NIL;
+	}
+
+	/**
+	 * 删除指定节点
+	 * @param node
+	 */
+	private void removeNode(int node) {
+		if (node == NIL) return;
+
+		if (left[node] != NIL && right[node] != NIL) { // 度为2的节点
+			// 用后继节点的值覆盖度为2的节点的值 然后删除后继节点
+			int s = successor(node);
+			keys[node] = keys[s];
+			node = s;
+		}
+
+		// 删除node节点（这里的node的度必然为1或者0）
+		int p = parent[node];
+		int replace = left[node] != NIL ? left[node] : right[node];
+		if (replace != NIL) { // node是度为1的节点
+			parent[replace] = p;
+			if (p == NIL) { // 度为1并且是root
+				root = replace;
+			} else if (node == left[p]) {
+				left[p] = replace;
+			} else {
+				right[p] = replace;
+			}
+			afterRemove(replace);
+		} else if (p == NIL) { // node是叶子节点并且是根节点
+			root = NIL;
+			afterRemove(node);
+		} else { // node是普通叶子节点
+			if (node == left[p]) {
+				left[p] = NIL;
+			} else {
+				right[p] = NIL;
+			}
+			// 平衡时还要用到node的parent 所以回收要放在平衡之后
+			afterRemove(node);
+		}
+
+		size--;
+		freeNode(node);
+	}
+
+	/**
+	 * 获得指定节点的后继
+	 * @param node
+	 */
+	protected int successor(int node) {
+		int p = right[node];
+		if (p != NIL) {
+			while (left[p] != NIL) {
+				p = left[p];
+			}
+			return p;
+		}
+
+		while (parent[node] != NIL && node == right[parent[node]]) {
+			node = parent[node];
+		}
+		return parent[node];
+	}
+
+	protected boolean isLeftChild(int node) {
+		return parent[node] != NIL && node == left[parent[node]];
+	}
+
+	protected boolean isRightChild(int node) {
+		return parent[node] != NIL && node == right[parent[node]];
+	}
+
+	/** 获取兄弟节点 */
+	protected int sibling(int node) {
+		if (isLeftChild(node)) return right[parent[node]];
+		if (isRightChild(node)) return left[parent[node]];
+		return NIL;
+	}
+
+	/**
+	 * 分配一个节点编号（优先使用空闲链表中的）
+	 * @param key
+	 * @param p 父节点
+	 */
+	private int createNode(int key, int p) {
+		int node;
+		if (free != NIL) {
+			node = free;
+			free = left[node];
+		} else {
+			if (next == keys.length) {
+				grow();
+			}
+			node = next++;
+		}
+		keys[node] = key;
+		left[node] = NIL;
+		right[node] = NIL;
+		parent[node] = p;
+		meta[node] = initialMeta();
+		return node;
+	}
+
+	/**
+	 * 回收节点编号（串到空闲链表上）
+	 * @param node
+	 */
+	private void freeNode(int node) {
+		right[node] = NIL;
+		parent[node] = NIL;
+		left[node] = free;
+		free = node;
+	}
+
+	/**
+	 * 扩容为原来的1.5倍
+	 */
+	private void grow() {
+		int capacity = keys.length + (keys.length >> 1);
+		keys = Arrays.copyOf(keys, capacity);
+		left = Arrays.copyOf(left, capacity);
+		right = Arrays.copyOf(right, capacity);
+		parent = Arrays.copyOf(parent, capacity);
+		meta = Arrays.copyOf(meta, capacity);
+	}
+
+	/**
+	 * 遍历用接口
+	 */
+	@FunctionalInterface
+	public static interface Visitor {
+		boolean visit(int key);
+	}
+
+	@Override
+	public Object root() {
+		return root == NIL ? null : root;
+	}
+
+	@Override
+	public Object left(Object node) {
+		int child = left[(Integer) node];
+		return child == NIL ? null : child;
+	}
+
+	@Override
+	public Object right(Object node) {
+		int child = right[(Integer) node];
+		return child == NIL ? null : child;
+	}
+
+	@Override
+	public Object string(Object node) {
+		return keys[(Integer) node];
+	}
+}
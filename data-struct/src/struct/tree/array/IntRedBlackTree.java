@@ -0,0 +1,179 @@
+package struct.tree.array;
+
+/**
+ * IntRedBlackTree 红黑树（int键 数组存储版）
+ *
+ * 平衡逻辑与RedBlackTree一致 meta数组中保存节点的颜色
+ *
+ * @author avril
+ *
+ */
+public class IntRedBlackTree extends IntBinaryBalancedSearchTree {
+	/* 定义红黑树特有的颜色常量（空节点NIL视为黑色） */
+	private static final byte RED = 0;
+	private static final byte BLACK = 1;
+
+	public IntRedBlackTree() {
+		super();
+	}
+
+	public IntRedBlackTree(int capacity) {
+		super(capacity);
+	}
+
+	/**
+	 * 添加节点后的平衡操作
+	 * @param node
+	 */
+	@Override
+	protected void afterAdd(int node) {
+		int p = parent[node];
+		if (p == NIL) { // 添加的是根节点
+			black(node);
+			return;
+		}
+
+		// 如果父节点是黑色可以直接返回
+		if (isBlack(p)) return;
+
+		int uncle = sibling(p);
+		int grand = red(parent[p]);
+		if (isRed(uncle)) { // 叔父节点是红色（B树的上溢）
+			black(p);
+			black(uncle);
+			afterAdd(grand);
+			return;
+		}
+
+		if (isLeftChild(p)) { // L
+			if (isLeftChild(node)) { // LL
+				black(p);
+			} else { // LR
+				black(node);
+				rotateLeft(p);
+			}
+			rotateRight(grand);
+		} else { // R
+			if (isLeftChild(node)) { // RL
+				black(node);
+				rotateRight(p);
+			} else { // RR
+				black(p);
+			}
+			rotateLeft(grand);
+		}
+	}
+
+	/**
+	 * 删除节点后的平衡操作
+	 * @param node 被删除的节点 或者用于替代的节点
+	 */
+	@Override
+	protected void afterRemove(int node) {
+		// 如果删除的节点是红色 或者用以取代node的子节点是红色
+		if (isRed(node)) {
+			black(node);
+			return;
+		}
+
+		int p = parent[node];
+		// 如果删除的是根节点
+		if (p == NIL) return;
+
+		// 如果删除的是黑色叶子节点
+		boolean isLeft = left[p] == NIL || isLeftChild(node);
+		int sibling = isLeft ? right[p] : left[p];
+		if (isLeft) { // 被删除的节点在左边 兄弟节点在右边
+			if (isRed(sibling)) {
+				black(sibling);
+				red(p);
+				rotateLeft(p);
+				sibling = right[p];
+			}
+
+			if (isBlack(left[sibling]) && isBlack(right[sibling])) { // 父节点要向下跟兄弟节点合并
+				boolean parentBlack = isBlack(p);
+				black(p);
+				red(sibling);
+				if (parentBlack) {
+					afterRemove(p);
+				}
+			} else { // 向兄弟节点借元素
+				if (isBlack(right[sibling])) {
+					rotateRight(sibling);
+					sibling = right[p];
+				}
+				color(sibling, colorOf(p));
+				black(right[sibling]);
+				black(p);
+				rotateLeft(p);
+			}
+		} else { // 被删除的节点在右边 兄弟节点在左边
+			if (isRed(sibling)) {
+				black(sibling);
+				red(p);
+				rotateRight(p);
+				sibling = left[p];
+			}
+
+			if (isBlack(left[sibling]) && isBlack(right[sibling])) {
+				boolean parentBlack = isBlack(p);
+				black(p);
+				red(sibling);
+				if (parentBlack) {
+					afterRemove(p);
+				}
+			} else {
+				if (isBlack(left[sibling])) {
+					rotateLeft(sibling);
+					sibling = left[p];
+				}
+				color(sibling, colorOf(p));
+				black(left[sibling]);
+				black(p);
+				rotateRight(p);
+			}
+		}
+	}
+
+	/**
+	 * 建议新添加的节点默认为 RED，这样能够让红黑树的性质尽快满足
+	 */
+	@Override
+	protected byte initialMeta() {
+		return RED;
+	}
+
+	private boolean isBlack(int node) {
+		return colorOf(node) == BLACK;
+	}
+
+	private boolean isRed(int node) {
+		return colorOf(node) == RED;
+	}
+
+	private byte colorOf(int node) {
+		return node == NIL ? BLACK : meta[node];
+	}
+
+	private int red(int node) {
+		return color(node, RED);
+	}
+
+	private int black(int node) {
+		return color(node, BLACK);
+	}
+
+	private int color(int node, byte color) {
+		if (node != NIL) {
+			meta[node] = color;
+		}
+		return node;
+	}
+
+	@Override
+	public Object string(Object node) {
+		int index = (Integer) node;
+		return (meta[index] == RED ? "R_" : "") + keys[index];
+	}
+}
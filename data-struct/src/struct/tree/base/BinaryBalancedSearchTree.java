@@ -1,17 +1,37 @@
 package struct.tree.base;
 
 import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 import struct.tree.BinarySearchTree;
 
 /**
  * BinaryBalancedSearchTree 二叉平衡搜索树
  * 
+ * ◼ 基于join的批量操作
+ * 子类只需要实现 join(left, middle, right)（所有left < middle < right 合并成一棵平衡的树）
+ * split、union、intersection、difference都可以由join组合出来 不需要逐个add、remove
+ * 开始时把整棵树从root上取下来 拆分之后的子树单独处理 旋转时不会修改root（最后统一设置）
+ * 所以ForkJoin的任务之间不会共享可写的字段
+ * 批量操作依赖子树数量来计算结果的size 所以会自动开启顺序统计
+ * 
+ * union、intersection、difference的复杂度为O(m log(n/m + 1)) 两棵子树足够大时用ForkJoin并行处理
+ * 
  * @author avril
  *
  * @param <E>
  */
+@SuppressWarnings({ "unchecked", "rawtypes" })
 public abstract class BinaryBalancedSearchTree<E> extends BinarySearchTree<E> {
+	/* 集合操作时 两边的元素总数不小于它才会拆分出并行任务 */
+	private static final int PARALLEL_THRESHOLD = 1 << 13;
+	
+	/* 集合操作的类型 */
+	private static final int UNION = 0;
+	private static final int INTERSECTION = 1;
+	private static final int DIFFERENCE = 2;
+	
 	public BinaryBalancedSearchTree() {
 		this(null);
 	}
@@ -19,6 +39,10 @@ public abstract class BinaryBalancedSearchTree<E> extends BinarySearchTree<E> {
 	public BinaryBalancedSearchTree(Comparator<E> comparator) {
 		super(comparator);
 	}
+	
+	public BinaryBalancedSearchTree(Comparator<E> comparator, boolean orderStatistic) {
+		super(comparator, orderStatistic);
+	}
 
 	/**
 	 * 左旋转（为了方便理解 以AVL-PPT里面的RR-左旋转示意图为例
@@ -53,9 +77,9 @@ public abstract class BinaryBalancedSearchTree<E> extends BinarySearchTree<E> {
 			grand.parent.left = parent;
 		} else if (grand.isRightChild()) {
 			grand.parent.right = parent;
-		} else { // grand是root节点
+		} else if (grand == root) { // grand是root节点
 			root = parent;
-		}
+		} // 否则grand是批量操作中一个子树的根节点 不修改root
 		
 		// 更新child的parent
 		if (child != null) {
@@ -64,5 +88,323 @@ public abstract class BinaryBalancedSearchTree<E> extends BinarySearchTree<E> {
 		
 		// 更新grand的parent
 		grand.parent = parent;
+		
+		// 更新子树数量（grand已经变成parent的子节点 所以要先更新grand）
+		if (orderStatistic) {
+			updateSubtreeSize(grand);
+			updateSubtreeSize(parent);
+		}
+	}
+	
+	/**
+	 * 把left、middle、right合并成一棵平衡的子树（left中的元素 < middle < right中的元素）
+	 * @param left
+	 * @param middle 已经脱离原来位置的单个节点
+	 * @param right
+	 * @return 合并之后的子树（根节点的parent为null）
+	 */
+	protected abstract Piece<E> join(Piece<E> left, Node<E> middle, Piece<E> right);
+	
+	/**
+	 * 整棵树的平衡参数（AVL树为高度 红黑树为黑高度）
+	 * @param root
+	 */
+	protected abstract int rankOf(Node<E> root);
+	
+	/**
+	 * 已知父节点的平衡参数 求子节点的平衡参数
+	 * @param parent
+	 * @param parentRank
+	 * @param child
+	 */
+	protected abstract int childRank(Node<E> parent, int parentRank, Node<E> child);
+	
+	/**
+	 * 批量操作结束后 对新的根节点进行修正（比如红黑树的根节点要染黑）
+	 * @param root
+	 */
+	protected void fixRoot(Node<E> root) {}
+	
+	/**
+	 * 拆分：当前树保留小于key的元素 大于等于key的元素移动到greater中
+	 * O(logn)
+	 * @param key
+	 * @param greater 空的树
+	 */
+	protected void splitTo(E key, BinaryBalancedSearchTree<E> greater) {
+		if (key == null) {
+			throw new IllegalArgumentException("key must not be null!");
+		}
+		enableOrderStatistic();
+		greater.enableOrderStatistic();
+		
+		Split<E> split = split(whole(), key);
+		Piece<E> right = split.right;
+		if (split.found != null) { // 等于key的元素作为greater的最小元素
+			right = join(new Piece<>(null, 0), split.found, right);
+		}
+		setRoot(split.left);
+		greater.setRoot(right);
+	}
+	
+	/**
+	 * 连接：other中的元素必须都大于当前树中的元素 连接之后other变为空
+	 * O(logn)
+	 * @param other
+	 */
+	protected void joinWith(BinaryBalancedSearchTree<E> other) {
+		otherCheck(other);
+		if (root != null && other.root != null && compare(last(root).element, first(other.root).element) >= 0) {
+			throw new IllegalArgumentException("elements of other must be greater than all elements of this tree.");
+		}
+		enableOrderStatistic();
+		other.enableOrderStatistic();
+		
+		setRoot(join2(whole(), other.whole()));
+		other.clear();
+	}
+	
+	/**
+	 * 并集（相等的元素使用other中的 和add的覆盖语义一致） 结束之后other变为空
+	 * @param other
+	 */
+	protected void unionWith(BinaryBalancedSearchTree<E> other) {
+		setOperation(UNION, other);
+	}
+	
+	/**
+	 * 交集（相等的元素使用当前树中的） 结束之后other变为空
+	 * @param other
+	 */
+	protected void intersectionWith(BinaryBalancedSearchTree<E> other) {
+		setOperation(INTERSECTION, other);
+	}
+	
+	/**
+	 * 差集（当前树 - other） 结束之后other变为空
+	 * @param other
+	 */
+	protected void differenceWith(BinaryBalancedSearchTree<E> other) {
+		setOperation(DIFFERENCE, other);
+	}
+	
+	private void setOperation(int operation, BinaryBalancedSearchTree<E> other) {
+		otherCheck(other);
+		enableOrderStatistic();
+		other.enableOrderStatistic();
+		
+		Piece<E> t1 = whole();
+		Piece<E> t2 = other.whole();
+		other.clear();
+		if (size + t2.size() >= PARALLEL_THRESHOLD) {
+			setRoot(ForkJoinPool.commonPool().invoke(new SetTask(operation, t1, t2)));
+		} else {
+			setRoot(setOperation(operation, t1, t2));
+		}
+	}
+	
+	/**
+	 * 以t2的根节点拆分t1 然后左右两边分别递归（足够大时左边交给ForkJoin）
+	 * @param operation
+	 * @param t1
+	 * @param t2
+	 */
+	private Piece<E> setOperation(int operation, Piece<E> t1, Piece<E> t2) {
+		if (t1.root == null) return operation == UNION ? t2 : t1;
+		if (t2.root == null) return operation == INTERSECTION ? t2 : t1;
+		
+		boolean parallel = t1.size() + t2.size() >= PARALLEL_THRESHOLD;
+		Node<E> node = t2.root;
+		Piece<E> left2 = leftOf(t2);
+		Piece<E> right2 = rightOf(t2);
+		detach(node);
+		Split<E> split = split(t1, node.element);
+		
+		Piece<E> left, right;
+		if (parallel) {
+			SetTask task = new SetTask(operation, split.left, left2);
+			task.fork();
+			right = setOperation(operation, split.right, right2);
+			left = task.join();
+		} else {
+			left = setOperation(operation, split.left, left2);
+			right = setOperation(operation, split.right, right2);
+		}
+		
+		switch (operation) {
+		case UNION:
+			return join(left, node, right);
+		case INTERSECTION:
+			return split.found == null ? join2(left, right) : join(left, split.found, right);
+		default:
+			return join2(left, right);
+		}
+	}
+	
+	/**
+	 * 按key拆分子树 O(logn)
+	 * @param t
+	 * @param key
+	 */
+	private Split<E> split(Piece<E> t, E key) {
+		if (t.root == null) return new Split<>(t, null, t);
+		
+		Node<E> node = t.root;
+		Piece<E> left = leftOf(t);
+		Piece<E> right = rightOf(t);
+		detach(node);
+		
+		int cmp = compare(key, node.element);
+		if (cmp == 0) return new Split<>(left, node, right);
+		if (cmp < 0) {
+			Split<E> split = split(left, key);
+			return new Split<>(split.left, split.found, join(split.right, node, right));
+		}
+		Split<E> split = split(right, key);
+		return new Split<>(join(left, node, split.left), split.found, split.right);
+	}
+	
+	/**
+	 * 没有中间节点的连接（摘下left中最大的节点作为中间节点）
+	 * @param left
+	 * @param right
+	 */
+	private Piece<E> join2(Piece<E> left, Piece<E> right) {
+		if (left.root == null) return right;
+		if (right.root == null) return left;
+		
+		Node<E>[] last = new Node[1];
+		Piece<E> rest = splitLast(left, last);
+		return join(rest, last[0], right);
+	}
+	
+	/**
+	 * 摘下子树中最大的节点
+	 * @param t
+	 * @param last 用来返回被摘下的节点
+	 */
+	private Piece<E> splitLast(Piece<E> t, Node<E>[] last) {
+		Node<E> node = t.root;
+		Piece<E> left = leftOf(t);
+		Piece<E> right = rightOf(t);
+		detach(node);
+		
+		if (right.root == null) {
+			last[0] = node;
+			return left;
+		}
+		return join(left, node, splitLast(right, last));
+	}
+	
+	/**
+	 * 整棵树作为一个子树 并把root置空（size不变 最后由setRoot重新设置）
+	 */
+	private Piece<E> whole() {
+		Piece<E> piece = new Piece<>(root, rankOf(root));
+		root = null;
+		return piece;
+	}
+	
+	private Piece<E> leftOf(Piece<E> t) {
+		Node<E> left = t.root.left;
+		if (left != null) left.parent = null;
+		return new Piece<>(left, childRank(t.root, t.rank, left));
+	}
+	
+	private Piece<E> rightOf(Piece<E> t) {
+		Node<E> right = t.root.right;
+		if (right != null) right.parent = null;
+		return new Piece<>(right, childRank(t.root, t.rank, right));
+	}
+	
+	/**
+	 * 把节点从树上摘下来（成为一个孤立的节点）
+	 * @param node
+	 */
+	private void detach(Node<E> node) {
+		node.left = null;
+		node.right = null;
+		node.parent = null;
+		node.subtreeSize = 1;
+	}
+	
+	private void setRoot(Piece<E> piece) {
+		root = piece.root;
+		if (root != null) {
+			root.parent = null;
+			fixRoot(root);
+		}
+		size = subtreeSize(root);
+	}
+	
+	private void otherCheck(BinaryBalancedSearchTree<E> other) {
+		if (other == null || other == this) {
+			throw new IllegalArgumentException("other must not be null or this tree itself.");
+		}
+	}
+	
+	private Node<E> first(Node<E> node) {
+		while (node.left != null) {
+			node = node.left;
+		}
+		return node;
+	}
+	
+	private Node<E> last(Node<E> node) {
+		while (node.right != null) {
+			node = node.right;
+		}
+		return node;
+	}
+	
+	/**
+	 * 批量操作中的一棵独立的子树（根节点 + 平衡参数）
+	 * @param <E>
+	 */
+	protected static final class Piece<E> {
+		public final Node<E> root;
+		public final int rank;
+		
+		public Piece(Node<E> root, int rank) {
+			this.root = root;
+			this.rank = rank;
+		}
+		
+		public int size() {
+			return root == null ? 0 : root.subtreeSize;
+		}
+	}
+	
+	/**
+	 * 拆分的结果（小于key的部分、等于key的节点、大于key的部分）
+	 * @param <E>
+	 */
+	private static final class Split<E> {
+		private final Piece<E> left;
+		private final Node<E> found;
+		private final Piece<E> right;
+		
+		Split(Piece<E> left, Node<E> found, Piece<E> right) {
+			this.left = left;
+			this.found = found;
+			this.right = right;
+		}
+	}
+	
+	private class SetTask extends RecursiveTask<Piece<E>> {
+		private static final long serialVersionUID = 1L;
+		private final int operation;
+		private final Piece<E> t1, t2;
+		
+		SetTask(int operation, Piece<E> t1, Piece<E> t2) {
+			this.operation = operation;
+			this.t1 = t1;
+			this.t2 = t2;
+		}
+		
+		@Override
+		protected Piece<E> compute() {
+			return setOperation(operation, t1, t2);
+		}
 	}
 }
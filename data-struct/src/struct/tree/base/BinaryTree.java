@@ -1,18 +1,43 @@
 package struct.tree.base;
 
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.NoSuchElementException;
 import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
 import printer.BinaryTreeInfo;
 
 /**
  * BinaryTree 二叉树
  * 
+ * ◼ 迭代器
+ * 前序、中序、后序迭代器只借助parent指针移动 不需要栈 也不会递归
+ * 层序迭代器使用数组实现的循环队列
+ * 迭代过程中修改树的结构 迭代的结果是不确定的
+ * 
+ * ◼ 并行操作
+ * parallelTraversal、parallelReduce、parallelCount以子树为单位拆分任务交给ForkJoinPool
+ * 剩余高度（按log2(size)估算）不超过SEQUENTIAL_HEIGHT的子树直接在当前线程用栈遍历
+ * 只适用于只读的场景（执行期间不能修改树）
+ * 
  * @author avril
  *
  * @param <E>
  */
 @SuppressWarnings("unchecked")
-public abstract class BinaryTree<E> implements BinaryTreeInfo {
+public abstract class BinaryTree<E> implements BinaryTreeInfo, Iterable<E> {
+	/* 并行操作时 估算高度不超过它的子树不再拆分（大约2^10个节点） */
+	private static final int SEQUENTIAL_HEIGHT = 10;
+	
 	/* 数量 */
 	protected int size;
 	
@@ -96,18 +121,171 @@ public abstract class BinaryTree<E> implements BinaryTreeInfo {
 	public void levelOrder(Visitor<E> visitor) {
 		if (root == null || visitor == null) return;
 		
-		// 使用队列
-		Queue<Node<E>> queue = new LinkedList<>(); // 这里使用的是Java官方的Queue
-		queue.offer(root); // 将根节点入队
+		Iterator<E> it = levelOrderIterator();
+		while (it.hasNext()) {
+			visitor.visit(it.next());
+		}
+	}
+	
+	/**
+	 * 默认的迭代顺序为中序
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return inorderIterator();
+	}
+	
+	/**
+	 * 中序的Spliterator（可以配合StreamSupport.stream使用）
+	 */
+	@Override
+	public Spliterator<E> spliterator() {
+		return spliterator(inorderIterator());
+	}
+	
+	/**
+	 * 把任意一种顺序的迭代器包装成Spliterator
+	 * @param iterator preorderIterator()、inorderIterator()、postorderIterator()、levelOrderIterator()
+	 */
+	public Spliterator<E> spliterator(Iterator<E> iterator) {
+		return Spliterators.spliterator(iterator, size, Spliterator.ORDERED | Spliterator.SIZED | Spliterator.NONNULL);
+	}
+	
+	/**
+	 * 前序迭代器（没有栈）
+	 */
+	public Iterator<E> preorderIterator() {
+		return new NodeIterator(root) {
+			@Override
+			Node<E> nextNode(Node<E> node) {
+				if (node.left != null) return node.left;
+				if (node.right != null) return node.right;
+				// 往上找到第一个 自己在左子树中并且有右子树的祖先 下一个就是它的右子节点
+				while (node.parent != null && (node == node.parent.right || node.parent.right == null)) {
+					node = node.parent;
+				}
+				return node.parent == null ? null : node.parent.right;
+			}
+		};
+	}
+	
+	/**
+	 * 中序迭代器（没有栈 就是不断地寻找后继）
+	 */
+	public Iterator<E> inorderIterator() {
+		Node<E> first = root;
+		if (first != null) {
+			while (first.left != null) {
+				first = first.left;
+			}
+		}
+		return new NodeIterator(first) {
+			@Override
+			Node<E> nextNode(Node<E> node) {
+				return successor(node);
+			}
+		};
+	}
+	
+	/**
+	 * 后序迭代器（没有栈）
+	 */
+	public Iterator<E> postorderIterator() {
+		return new NodeIterator(firstPostorder(root)) {
+			@Override
+			Node<E> nextNode(Node<E> node) {
+				Node<E> parent = node.parent;
+				if (parent == null) return null;
+				// 自己是右子节点 或者父节点没有右子树 下一个就是父节点
+				if (node == parent.right || parent.right == null) return parent;
+				// 否则下一个是右子树中后序的第一个节点
+				return firstPostorder(parent.right);
+			}
+		};
+	}
+	
+	/**
+	 * 子树中后序遍历的第一个节点（优先往左 没有左才往右 直到叶子节点）
+	 * @param node
+	 */
+	private Node<E> firstPostorder(Node<E> node) {
+		if (node == null) return null;
+		while (!node.isLeaf()) {
+			node = node.left != null ? node.left : node.right;
+		}
+		return node;
+	}
+	
+	/**
+	 * 层序迭代器（使用数组实现的循环队列）
+	 */
+	@SuppressWarnings("rawtypes")
+	public Iterator<E> levelOrderIterator() {
+		return new Iterator<E>() {
+			/* 循环队列（容量总是2的幂） */
+			private Node<E>[] queue = new Node[16];
+			private int head, count;
+			
+			{
+				if (root != null) offer(root);
+			}
+			
+			@Override
+			public boolean hasNext() {
+				return count > 0;
+			}
+			
+			@Override
+			public E next() {
+				if (count == 0) throw new NoSuchElementException();
+				Node<E> node = queue[head];
+				queue[head] = null;
+				head = (head + 1) & (queue.length - 1);
+				count--;
+				
+				if (node.left != null) offer(node.left);
+				if (node.right != null) offer(node.right);
+				return node.element;
+			}
+			
+			private void offer(Node<E> node) {
+				if (count == queue.length) { // 扩容 把队列摆正到数组的开头
+					Node<E>[] newQueue = new Node[queue.length << 1];
+					for (int i = 0; i < count; i++) {
+						newQueue[i] = queue[(head + i) & (queue.length - 1)];
+					}
+					queue = newQueue;
+					head = 0;
+				}
+				queue[(head + count) & (queue.length - 1)] = node;
+				count++;
+			}
+		};
+	}
+	
+	/**
+	 * 基于parent指针的迭代器（子类只需要给出下一个节点）
+	 */
+	private abstract class NodeIterator implements Iterator<E> {
+		private Node<E> next;
 		
-		while (!queue.isEmpty()) { // 循环执行以下操作，直到队列为空
-			// 将队头节点 A 出队，进行访问
-			Node<E> node = queue.poll();
-			visitor.visit(node.element);
-			// 将 A 的左子节点入队
-			if (node.left != null) queue.offer(node.left);
-			// 将 A 的右子节点入队
-			if (node.right != null) queue.offer(node.right);
+		NodeIterator(Node<E> first) {
+			this.next = first;
+		}
+		
+		abstract Node<E> nextNode(Node<E> node);
+		
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+		
+		@Override
+		public E next() {
+			Node<E> node = next;
+			if (node == null) throw new NoSuchElementException();
+			next = nextNode(node);
+			return node.element;
 		}
 	}
 	
@@ -156,6 +334,160 @@ public abstract class BinaryTree<E> implements BinaryTreeInfo {
 		visitor.visit(node.element);
 	}
 	
+	/**
+	 * 并行遍历（访问顺序不确定 visitor需要是线程安全的）
+	 * @param visitor
+	 */
+	public void parallelTraversal(Visitor<E> visitor) {
+		if (root == null || visitor == null) return;
+		ForkJoinPool.commonPool().invoke(new TraversalTask(root, splitDepth(), visitor));
+	}
+	
+	/**
+	 * 并行归约（combiner需要满足结合律 并且identity是它的单位元 合并的顺序和中序一致）
+	 * @param identity 初始值
+	 * @param mapper 元素映射成结果
+	 * @param combiner 合并两个结果
+	 */
+	public <R> R parallelReduce(R identity, Function<E, R> mapper, BinaryOperator<R> combiner) {
+		if (mapper == null || combiner == null) {
+			throw new IllegalArgumentException("mapper and combiner must not be null.");
+		}
+		if (root == null) return identity;
+		return ForkJoinPool.commonPool().invoke(new ReduceTask<>(root, splitDepth(), identity, mapper, combiner));
+	}
+	
+	/**
+	 * 并行统计满足条件的元素数量
+	 * @param predicate
+	 */
+	public long parallelCount(Predicate<E> predicate) {
+		if (predicate == null) {
+			throw new IllegalArgumentException("predicate must not be null.");
+		}
+		if (root == null) return 0;
+		return ForkJoinPool.commonPool().invoke(new CountTask(root, splitDepth(), predicate));
+	}
+	
+	/**
+	 * 需要继续拆分的深度（深度达到它之后 子树的估算高度不超过SEQUENTIAL_HEIGHT）
+	 */
+	private int splitDepth() {
+		int height = 32 - Integer.numberOfLeadingZeros(size);
+		return Math.max(0, height - SEQUENTIAL_HEIGHT);
+	}
+	
+	/**
+	 * 用栈遍历子树（不递归 遍历顺序为中序 这样parallelReduce的合并顺序和中序一致）
+	 * @param node
+	 * @param visitor
+	 */
+	@SuppressWarnings("rawtypes")
+	private void sequentialTraversal(Node<E> node, Visitor<Node<E>> visitor) {
+		Node<E>[] stack = new Node[16];
+		int top = 0;
+		while (node != null || top > 0) {
+			while (node != null) {
+				if (top == stack.length) {
+					stack = Arrays.copyOf(stack, stack.length << 1);
+				}
+				stack[top++] = node;
+				node = node.left;
+			}
+			node = stack[--top];
+			visitor.visit(node);
+			node = node.right;
+		}
+	}
+	
+	private class TraversalTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final Node<E> node;
+		private final int depth;
+		private final Visitor<E> visitor;
+		
+		TraversalTask(Node<E> node, int depth, Visitor<E> visitor) {
+			this.node = node;
+			this.depth = depth;
+			this.visitor = visitor;
+		}
+		
+		@Override
+		protected void compute() {
+			if (depth <= 0) {
+				sequentialTraversal(node, n -> visitor.visit(n.element));
+				return;
+			}
+			TraversalTask left = node.left == null ? null : new TraversalTask(node.left, depth - 1, visitor);
+			if (left != null) left.fork();
+			visitor.visit(node.element);
+			if (node.right != null) new TraversalTask(node.right, depth - 1, visitor).compute();
+			if (left != null) left.join();
+		}
+	}
+	
+	private class ReduceTask<R> extends RecursiveTask<R> {
+		private static final long serialVersionUID = 1L;
+		private final Node<E> node;
+		private final int depth;
+		private final R identity;
+		private final Function<E, R> mapper;
+		private final BinaryOperator<R> combiner;
+		
+		ReduceTask(Node<E> node, int depth, R identity, Function<E, R> mapper, BinaryOperator<R> combiner) {
+			this.node = node;
+			this.depth = depth;
+			this.identity = identity;
+			this.mapper = mapper;
+			this.combiner = combiner;
+		}
+		
+		@Override
+		protected R compute() {
+			if (depth <= 0) {
+				Object[] result = { identity };
+				sequentialTraversal(node, n -> result[0] = combiner.apply((R) result[0], mapper.apply(n.element)));
+				return (R) result[0];
+			}
+			ReduceTask<R> left = node.left == null ? null : new ReduceTask<>(node.left, depth - 1, identity, mapper, combiner);
+			if (left != null) left.fork();
+			R result = mapper.apply(node.element);
+			if (node.right != null) {
+				result = combiner.apply(result, new ReduceTask<>(node.right, depth - 1, identity, mapper, combiner).compute());
+			}
+			return left == null ? result : combiner.apply(left.join(), result);
+		}
+	}
+	
+	private class CountTask extends RecursiveTask<Long> {
+		private static final long serialVersionUID = 1L;
+		private final Node<E> node;
+		private final int depth;
+		private final Predicate<E> predicate;
+		
+		CountTask(Node<E> node, int depth, Predicate<E> predicate) {
+			this.node = node;
+			this.depth = depth;
+			this.predicate = predicate;
+		}
+		
+		@Override
+		protected Long compute() {
+			if (depth <= 0) {
+				long[] count = { 0 };
+				sequentialTraversal(node, n -> {
+					if (predicate.test(n.element)) count[0]++;
+				});
+				return count[0];
+			}
+			CountTask left = node.left == null ? null : new CountTask(node.left, depth - 1, predicate);
+			if (left != null) left.fork();
+			long count = predicate.test(node.element) ? 1 : 0;
+			if (node.right != null) count += new CountTask(node.right, depth - 1, predicate).compute();
+			return left == null ? count : count + left.join();
+		}
+	}
+	
 	/**
 	 * 练习1： 获得二叉树的高度（递归版和迭代版）
 	 * @return
@@ -243,6 +575,8 @@ public abstract class BinaryTree<E> implements BinaryTreeInfo {
 	protected static class Node<E> {	
 		public E element;
 		public Node<E> parent, left, right;
+		/* 以该节点为根的子树中的节点数量（顺序统计用 只有开启时才会维护） */
+		public int subtreeSize = 1;
 		
 		public Node(E element, Node<E> parent) {
 			this.element = element;
@@ -0,0 +1,371 @@
+package struct.trie;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * AhoCorasick 多模式匹配自动机
+ *
+ * 在Trie的基础上给每个节点加上失配指针（fail）：
+ * 从根节点到fail[s]的路径 是从根节点到s的路径的最长真后缀（并且存在于Trie中）
+ * 文本串中的字符失配时沿着fail往回走 不需要回退文本串 所以只需要从左到右扫描一遍
+ * 时间复杂度O(n + 匹配的次数) 与关键词的数量无关
+ *
+ * ◼ 状态：Trie中的每个节点按层序（BFS）编号 根节点为0 fail也是按层序计算的（fail一定在更浅的层）
+ * ◼ 输出链接（output）：沿着fail能走到的最近的单词结尾 到达一个状态之后顺着它报告所有匹配
+ * ◼ 稀疏模式（默认）：每个状态的转移是排好序的字符数组 二分查找
+ * ◼ 稠密模式（指定字符集）：预先算好每个状态遇到每个字符会到达哪个状态（失配的情况也合并进去）
+ *   每个字符只需要查一次表 适合字符集很小的场景 表的大小是 状态数 * 字符集大小
+ *
+ * 构建时复制了Trie的结构 之后再修改Trie不会影响已经构建好的自动机
+ *
+ * @author avril
+ *
+ * @param <V>
+ */
+@SuppressWarnings({ "unchecked", "rawtypes" })
+public class AhoCorasick<V> {
+	/* 根状态 */
+	private static final int ROOT = 0;
+
+	/* 没有转移、没有输出 */
+	private static final int NONE = -1;
+
+	/* 读取Reader时的缓冲区大小 */
+	private static final int BUFFER_SIZE = 8192;
+
+	/* 状态的数量 */
+	private final int stateCount;
+
+	/* 失配指针、输出链接、深度（关键词的长度） */
+	private final int[] fail;
+	private final int[] output;
+	private final int[] depth;
+
+	/* 单词结尾的状态对应的关键词、值（其他状态为null） */
+	private final String[] keywords;
+	private final Object[] values;
+
+	/* 稀疏模式：每个状态的转移（字符升序） */
+	private final char[][] labels;
+	private final int[][] targets;
+
+	/* 稠密模式：字符 -> 字符集中的下标（不在字符集中的为NONE）、转移表 */
+	private final int[] charIndex;
+	private final int alphabetSize;
+	private final int[] delta;
+
+	/**
+	 * 稀疏模式
+	 * @param trie
+	 */
+	public AhoCorasick(Trie<V> trie) {
+		this(trie, null);
+	}
+
+	/**
+	 * @param trie
+	 * @param alphabet 字符集（不为null时使用稠密模式 关键词中的所有字符都必须在字符集中）
+	 */
+	public AhoCorasick(Trie<V> trie, String alphabet) {
+		if (trie == null) {
+			throw new IllegalArgumentException("trie must not be null.");
+		}
+
+		// 按层序给Trie的节点编号
+		Trie.Node<V>[] nodes = bfs(trie.root());
+		stateCount = nodes.length;
+		fail = new int[stateCount];
+		output = new int[stateCount];
+		depth = new int[stateCount];
+		keywords = new String[stateCount];
+		values = new Object[stateCount];
+		labels = new char[stateCount][];
+		targets = new int[stateCount][];
+		buildGoto(nodes);
+		buildFail();
+
+		if (alphabet == null) {
+			charIndex = null;
+			alphabetSize = 0;
+			delta = null;
+		} else {
+			charIndex = charIndex(alphabet);
+			alphabetSize = alphabet.length();
+			delta = buildDelta(alphabet);
+		}
+	}
+
+	/**
+	 * 状态的数量
+	 */
+	public int stateCount() {
+		return stateCount;
+	}
+
+	/**
+	 * 从左到右扫描一遍文本串 报告所有出现的关键词（关键词之间可以重叠、包含）
+	 * 同一个结束位置上的多个关键词 按长度从长到短报告
+	 * @param text
+	 * @param visitor 返回true时停止
+	 */
+	public void search(CharSequence text, Visitor<V> visitor) {
+		if (text == null) {
+			throw new IllegalArgumentException("text must not be null.");
+		}
+		if (visitor == null) return;
+		int state = ROOT;
+		int length = text.length();
+		for (int i = 0; i < length; i++) {
+			state = next(state, text.charAt(i));
+			if (report(state, i + 1, visitor)) return;
+		}
+	}
+
+	/**
+	 * 流式扫描：每次读取一块字符 状态跨块延续 不需要把整个文本读进内存
+	 * 报告的位置是从Reader开始读取的字符数
+	 * @param reader 由调用者负责关闭
+	 * @param visitor 返回true时停止
+	 */
+	public void search(Reader reader, Visitor<V> visitor) throws IOException {
+		if (reader == null) {
+			throw new IllegalArgumentException("reader must not be null.");
+		}
+		if (visitor == null) return;
+		char[] buffer = new char[BUFFER_SIZE];
+		int state = ROOT;
+		long position = 0;
+		int n;
+		while ((n = reader.read(buffer)) >= 0) {
+			for (int i = 0; i < n; i++) {
+				state = next(state, buffer[i]);
+				if (report(state, position + i + 1, visitor)) return;
+			}
+			position += n;
+		}
+	}
+
+	/**
+	 * 文本串中是否出现了任意一个关键词
+	 * @param text
+	 */
+	public boolean matches(CharSequence text) {
+		boolean[] found = { false };
+		search(text, (begin, keyword, value) -> found[0] = true);
+		return found[0];
+	}
+
+	/**
+	 * 从state出发 读入字符c之后到达的状态
+	 * @param state
+	 * @param c
+	 */
+	private int next(int state, char c) {
+		if (delta != null) {
+			int index = c < charIndex.length ? charIndex[c] : NONE;
+			return index == NONE ? ROOT : delta[state * alphabetSize + index];
+		}
+		while (true) {
+			int target = transition(state, c);
+			if (target != NONE) return target;
+			if (state == ROOT) return ROOT;
+			state = fail[state];
+		}
+	}
+
+	/**
+	 * 报告以end结尾的所有关键词（state自己以及它的输出链接）
+	 * @return visitor是否要求停止
+	 */
+	private boolean report(int state, long end, Visitor<V> visitor) {
+		int s = keywords[state] != null ? state : output[state];
+		for (; s != NONE; s = output[s]) {
+			if (visitor.visit(end - depth[s], keywords[s], (V) values[s])) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * 稀疏模式的转移（二分查找）
+	 */
+	private int transition(int state, char c) {
+		char[] chars = labels[state];
+		if (chars == null) return NONE;
+		int index = Arrays.binarySearch(chars, c);
+		return index >= 0 ? targets[state][index] : NONE;
+	}
+
+	/**
+	 * 层序遍历Trie 返回按层序排列的所有节点
+	 * @param root
+	 */
+	private static <V> Trie.Node<V>[] bfs(Trie.Node<V> root) {
+		Trie.Node<V>[] nodes = new Trie.Node[16];
+		nodes[0] = root == null ? new Trie.Node<>(null) : root;
+		int size = 1;
+		for (int head = 0; head < size; head++) {
+			Trie.Node<V> node = nodes[head];
+			if (node.children == null) continue;
+			for (Trie.Node<V> child : node.children.values()) {
+				if (size == nodes.length) {
+					nodes = Arrays.copyOf(nodes, size << 1);
+				}
+				nodes[size++] = child;
+			}
+		}
+		return Arrays.copyOf(nodes, size);
+	}
+
+	/**
+	 * 建立转移（Trie的边）、深度和关键词
+	 * @param nodes 层序排列的节点
+	 */
+	private void buildGoto(Trie.Node<V>[] nodes) {
+		// 节点 -> 编号（层序遍历时子节点的编号是连续分配的 按同样的顺序再走一遍即可）
+		int next = 1;
+		int[] parents = new int[stateCount];
+		char[] chars = new char[stateCount];
+		for (int s = 0; s < stateCount; s++) {
+			Trie.Node<V> node = nodes[s];
+			if (node.word) values[s] = node.value;
+			if (node.children == null || node.children.isEmpty()) continue;
+
+			int count = node.children.size();
+			char[] label = new char[count];
+			int[] target = new int[count];
+			int i = 0;
+			for (Map.Entry<Character, Trie.Node<V>> entry : node.children.entrySet()) {
+				label[i] = entry.getKey();
+				target[i] = next;
+				parents[next] = s;
+				chars[next] = label[i];
+				depth[next] = depth[s] + 1;
+				next++;
+				i++;
+			}
+			sort(label, target);
+			labels[s] = label;
+			targets[s] = target;
+		}
+
+		// 单词结尾的状态 沿着parents还原出关键词
+		for (int s = 1; s < stateCount; s++) {
+			if (!nodes[s].word) continue;
+			char[] keyword = new char[depth[s]];
+			for (int t = s, i = depth[s] - 1; t != ROOT; t = parents[t], i--) {
+				keyword[i] = chars[t];
+			}
+			keywords[s] = new String(keyword);
+		}
+	}
+
+	/**
+	 * 按层序计算失配指针和输出链接
+	 * s = goto(u, c) 时 从fail[u]开始沿着失配指针往回找第一个有c转移的状态 它的c转移就是fail[s]
+	 */
+	private void buildFail() {
+		fail[ROOT] = ROOT;
+		output[ROOT] = NONE;
+		for (int u = 0; u < stateCount; u++) {
+			if (labels[u] == null) continue;
+			for (int i = 0; i < labels[u].length; i++) {
+				char c = labels[u][i];
+				int s = targets[u][i];
+				if (u == ROOT) {
+					fail[s] = ROOT;
+				} else {
+					int f = fail[u];
+					int target;
+					while ((target = transition(f, c)) == NONE && f != ROOT) {
+						f = fail[f];
+					}
+					fail[s] = target == NONE ? ROOT : target;
+				}
+				int f = fail[s];
+				output[s] = keywords[f] != null ? f : output[f];
+			}
+		}
+	}
+
+	/**
+	 * 稠密模式的转移表：有边就走边 没有边就和fail[s]遇到同一个字符时一样（fail更浅 已经算好了）
+	 * @param alphabet
+	 */
+	private int[] buildDelta(String alphabet) {
+		int[] delta = new int[stateCount * alphabetSize];
+		for (int s = 0; s < stateCount; s++) {
+			for (int a = 0; a < alphabetSize; a++) {
+				int target = transition(s, alphabet.charAt(a));
+				if (target == NONE) {
+					target = s == ROOT ? ROOT : delta[fail[s] * alphabetSize + a];
+				}
+				delta[s * alphabetSize + a] = target;
+			}
+			if (labels[s] == null) continue;
+			for (char c : labels[s]) {
+				if (c >= charIndex.length || charIndex[c] == NONE) {
+					throw new IllegalArgumentException("keyword character '" + c + "' is not in the alphabet.");
+				}
+			}
+		}
+		return delta;
+	}
+
+	/**
+	 * 字符 -> 字符集中的下标
+	 * @param alphabet
+	 */
+	private static int[] charIndex(String alphabet) {
+		if (alphabet.isEmpty()) {
+			throw new IllegalArgumentException("alphabet must not be empty.");
+		}
+		int max = 0;
+		for (int i = 0; i < alphabet.length(); i++) {
+			max = Math.max(max, alphabet.charAt(i));
+		}
+		int[] index = new int[max + 1];
+		Arrays.fill(index, NONE);
+		for (int i = 0; i < alphabet.length(); i++) {
+			char c = alphabet.charAt(i);
+			if (index[c] != NONE) {
+				throw new IllegalArgumentException("alphabet must not contain duplicate characters.");
+			}
+			index[c] = i;
+		}
+		return index;
+	}
+
+	/**
+	 * 按字符升序排列转移（插入排序 子节点通常很少）
+	 */
+	private static void sort(char[] label, int[] target) {
+		for (int i = 1; i < label.length; i++) {
+			char c = label[i];
+			int t = target[i];
+			int j = i - 1;
+			for (; j >= 0 && label[j] > c; j--) {
+				label[j + 1] = label[j];
+				target[j + 1] = target[j];
+			}
+			label[j + 1] = c;
+			target[j + 1] = t;
+		}
+	}
+
+	/**
+	 * 访问器
+	 */
+	@FunctionalInterface
+	public static interface Visitor<V> {
+		/**
+		 * @param begin 关键词在文本中的开始位置
+		 * @param keyword 关键词
+		 * @param value 关键词对应的值
+		 * @return 是否停止
+		 */
+		boolean visit(long begin, String keyword, V value);
+	}
+}
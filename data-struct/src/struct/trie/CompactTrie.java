@@ -0,0 +1,329 @@
+package struct.trie;
+
+import java.util.Arrays;
+
+/**
+ * CompactTrie 压缩字典树（Radix Tree / Patricia Trie）
+ *
+ * 与Trie的接口相同 区别在于节点的存储方式
+ * ◼ 路径压缩：只有一个子节点、并且不是单词结尾的节点链 合并成一个节点 边上存放一段字符（char[]）
+ * ◼ 子节点存放在数组中 按边的首字符升序排列 查找时二分 没有HashMap、没有装箱的Character
+ * ◼ 不保存parent 删除时从根节点往下走的过程中记录路径
+ *
+ * 任意两个子节点的边的首字符都不相同
+ * 除了根节点以外 每个节点要么是单词结尾 要么至少有两个子节点
+ *
+ * @author avril
+ *
+ * @param <V>
+ */
+@SuppressWarnings("unchecked")
+public class CompactTrie<V> {
+	/* 没有子节点时共享的空数组 */
+	private static final char[] EMPTY_CHARS = {};
+	private static final Node[] EMPTY_NODES = {};
+
+	/* 数量 */
+	private int size;
+
+	/* 根节点（边为空） */
+	private Node root = new Node(EMPTY_CHARS);
+
+	/**
+	 * 元素数量
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * 是否为空
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * 清空元素
+	 */
+	public void clear() {
+		size = 0;
+		root = new Node(EMPTY_CHARS);
+	}
+
+	/**
+	 * 获取key所对应的值
+	 * @param key
+	 */
+	public V get(String key) {
+		Node node = node(key);
+		return node != null && node.word ? (V) node.value : null;
+	}
+
+	/**
+	 * 是否包含字符串
+	 * @param key
+	 */
+	public boolean contains(String key) {
+		Node node = node(key);
+		return node != null && node.word;
+	}
+
+	/**
+	 * 添加字符串同时添加一些值（键值对）
+	 * @param key
+	 * @param value
+	 */
+	public V add(String key, V value) {
+		keyCheck(key);
+
+		Node node = root;
+		int i = 0;
+		int len = key.length();
+		while (i < len) {
+			int index = node.indexOf(key.charAt(i));
+			if (index < 0) { // 没有首字符相同的边 剩下的部分直接作为一个新的叶子节点
+				Node leaf = new Node(key.substring(i).toCharArray());
+				leaf.word = true;
+				leaf.value = value;
+				node.insert(-index - 1, leaf);
+				size++;
+				return null;
+			}
+
+			Node child = node.children[index];
+			int common = commonPrefix(child.label, key, i);
+			if (common < child.label.length) {
+				// 只匹配了边的一部分 把这条边从中间断开
+				Node middle = new Node(Arrays.copyOf(child.label, common));
+				child.label = Arrays.copyOfRange(child.label, common, child.label.length);
+				middle.children = new Node[] { child };
+				middle.firsts = new char[] { child.label[0] };
+				node.children[index] = middle;
+				child = middle;
+			}
+			node = child;
+			i += common;
+		}
+
+		if (node.word) { // 已经存在这个单词
+			V oldValue = (V) node.value;
+			node.value = value;
+			return oldValue;
+		}
+
+		// 新增一个单词
+		node.word = true;
+		node.value = value;
+		size++;
+		return null;
+	}
+
+	/**
+	 * 删除字符串
+	 * 删除之后如果节点没有子节点了 就把它从父节点中删掉
+	 * 如果节点（或者它的父节点）只剩一个子节点并且不是单词结尾 就和子节点合并 保持路径压缩
+	 * @param key
+	 */
+	public V remove(String key) {
+		keyCheck(key);
+
+		// 找到最后一个节点 同时记录父节点
+		Node parent = null;
+		Node node = root;
+		int i = 0;
+		int len = key.length();
+		while (i < len) {
+			int index = node.indexOf(key.charAt(i));
+			if (index < 0) return null;
+			Node child = node.children[index];
+			if (!matches(child.label, key, i)) return null;
+			parent = node;
+			node = child;
+			i += child.label.length;
+		}
+		// 如果不是单词结尾 不用做任何处理
+		if (!node.word) return null;
+
+		V oldValue = (V) node.value;
+		node.word = false;
+		node.value = null;
+		size--;
+
+		int count = node.children.length;
+		if (count == 1) { // 只剩一个子节点 和它合并
+			merge(node);
+		} else if (count == 0) { // 没有子节点了 从父节点中删掉
+			parent.remove(parent.indexOf(node.label[0]));
+			if (parent != root && !parent.word && parent.children.length == 1) {
+				merge(parent);
+			}
+		}
+		return oldValue;
+	}
+
+	/**
+	 * 是否含有指定前缀
+	 * @param prefix
+	 */
+	public boolean startWith(String prefix) {
+		keyCheck(prefix);
+
+		Node node = root;
+		int i = 0;
+		int len = prefix.length();
+		while (i < len) {
+			int index = node.indexOf(prefix.charAt(i));
+			if (index < 0) return false;
+			node = node.children[index];
+			int common = commonPrefix(node.label, prefix, i);
+			// 前缀在这条边的中间结束 也算含有
+			if (i + common == len) return true;
+			if (common < node.label.length) return false;
+			i += common;
+		}
+		return true;
+	}
+
+	/**
+	 * 节点的数量（包括根节点）
+	 */
+	public int nodeCount() {
+		return nodeCount(root);
+	}
+
+	private int nodeCount(Node node) {
+		int count = 1;
+		for (Node child : node.children) {
+			count += nodeCount(child);
+		}
+		return count;
+	}
+
+	/**
+	 * 通过字符串找到对应的节点（字符串必须完整地走完若干条边）
+	 * @param key
+	 */
+	private Node node(String key) {
+		keyCheck(key);
+
+		Node node = root;
+		int i = 0;
+		int len = key.length();
+		while (i < len) {
+			int index = node.indexOf(key.charAt(i));
+			if (index < 0) return null;
+			node = node.children[index];
+			if (!matches(node.label, key, i)) return null;
+			i += node.label.length;
+		}
+		return node;
+	}
+
+	/**
+	 * 把只有一个子节点的node和它的子节点合并（子节点的边接到node的边后面）
+	 * @param node
+	 */
+	private void merge(Node node) {
+		Node child = node.children[0];
+		char[] label = Arrays.copyOf(node.label, node.label.length + child.label.length);
+		System.arraycopy(child.label, 0, label, node.label.length, child.label.length);
+		node.label = label;
+		node.firsts = child.firsts;
+		node.children = child.children;
+		node.word = child.word;
+		node.value = child.value;
+	}
+
+	/**
+	 * label与key[from, from + label.length)的公共前缀长度
+	 */
+	private static int commonPrefix(char[] label, String key, int from) {
+		int max = Math.min(label.length, key.length() - from);
+		int i = 0;
+		while (i < max && label[i] == key.charAt(from + i)) {
+			i++;
+		}
+		return i;
+	}
+
+	/**
+	 * key从from开始是否完整包含label
+	 */
+	private static boolean matches(char[] label, String key, int from) {
+		return key.length() - from >= label.length && commonPrefix(label, key, from) == label.length;
+	}
+
+	/**
+	 * 非空check
+	 * @param key
+	 */
+	private void keyCheck(String key) {
+		if (key == null || key.length() == 0) {
+			throw new IllegalArgumentException("key must not be empty.");
+		}
+	}
+
+	/**
+	 * 内置节点
+	 */
+	private static class Node {
+		/* 从父节点到这个节点的边上的字符 */
+		char[] label;
+		/* 子节点的边的首字符（升序）、子节点 */
+		char[] firsts = EMPTY_CHARS;
+		Node[] children = EMPTY_NODES;
+		Object value;
+		/* 是否为单词的结尾 */
+		boolean word;
+
+		Node(char[] label) {
+			this.label = label;
+		}
+
+		/**
+		 * 二分查找首字符为c的子节点
+		 * @return 找到时返回下标 找不到时返回 -(插入位置 + 1)
+		 */
+		int indexOf(char c) {
+			return Arrays.binarySearch(firsts, c);
+		}
+
+		/**
+		 * 在index位置插入子节点（数组只增长1 子节点通常很少）
+		 */
+		void insert(int index, Node child) {
+			int count = children.length;
+			char[] newFirsts = new char[count + 1];
+			Node[] newChildren = new Node[count + 1];
+			System.arraycopy(firsts, 0, newFirsts, 0, index);
+			System.arraycopy(children, 0, newChildren, 0, index);
+			newFirsts[index] = child.label[0];
+			newChildren[index] = child;
+			System.arraycopy(firsts, index, newFirsts, index + 1, count - index);
+			System.arraycopy(children, index, newChildren, index + 1, count - index);
+			firsts = newFirsts;
+			children = newChildren;
+		}
+
+		/**
+		 * 删除index位置的子节点
+		 */
+		void remove(int index) {
+			int count = children.length;
+			if (count == 1) {
+				firsts = EMPTY_CHARS;
+				children = EMPTY_NODES;
+				return;
+			}
+			char[] newFirsts = new char[count - 1];
+			Node[] newChildren = new Node[count - 1];
+			System.arraycopy(firsts, 0, newFirsts, 0, index);
+			System.arraycopy(children, 0, newChildren, 0, index);
+			System.arraycopy(firsts, index + 1, newFirsts, index, count - index - 1);
+			System.arraycopy(children, index + 1, newChildren, index, count - index - 1);
+			firsts = newFirsts;
+			children = newChildren;
+		}
+	}
+}
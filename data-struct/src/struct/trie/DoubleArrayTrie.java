@@ -0,0 +1,228 @@
+package struct.trie;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import struct.trie.base.AbstractDoubleArrayTrie;
+
+/**
+ * DoubleArrayTrie 双数组字典树（只读）
+ *
+ * 把构建好的Trie冻结成两个int数组：base和check（查找的逻辑见AbstractDoubleArrayTrie）
+ * 数组中没有指针 每个位置只占8个字节 中等规模的词典可以整个放进CPU缓存
+ *
+ * 构建时为每个状态寻找一个base 让它所有的子节点都落在空闲的位置上（check为0）
+ * 从上次的空闲位置开始往后找 扫过的位置大部分都被占用时 下次直接从当前位置开始
+ *
+ * @author avril
+ *
+ * @param <V>
+ */
+@SuppressWarnings({ "unchecked", "rawtypes" })
+public class DoubleArrayTrie<V> extends AbstractDoubleArrayTrie<V> {
+	private int[] base;
+	private int[] check;
+
+	/* 所有单词的值 */
+	private Object[] values;
+
+	/* 构建时：下一次开始寻找空闲位置的地方 */
+	private int nextCheckPos;
+
+	/**
+	 * 冻结一个Trie（之后再修改Trie不会影响它）
+	 * @param trie
+	 */
+	public DoubleArrayTrie(Trie<V> trie) {
+		if (trie == null) {
+			throw new IllegalArgumentException("trie must not be null.");
+		}
+		values = new Object[trie.size()];
+		base = new int[1 << 10];
+		check = new int[1 << 10];
+		check[ROOT] = -1; // 根状态没有父状态 但位置要占上
+		base[ROOT] = ROOT;
+		nextCheckPos = ROOT + 1;
+		if (trie.root() != null) {
+			build(trie.root());
+		}
+	}
+
+	/**
+	 * base、check数组的长度
+	 */
+	@Override
+	public int capacity() {
+		return base.length;
+	}
+
+	/**
+	 * 占用的内存（字节 不包括值）
+	 */
+	public long memoryBytes() {
+		return (long) base.length * 4 + (long) check.length * 4;
+	}
+
+	@Override
+	protected int base(int state) {
+		return base[state];
+	}
+
+	@Override
+	protected int check(int state) {
+		return check[state];
+	}
+
+	@Override
+	protected V value(int index) {
+		return (V) values[index];
+	}
+
+	/**
+	 * base、check数组和值（给同一个包中的TrieSnapshot使用 不要修改）
+	 */
+	int[] baseArray() {
+		return base;
+	}
+
+	int[] checkArray() {
+		return check;
+	}
+
+	Object[] values() {
+		return values;
+	}
+
+	/**
+	 * 按层序为Trie的每个节点分配状态
+	 * @param root
+	 */
+	private void build(Trie.Node<V> root) {
+		Trie.Node<V>[] nodes = new Trie.Node[16];
+		int[] states = new int[16];
+		nodes[0] = root;
+		states[0] = ROOT;
+		int tail = 1;
+		int valueCount = 0;
+		int maxUsed = ROOT;
+
+		for (int head = 0; head < tail; head++) {
+			Trie.Node<V> node = nodes[head];
+			int state = states[head];
+
+			// 子节点的code（升序） 单词结尾时额外有一个TERMINAL
+			int childCount = node.children == null ? 0 : node.children.size();
+			int[] codes = new int[childCount + (node.word ? 1 : 0)];
+			Trie.Node<V>[] children = new Trie.Node[codes.length];
+			int count = 0;
+			if (node.word) {
+				codes[count++] = TERMINAL;
+			}
+			if (childCount > 0) {
+				for (Map.Entry<Character, Trie.Node<V>> entry : node.children.entrySet()) {
+					codes[count] = entry.getKey() + 1;
+					children[count++] = entry.getValue();
+				}
+			}
+			sort(codes, children);
+			if (codes.length == 0) continue;
+
+			int b = findBase(codes);
+			base[state] = b;
+			for (int i = 0; i < codes.length; i++) {
+				check[b + codes[i]] = state;
+			}
+			maxUsed = Math.max(maxUsed, b + codes[codes.length - 1]);
+
+			for (int i = 0; i < codes.length; i++) {
+				int t = b + codes[i];
+				if (codes[i] == TERMINAL) {
+					if (valueCount == values.length) {
+						values = Arrays.copyOf(values, valueCount + 1 << 1);
+					}
+					values[valueCount] = node.value;
+					base[t] = -(valueCount + 1);
+					valueCount++;
+					continue;
+				}
+				if (tail == nodes.length) {
+					nodes = Arrays.copyOf(nodes, tail << 1);
+					states = Arrays.copyOf(states, tail << 1);
+				}
+				nodes[tail] = children[i];
+				states[tail] = t;
+				tail++;
+			}
+		}
+
+		size = valueCount;
+		values = Arrays.copyOf(values, valueCount);
+		// 去掉末尾没用到的位置（越界的转移在查找时会被当作不存在）
+		base = Arrays.copyOf(base, maxUsed + 1);
+		check = Arrays.copyOf(check, maxUsed + 1);
+	}
+
+	/**
+	 * 寻找一个base 使得所有的base + code都是空闲的位置
+	 * @param codes 升序
+	 */
+	private int findBase(int[] codes) {
+		int first = codes[0];
+		int last = codes[codes.length - 1];
+		int pos = Math.max(first + 1, nextCheckPos) - 1;
+		int occupied = 0;
+		boolean firstFree = true;
+		int begin = nextCheckPos;
+		outer: while (true) {
+			pos++;
+			ensureCapacity(pos + 1);
+			if (check[pos] != 0) {
+				occupied++;
+				continue;
+			}
+			if (firstFree) {
+				nextCheckPos = pos;
+				firstFree = false;
+			}
+
+			int b = pos - first;
+			ensureCapacity(b + last + 1);
+			for (int i = 1; i < codes.length; i++) {
+				if (check[b + codes[i]] != 0) continue outer;
+			}
+
+			// 扫过的位置几乎都被占用了 下次直接从这里开始
+			if (occupied >= 0.95 * (pos - begin + 1)) {
+				nextCheckPos = pos;
+			}
+			return b;
+		}
+	}
+
+	/**
+	 * 保证数组的长度至少为capacity（每次扩容为原来的2倍）
+	 */
+	private void ensureCapacity(int capacity) {
+		if (capacity <= check.length) return;
+		int newCapacity = Math.max(capacity, check.length << 1);
+		base = Arrays.copyOf(base, newCapacity);
+		check = Arrays.copyOf(check, newCapacity);
+	}
+
+	/**
+	 * 按code升序排列（插入排序 子节点通常很少）
+	 */
+	private static <V> void sort(int[] codes, Trie.Node<V>[] children) {
+		for (int i = 1; i < codes.length; i++) {
+			int code = codes[i];
+			Trie.Node<V> child = children[i];
+			int j = i - 1;
+			for (; j >= 0 && codes[j] > code; j--) {
+				codes[j + 1] = codes[j];
+				children[j + 1] = children[j];
+			}
+			codes[j + 1] = code;
+			children[j + 1] = child;
+		}
+	}
+}
@@ -1,10 +1,24 @@
 package struct.trie;
 
+import java.util.Arrays;
 import java.util.HashMap;
 
+import struct.heap.BinaryHeap;
+import struct.list.ArrayList;
+import struct.list.base.List;
+
 /**
  * Trie 也叫做字典树、前缀树（Prefix Tree）、单词查找树
  * 
+ * 每个单词可以带一个权重（不指定时为0） 每个节点记录子树中最大的权重（maxWeight）
+ * topK按权重从大到小取出指定前缀下的单词：从前缀节点开始做最佳优先搜索
+ * 堆中同时放子树（优先级为maxWeight）和单词（优先级为权重） 弹出单词时它一定比堆中剩下的都大
+ * 所以只需要展开k个单词沿途的节点 耗时与k有关 与前缀下的单词总数无关
+ * 
+ * fuzzySearch查找与查询串的编辑距离（Levenshtein）不超过d的单词：
+ * 深度优先遍历时 每往下走一个字符 就在父节点那一行的基础上算出编辑距离矩阵的下一行
+ * 一行中的最小值超过d时 这个节点下面的单词都不可能满足条件 整棵子树直接剪掉
+ * 
  * @author avril
  *
  * @param <V>
@@ -62,6 +76,53 @@ public class Trie<V> {
 	 * @param value
 	 */
 	public V add(String key, V value) {
+		Node<V> node = createNode(key);
+		
+		if (node.word) { // 已经存在这个单词
+			V oldValue = node.value;
+			node.value = value;
+			return oldValue;
+		}
+		
+		// 新增一个单词
+		node.word = true;
+		node.value = value;
+		node.weight = 0;
+		size++;
+		updateMaxWeight(node);
+		
+		return null;
+	}
+	
+	/**
+	 * 添加字符串、值和权重（已经存在时同时覆盖值和权重）
+	 * @param key
+	 * @param value
+	 * @param weight 权重（topK按权重从大到小排列）
+	 */
+	public V add(String key, V value, double weight) {
+		if (Double.isNaN(weight)) {
+			throw new IllegalArgumentException("weight must not be NaN.");
+		}
+		Node<V> node = createNode(key);
+		
+		V oldValue = node.value;
+		if (!node.word) { // 新增一个单词
+			node.word = true;
+			size++;
+		}
+		node.value = value;
+		node.weight = weight;
+		updateMaxWeight(node);
+		
+		return oldValue;
+	}
+	
+	/**
+	 * 沿着key往下走 不存在的节点直接创建 返回最后一个节点
+	 * @param key
+	 */
+	private Node<V> createNode(String key) {
 		keyCheck(key);
 		
 		// 创建根节点
@@ -83,19 +144,7 @@ public class Trie<V> {
 			}
 			node = childNode;
 		}
-		
-		if (node.word) { // 已经存在这个单词
-			V oldValue = node.value;
-			node.value = value;
-			return oldValue;
-		}
-		
-		// 新增一个单词
-		node.word = true;
-		node.value = value;
-		size++;
-		
-		return null;
+		return node;
 	}
 	
 	/**
@@ -114,6 +163,8 @@ public class Trie<V> {
 			
 			node.word = false;
 			node.value = null;
+			size--;
+			updateMaxWeight(node);
 			return oldValue;
 		}
 		
@@ -125,6 +176,7 @@ public class Trie<V> {
 			node = parent;
 		}
 		size--;
+		updateMaxWeight(parent != null ? parent : node);
 		
 		return oldValue;
 	}
@@ -137,6 +189,55 @@ public class Trie<V> {
 		return node(prefix) != null;
 	}
 	
+	/**
+	 * 以prefix开头的单词中 权重最大的k个（按权重从大到小）
+	 * @param prefix
+	 * @param k
+	 */
+	public List<String> topK(String prefix, int k) {
+		List<String> keys = new ArrayList<>();
+		topK(prefix, k, (key, value, weight) -> {
+			keys.add(key);
+			return false;
+		});
+		return keys;
+	}
+	
+	/**
+	 * 以prefix开头的单词中 权重最大的k个（按权重从大到小访问 权重相同时顺序不确定）
+	 * @param prefix
+	 * @param k
+	 * @param visitor 返回true时停止
+	 */
+	public void topK(String prefix, int k, Visitor<V> visitor) {
+		if (k < 0) {
+			throw new IllegalArgumentException("k must not be negative.");
+		}
+		Node<V> node = node(prefix);
+		if (node == null || k == 0 || visitor == null) return;
+		
+		// 大顶堆 按优先级比较
+		BinaryHeap<Candidate<V>> heap = new BinaryHeap<>((c1, c2) -> Double.compare(c1.priority, c2.priority));
+		heap.add(new Candidate<>(node, node.maxWeight, false));
+		int count = 0;
+		while (!heap.isEmpty()) {
+			Candidate<V> candidate = heap.remove();
+			node = candidate.node;
+			if (candidate.word) {
+				if (visitor.visit(key(node), node.value, node.weight) || ++count == k) return;
+				continue;
+			}
+			// 展开子树：节点自己的单词和所有的子节点
+			if (node.word) {
+				heap.add(new Candidate<>(node, node.weight, true));
+			}
+			if (node.children == null) continue;
+			for (Node<V> child : node.children.values()) {
+				heap.add(new Candidate<>(child, child.maxWeight, false));
+			}
+		}
+	}
+	
 	/**
 	 * 通过字符串找到对应的节点
 	 * @param key
@@ -155,6 +256,112 @@ public class Trie<V> {
 		return node;
 	}
 	
+	/**
+	 * 与query的编辑距离不超过maxDistance的单词（最多limit个 按遍历顺序 不按距离排序）
+	 * @param query
+	 * @param maxDistance
+	 * @param limit
+	 */
+	public List<String> fuzzySearch(String query, int maxDistance, int limit) {
+		if (limit <= 0) {
+			throw new IllegalArgumentException("limit must be positive.");
+		}
+		List<String> keys = new ArrayList<>();
+		fuzzySearch(query, maxDistance, (key, value, distance) -> {
+			keys.add(key);
+			return keys.size() == limit;
+		});
+		return keys;
+	}
+	
+	/**
+	 * 与query的编辑距离不超过maxDistance的单词（按遍历顺序访问 不按距离排序）
+	 * @param query
+	 * @param maxDistance
+	 * @param visitor 返回true时停止
+	 */
+	public void fuzzySearch(String query, int maxDistance, FuzzyVisitor<V> visitor) {
+		keyCheck(query);
+		if (maxDistance < 0) {
+			throw new IllegalArgumentException("maxDistance must not be negative.");
+		}
+		if (root == null || visitor == null) return;
+		
+		fuzzySearch(root, 0, new FuzzyContext<>(query, maxDistance, visitor));
+	}
+	
+	/**
+	 * context.row(depth)是node这一行 计算每个子节点的下一行 最小值不超过maxDistance时继续往下走
+	 * @return visitor是否要求停止
+	 */
+	private boolean fuzzySearch(Node<V> node, int depth, FuzzyContext<V> context) {
+		String query = context.query;
+		int m = query.length();
+		int maxDistance = context.maxDistance;
+		int[] row = context.row(depth);
+		if (node.word && row[m] <= maxDistance) {
+			if (context.visitor.visit(new String(context.path, 0, depth), node.value, row[m])) return true;
+		}
+		if (node.children == null || depth >= context.maxDepth) return false;
+		
+		int[] next = context.row(depth + 1);
+		for (Node<V> child : node.children.values()) {
+			char c = child.character;
+			next[0] = depth + 1;
+			int min = next[0];
+			for (int j = 1; j <= m; j++) {
+				int replace = row[j - 1] + (query.charAt(j - 1) == c ? 0 : 1);
+				next[j] = Math.min(replace, Math.min(row[j], next[j - 1]) + 1);
+				min = Math.min(min, next[j]);
+			}
+			if (min > maxDistance) continue; // 剪枝
+			
+			context.path[depth] = c;
+			if (fuzzySearch(child, depth + 1, context)) return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * 沿着parent还原出节点对应的字符串
+	 * @param node
+	 */
+	private String key(Node<V> node) {
+		int length = 0;
+		for (Node<V> n = node; n.parent != null; n = n.parent) {
+			length++;
+		}
+		char[] chars = new char[length];
+		for (Node<V> n = node; n.parent != null; n = n.parent) {
+			chars[--length] = n.character;
+		}
+		return new String(chars);
+	}
+	
+	/**
+	 * 从node开始往上重新计算maxWeight 某个节点没有变化时 它的祖先也不会变化
+	 * @param node
+	 */
+	private void updateMaxWeight(Node<V> node) {
+		for (; node != null; node = node.parent) {
+			double max = node.word ? node.weight : Double.NEGATIVE_INFINITY;
+			if (node.children != null) {
+				for (Node<V> child : node.children.values()) {
+					max = Math.max(max, child.maxWeight);
+				}
+			}
+			if (max == node.maxWeight) break;
+			node.maxWeight = max;
+		}
+	}
+	
+	/**
+	 * 根节点（给同一个包中基于Trie构建的结构使用 可能为null）
+	 */
+	Node<V> root() {
+		return root;
+	}
+	
 	/**
 	 * 非空check
 	 * @param key
@@ -171,16 +378,105 @@ public class Trie<V> {
 	 *
 	 * @param <V>
 	 */
-	private static class Node<V> {
-		private Node<V> parent;
-		private HashMap<Character, Node<V>> children;
-		private V value;
-		private Character character;
+	static class Node<V> {
+		Node<V> parent;
+		HashMap<Character, Node<V>> children;
+		V value;
+		Character character;
 		/* 是否为单词的结尾 */
-		private boolean word;
+		boolean word;
+		/* 单词的权重、子树（包括自己）中最大的权重 */
+		double weight;
+		double maxWeight = Double.NEGATIVE_INFINITY;
 		
 		public Node(Node<V> parent) {
 			this.parent = parent;
 		}
 	}
+	
+	/**
+	 * topK中堆里的元素：一棵子树或者一个单词
+	 */
+	private static class Candidate<V> {
+		Node<V> node;
+		double priority;
+		boolean word;
+		
+		Candidate(Node<V> node, double priority, boolean word) {
+			this.node = node;
+			this.priority = priority;
+			this.word = word;
+		}
+	}
+	
+	/**
+	 * fuzzySearch的状态：每一层的行和路径上的字符
+	 * 深度超过 query.length() + maxDistance 时一行中的最小值一定超过maxDistance
+	 * 但maxDistance可能非常大 所以行是走到那一层时才分配的（之后复用） 数量不会超过Trie的高度
+	 */
+	private static class FuzzyContext<V> {
+		final String query;
+		final int maxDistance;
+		final int maxDepth;
+		final FuzzyVisitor<V> visitor;
+		int[][] rows;
+		char[] path;
+		
+		FuzzyContext(String query, int maxDistance, FuzzyVisitor<V> visitor) {
+			this.query = query;
+			this.maxDistance = maxDistance;
+			this.maxDepth = (int) Math.min((long) query.length() + maxDistance, Integer.MAX_VALUE - 1);
+			this.visitor = visitor;
+			int m = query.length();
+			rows = new int[Math.min(maxDepth, m << 1) + 1][];
+			path = new char[rows.length];
+			rows[0] = new int[m + 1];
+			for (int j = 0; j <= m; j++) {
+				rows[0][j] = j;
+			}
+		}
+		
+		/**
+		 * 第depth层的行（depth不会超过maxDepth）
+		 */
+		int[] row(int depth) {
+			if (depth == rows.length) {
+				int length = (int) Math.min((long) depth << 1, (long) maxDepth + 1);
+				rows = Arrays.copyOf(rows, length);
+				path = Arrays.copyOf(path, length);
+			}
+			if (rows[depth] == null) {
+				rows[depth] = new int[query.length() + 1];
+			}
+			return rows[depth];
+		}
+	}
+	
+	/**
+	 * topK的访问器
+	 */
+	@FunctionalInterface
+	public static interface Visitor<V> {
+		/**
+		 * @param key 单词
+		 * @param value 单词对应的值
+		 * @param weight 单词的权重
+		 * @return 是否停止
+		 */
+		boolean visit(String key, V value, double weight);
+	}
+	
+	/**
+	 * fuzzySearch的访问器
+	 */
+	@FunctionalInterface
+	public static interface FuzzyVisitor<V> {
+		/**
+		 * @param key 单词
+		 * @param value 单词对应的值
+		 * @param distance 与查询串的编辑距离
+		 * @return 是否停止
+		 */
+		boolean visit(String key, V value, int distance);
+	}
 }
@@ -0,0 +1,253 @@
+package struct.trie;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import struct.trie.base.AbstractDoubleArrayTrie;
+
+/**
+ * TrieSnapshot 字典树快照（只读）
+ *
+ * 把DoubleArrayTrie原样写进文件 打开时整个文件映射到内存（MappedByteBuffer） 不做任何反序列化
+ * 查找直接在映射的内存上进行（与DoubleArrayTrie共用AbstractDoubleArrayTrie中的查找逻辑） 只有取值时才解码对应的那一段字节
+ * 打开几乎不花时间 多个进程打开同一个文件时共享操作系统的页缓存
+ *
+ * 文件布局（大端）：
+ * ◼ 头部：MAGIC(8) VERSION(4) 单词数量size(4) 数组长度n(4) 值的总字节数(4)
+ * ◼ base：int[n]
+ * ◼ check：int[n]
+ * ◼ 值的偏移表：int[size * 2] 每个值的（偏移、长度） 长度为-1表示null
+ * ◼ 值：编码之后的字节依次排列（字符串表）
+ * 整个文件不能超过2GB（一个MappedByteBuffer的上限）
+ *
+ * @author avril
+ *
+ * @param <V>
+ */
+@SuppressWarnings("unchecked")
+public class TrieSnapshot<V> extends AbstractDoubleArrayTrie<V> {
+	/* 文件标识（"TRIESNAP"） */
+	private static final long MAGIC = 0x54524945534e4150L;
+	private static final int VERSION = 1;
+
+	/* 头部的布局 */
+	private static final int HEADER_VERSION = 8;
+	private static final int HEADER_COUNT = 12;
+	private static final int HEADER_CAPACITY = 16;
+	private static final int HEADER_VALUE_BYTES = 20;
+	private static final int HEADER = 24;
+
+	/* null值的长度 */
+	private static final int NULL_LENGTH = -1;
+
+	/**
+	 * 字符串值的编码（UTF-8）
+	 */
+	public static final Codec<String> UTF_8 = new Codec<String>() {
+		@Override
+		public byte[] encode(String value) {
+			return value.getBytes(StandardCharsets.UTF_8);
+		}
+
+		@Override
+		public String decode(byte[] bytes) {
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+	};
+
+	private final int capacity;
+	private final IntBuffer base;
+	private final IntBuffer check;
+	private final IntBuffer offsets;
+	private final ByteBuffer data;
+	private final Codec<V> codec;
+
+	private TrieSnapshot(MappedByteBuffer buffer, Codec<V> codec) {
+		this.codec = codec;
+		size = buffer.getInt(HEADER_COUNT);
+		capacity = buffer.getInt(HEADER_CAPACITY);
+		int valueBytes = buffer.getInt(HEADER_VALUE_BYTES);
+		int position = HEADER;
+		base = slice(buffer, position, capacity * 4).asIntBuffer();
+		position += capacity * 4;
+		check = slice(buffer, position, capacity * 4).asIntBuffer();
+		position += capacity * 4;
+		offsets = slice(buffer, position, size * 8).asIntBuffer();
+		position += size * 8;
+		data = slice(buffer, position, valueBytes);
+	}
+
+	/**
+	 * 冻结Trie并写入文件（字符串值 UTF-8编码）
+	 * @param trie
+	 * @param file
+	 */
+	public static void write(Trie<String> trie, File file) throws IOException {
+		write(trie, file, UTF_8);
+	}
+
+	/**
+	 * 冻结Trie并写入文件
+	 * @param trie
+	 * @param file
+	 * @param codec 值的编码
+	 */
+	public static <V> void write(Trie<V> trie, File file, Codec<V> codec) throws IOException {
+		write(new DoubleArrayTrie<>(trie), file, codec);
+	}
+
+	/**
+	 * 把DoubleArrayTrie写入文件
+	 * 先写到临时文件（文件名.tmp）再改名 已经打开了旧文件的进程不受影响
+	 * @param trie
+	 * @param file
+	 * @param codec 值的编码
+	 */
+	public static <V> void write(DoubleArrayTrie<V> trie, File file, Codec<V> codec) throws IOException {
+		if (trie == null || file == null || codec == null) {
+			throw new IllegalArgumentException("trie, file and codec must not be null.");
+		}
+		int[] base = trie.baseArray();
+		int[] check = trie.checkArray();
+		Object[] values = trie.values();
+
+		// 先编码所有的值 算出总长度
+		byte[][] encoded = new byte[values.length][];
+		long valueBytes = 0;
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] == null) continue;
+			encoded[i] = codec.encode((V) values[i]);
+			valueBytes += encoded[i].length;
+		}
+		long total = HEADER + (long) base.length * 8 + (long) values.length * 8 + valueBytes;
+		if (total > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("snapshot is too large: " + total + " bytes.");
+		}
+
+		File tmp = new File(file.getPath() + ".tmp");
+		try (FileOutputStream fos = new FileOutputStream(tmp);
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos, 1 << 16))) {
+			out.writeLong(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(values.length);
+			out.writeInt(base.length);
+			out.writeInt((int) valueBytes);
+			for (int b : base) {
+				out.writeInt(b);
+			}
+			for (int c : check) {
+				out.writeInt(c);
+			}
+			int offset = 0;
+			for (byte[] bytes : encoded) {
+				out.writeInt(offset);
+				out.writeInt(bytes == null ? NULL_LENGTH : bytes.length);
+				if (bytes != null) offset += bytes.length;
+			}
+			for (byte[] bytes : encoded) {
+				if (bytes != null) out.write(bytes);
+			}
+			out.flush();
+			fos.getFD().sync();
+		}
+		Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * 打开快照文件（字符串值 UTF-8编码）
+	 * @param file
+	 */
+	public static TrieSnapshot<String> open(File file) throws IOException {
+		return open(file, UTF_8);
+	}
+
+	/**
+	 * 打开快照文件 映射之后文件通道就关闭了 映射在对象被回收之前一直有效
+	 * @param file
+	 * @param codec 值的编码（必须与写入时相同）
+	 */
+	public static <V> TrieSnapshot<V> open(File file, Codec<V> codec) throws IOException {
+		if (file == null || codec == null) {
+			throw new IllegalArgumentException("file and codec must not be null.");
+		}
+		MappedByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			long length = channel.size();
+			if (length < HEADER || length > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException("file is not a TrieSnapshot.");
+			}
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+		}
+		if (buffer.getLong(0) != MAGIC) {
+			throw new IllegalArgumentException("file is not a TrieSnapshot.");
+		}
+		if (buffer.getInt(HEADER_VERSION) != VERSION) {
+			throw new IllegalArgumentException("unsupported TrieSnapshot version: " + buffer.getInt(HEADER_VERSION));
+		}
+		long expected = HEADER + (long) buffer.getInt(HEADER_CAPACITY) * 8 + (long) buffer.getInt(HEADER_COUNT) * 8
+				+ buffer.getInt(HEADER_VALUE_BYTES);
+		if (expected != buffer.capacity()) {
+			throw new IllegalArgumentException("TrieSnapshot is truncated or corrupted.");
+		}
+		return new TrieSnapshot<>(buffer, codec);
+	}
+
+	@Override
+	public int capacity() {
+		return capacity;
+	}
+
+	@Override
+	protected int base(int state) {
+		return base.get(state);
+	}
+
+	@Override
+	protected int check(int state) {
+		return check.get(state);
+	}
+
+	/**
+	 * 解码第index个值（解码时才会创建对象）
+	 */
+	@Override
+	protected V value(int index) {
+		int length = offsets.get(index * 2 + 1);
+		if (length == NULL_LENGTH) return null;
+		byte[] bytes = new byte[length];
+		ByteBuffer duplicate = data.duplicate(); // 不改变共享的position 多个线程可以同时读
+		duplicate.position(offsets.get(index * 2));
+		duplicate.get(bytes);
+		return codec.decode(bytes);
+	}
+
+	/**
+	 * buffer中[position, position + length)这一段
+	 */
+	private static ByteBuffer slice(ByteBuffer buffer, int position, int length) {
+		ByteBuffer duplicate = buffer.duplicate();
+		duplicate.position(position);
+		duplicate.limit(position + length);
+		return duplicate.slice();
+	}
+
+	/**
+	 * 值的编码
+	 */
+	public static interface Codec<V> {
+		byte[] encode(V value);
+
+		V decode(byte[] bytes);
+	}
+}
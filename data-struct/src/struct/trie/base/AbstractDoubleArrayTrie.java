@@ -0,0 +1,181 @@
+package struct.trie.base;
+
+/**
+ * AbstractDoubleArrayTrie 双数组字典树的查找
+ *
+ * ◼ 每个状态占用base、check数组中的一个位置 根状态为1
+ * ◼ 状态s读入字符c：t = base[s] + code(c) 如果check[t] == s 就转移到t 否则说明没有这条边
+ * ◼ code(c) = c + 1 code为0的边表示单词结尾 它指向的位置的base存放 -(值的下标 + 1)
+ * 查找时每个字符只需要访问两次数组 不创建任何对象
+ *
+ * 子类只负责数组和值存放在哪里（堆内的int[]、映射文件中的IntBuffer） 查找的逻辑只有这一份
+ *
+ * @author avril
+ *
+ * @param <V>
+ */
+public abstract class AbstractDoubleArrayTrie<V> {
+	/* 根状态 */
+	protected static final int ROOT = 1;
+
+	/* 单词结尾的code */
+	protected static final int TERMINAL = 0;
+
+	/* 数量 */
+	protected int size;
+
+	/**
+	 * 元素数量
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * 是否为空
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * 获取key所对应的值
+	 * @param key
+	 */
+	public V get(String key) {
+		int state = state(key);
+		if (state < 0) return null;
+		int index = valueIndex(state);
+		return index < 0 ? null : value(index);
+	}
+
+	/**
+	 * 是否包含字符串
+	 * @param key
+	 */
+	public boolean contains(String key) {
+		int state = state(key);
+		return state >= 0 && valueIndex(state) >= 0;
+	}
+
+	/**
+	 * 是否含有指定前缀（每个状态下面都至少有一个单词）
+	 * @param prefix
+	 */
+	public boolean startWith(String prefix) {
+		return state(prefix) >= 0;
+	}
+
+	/**
+	 * 公共前缀查找：从text的from位置开始 依次访问所有是单词的前缀（从短到长）
+	 * 例如词典中有 a、ab、abc 在"abcd"中查找会依次访问长度为1、2、3的前缀
+	 * @param text
+	 * @param from
+	 * @param visitor 返回true时停止
+	 */
+	public void commonPrefixSearch(CharSequence text, int from, Visitor<V> visitor) {
+		textCheck(text, from);
+		if (visitor == null) return;
+		int state = ROOT;
+		int length = text.length();
+		for (int i = from; i < length; i++) {
+			state = transition(state, text.charAt(i) + 1);
+			if (state < 0) return;
+			int index = valueIndex(state);
+			if (index >= 0 && visitor.visit(i + 1 - from, value(index))) return;
+		}
+	}
+
+	/**
+	 * 从text的from位置开始 最长的是单词的前缀的长度（没有时返回0）
+	 * 可以用于最大匹配分词
+	 * @param text
+	 * @param from
+	 */
+	public int longestPrefix(CharSequence text, int from) {
+		textCheck(text, from);
+		int state = ROOT;
+		int longest = 0;
+		int length = text.length();
+		for (int i = from; i < length; i++) {
+			state = transition(state, text.charAt(i) + 1);
+			if (state < 0) break;
+			if (valueIndex(state) >= 0) longest = i + 1 - from;
+		}
+		return longest;
+	}
+
+	/**
+	 * base、check数组的长度
+	 */
+	public abstract int capacity();
+
+	/**
+	 * base[state]
+	 */
+	protected abstract int base(int state);
+
+	/**
+	 * check[state]
+	 */
+	protected abstract int check(int state);
+
+	/**
+	 * 第index个值
+	 */
+	protected abstract V value(int index);
+
+	/**
+	 * 字符串对应的状态（不存在时返回-1）
+	 * @param key
+	 */
+	private int state(String key) {
+		if (key == null || key.length() == 0) {
+			throw new IllegalArgumentException("key must not be empty.");
+		}
+		int state = ROOT;
+		int len = key.length();
+		for (int i = 0; i < len && state >= 0; i++) {
+			state = transition(state, key.charAt(i) + 1);
+		}
+		return state;
+	}
+
+	/**
+	 * 状态state读入code之后的状态（没有这条边时返回-1）
+	 */
+	private int transition(int state, int code) {
+		int t = base(state) + code;
+		return t < capacity() && check(t) == state ? t : -1;
+	}
+
+	/**
+	 * 状态state是单词结尾时 返回值的下标 否则返回-1
+	 */
+	private int valueIndex(int state) {
+		int t = base(state) + TERMINAL;
+		return t < capacity() && check(t) == state ? -base(t) - 1 : -1;
+	}
+
+	private void textCheck(CharSequence text, int from) {
+		if (text == null) {
+			throw new IllegalArgumentException("text must not be null.");
+		}
+		if (from < 0 || from > text.length()) {
+			throw new IndexOutOfBoundsException("from: " + from + ", length: " + text.length());
+		}
+	}
+
+	/**
+	 * 公共前缀查找的访问器
+	 */
+	@FunctionalInterface
+	public static interface Visitor<V> {
+		/**
+		 * @param length 前缀的长度
+		 * @param value 前缀对应的值
+		 * @return 是否停止
+		 */
+		boolean visit(int length, V value);
+	}
+}
@@ -0,0 +1,128 @@
+package test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import struct.map.disk.DiskBPlusTreeMap;
+
+/**
+ * DiskBPlusTreeMap 崩溃恢复测试
+ * 通过复制"崩溃那一刻"的数据文件和日志文件来模拟崩溃 然后重新打开 检查内容
+ *
+ * @author avril
+ *
+ */
+public class DiskBPlusTreeRecoveryTest {
+
+	public static void main(String[] args) throws IOException {
+		File dir = Files.createTempDirectory("recovery").toFile();
+		try {
+			crashBeforeFirstCommit(dir);
+			tornLogTail(dir);
+			System.out.println("DiskBPlusTreeRecoveryTest 通过");
+		} finally {
+			delete(dir);
+		}
+	}
+
+	/**
+	 * 第一次创建时在提交之前崩溃：数据文件已经被映射成1MB的0 日志是空的
+	 * 重新打开时应该当作新文件 而不是报错
+	 */
+	static void crashBeforeFirstCommit(File dir) throws IOException {
+		File file = new File(dir, "zero.db");
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(1 << 20);
+		}
+		new File(dir, "zero.db.wal").createNewFile();
+
+		try (DiskBPlusTreeMap map = new DiskBPlusTreeMap(file)) {
+			check(map.isEmpty(), "全部为0的文件应该当作新文件打开");
+			map.put(1L, value(1));
+		}
+		try (DiskBPlusTreeMap map = new DiskBPlusTreeMap(file)) {
+			check(map.size() == 1 && equals(map.get(1L), value(1)), "重新打开之后数据丢失");
+		}
+	}
+
+	/**
+	 * 已经提交的事务只在日志中（数据文件还是上次检查点时的样子） 日志末尾还有一条写了一半的记录
+	 * 重新打开时：提交过的事务全部恢复 没有提交的修改和不完整的记录被丢弃 之后还能继续提交
+	 */
+	static void tornLogTail(File dir) throws IOException {
+		File file = new File(dir, "torn.db");
+		File wal = new File(dir, "torn.db.wal");
+		File crashed = new File(dir, "crashed.db");
+		File crashedWal = new File(dir, "crashed.db.wal");
+
+		try (DiskBPlusTreeMap map = new DiskBPlusTreeMap(file)) {
+			for (long i = 0; i < 100; i++) {
+				map.put(i, value(i));
+			}
+		}
+		// 上次检查点时的数据文件
+		Files.copy(file.toPath(), crashed.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+		DiskBPlusTreeMap map = new DiskBPlusTreeMap(file);
+		try {
+			for (long i = 100; i < 200; i++) { // 每次put都提交一次 只写进了日志
+				map.put(i, value(i));
+			}
+			map.setAutoCommit(false);
+			for (long i = 200; i < 210; i++) { // 没有提交
+				map.put(i, value(i));
+			}
+			// 崩溃那一刻的日志 末尾再加上写了一半的页记录
+			Files.copy(wal.toPath(), crashedWal.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			try (FileOutputStream out = new FileOutputStream(crashedWal, true)) {
+				byte[] partial = new byte[100];
+				partial[0] = 1; // 页记录
+				out.write(partial);
+			}
+		} finally {
+			map.rollback();
+			map.close();
+		}
+
+		try (DiskBPlusTreeMap recovered = new DiskBPlusTreeMap(crashed)) {
+			check(recovered.size() == 200, "恢复之后的数量不对：" + recovered.size());
+			for (long i = 0; i < 200; i++) {
+				check(equals(recovered.get(i), value(i)), "已经提交的key丢失：" + i);
+			}
+			for (long i = 200; i < 210; i++) {
+				check(recovered.get(i) == null, "没有提交的key不应该存在：" + i);
+			}
+			recovered.put(300L, value(300));
+		}
+		check(crashedWal.length() == 0, "关闭之后日志应该为空");
+		try (DiskBPlusTreeMap reopened = new DiskBPlusTreeMap(crashed)) {
+			check(reopened.size() == 201 && equals(reopened.get(300L), value(300)), "恢复之后提交的修改丢失");
+		}
+	}
+
+	private static byte[] value(long key) {
+		return ("v" + key).getBytes();
+	}
+
+	private static boolean equals(byte[] b1, byte[] b2) {
+		return b1 != null && java.util.Arrays.equals(b1, b2);
+	}
+
+	private static void check(boolean value, String message) {
+		if (!value) throw new IllegalStateException(message);
+	}
+
+	private static void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+}
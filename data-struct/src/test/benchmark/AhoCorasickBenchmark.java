@@ -0,0 +1,85 @@
+package test.benchmark;
+
+import java.util.Random;
+
+import struct.trie.AhoCorasick;
+import struct.trie.Trie;
+import test.util.Times;
+
+/**
+ * 在日志文本中查找几千个关键词：
+ * 从每个位置开始用Trie.startWith、contains逐个前缀尝试 与AhoCorasick（稀疏、稠密模式）扫描一遍的对比
+ *
+ * @author avril
+ *
+ */
+public class AhoCorasickBenchmark {
+	/* 关键词数量 */
+	private static final int KEYWORDS = 5_000;
+
+	/* 文本长度 */
+	private static final int TEXT_LENGTH = 4 << 20;
+
+	private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz";
+
+	public static void main(String[] args) {
+		Random random = new Random(20);
+		Trie<Integer> trie = new Trie<>();
+		int maxLength = 0;
+		for (int i = 0; i < KEYWORDS; i++) {
+			String keyword = word(random, 4 + random.nextInt(7));
+			trie.add(keyword, i);
+			maxLength = Math.max(maxLength, keyword.length());
+		}
+
+		StringBuilder sb = new StringBuilder(TEXT_LENGTH + 16);
+		while (sb.length() < TEXT_LENGTH) {
+			sb.append(word(random, 2 + random.nextInt(8))).append(random.nextInt(8) == 0 ? '\n' : ' ');
+		}
+		String text = sb.toString();
+
+		int max = maxLength;
+		Times.test("Trie.startWith/contains 从每个位置开始", () -> {
+			int count = 0;
+			for (int i = 0; i < text.length(); i++) {
+				for (int length = 1; length <= max && i + length <= text.length(); length++) {
+					String prefix = text.substring(i, i + length);
+					if (!trie.startWith(prefix)) break;
+					if (trie.contains(prefix)) count++;
+				}
+			}
+			System.out.println("count = " + count);
+		});
+
+		AhoCorasick<Integer> sparse = new AhoCorasick<>(trie);
+		System.out.println("states = " + sparse.stateCount());
+		Times.test("AhoCorasick 稀疏模式", () -> {
+			int[] count = { 0 };
+			sparse.search(text, (begin, keyword, value) -> {
+				count[0]++;
+				return false;
+			});
+			System.out.println("count = " + count[0]);
+		});
+
+		AhoCorasick<Integer> dense = new AhoCorasick<>(trie, ALPHABET);
+		Times.test("AhoCorasick 稠密模式", () -> {
+			int[] count = { 0 };
+			dense.search(text, (begin, keyword, value) -> {
+				count[0]++;
+				return false;
+			});
+			System.out.println("count = " + count[0]);
+		});
+	}
+
+	private static String word(Random random, int length) {
+		char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			// 前几个字母出现得更频繁 让关键词之间有更多公共前缀
+			int index = Math.min(random.nextInt(ALPHABET.length()), random.nextInt(ALPHABET.length()));
+			chars[i] = ALPHABET.charAt(index);
+		}
+		return new String(chars);
+	}
+}
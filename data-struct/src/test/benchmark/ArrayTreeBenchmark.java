@@ -0,0 +1,88 @@
+package test.benchmark;
+
+import struct.tree.AVLTree;
+import struct.tree.RedBlackTree;
+import struct.tree.array.IntAVLTree;
+import struct.tree.array.IntRedBlackTree;
+import test.util.Times;
+
+/**
+ * 节点对象版（AVLTree、RedBlackTree） 与数组存储版（IntAVLTree、IntRedBlackTree） 的内存和性能对比
+ *
+ * @author avril
+ *
+ */
+public class ArrayTreeBenchmark {
+
+	public static void main(String[] args) {
+		int count = 2_000_000;
+		int[] keys = new int[count];
+		for (int i = 0; i < count; i++) {
+			keys[i] = (int) ((i * 2654435761L) & 0x7fffffff);
+		}
+
+		long before = usedMemory();
+		AVLTree<Integer> avl = new AVLTree<>();
+		Times.test("AVLTree add " + count, () -> {
+			for (int key : keys) {
+				avl.add(key);
+			}
+		});
+		System.out.println("AVLTree memory = " + (usedMemory() - before) / count + " bytes/key");
+		Times.test("AVLTree contains " + count, () -> {
+			int found = 0;
+			for (int key : keys) {
+				if (avl.contains(key)) found++;
+			}
+			System.out.println("found = " + found);
+		});
+		avl.clear();
+
+		before = usedMemory();
+		IntAVLTree intAvl = new IntAVLTree();
+		Times.test("IntAVLTree add " + count, () -> {
+			for (int key : keys) {
+				intAvl.add(key);
+			}
+		});
+		System.out.println("IntAVLTree memory = " + (usedMemory() - before) / count + " bytes/key");
+		Times.test("IntAVLTree contains " + count, () -> {
+			int found = 0;
+			for (int key : keys) {
+				if (intAvl.contains(key)) found++;
+			}
+			System.out.println("found = " + found);
+		});
+		intAvl.clear();
+
+		before = usedMemory();
+		RedBlackTree<Integer> rb = new RedBlackTree<>();
+		Times.test("RedBlackTree add " + count, () -> {
+			for (int key : keys) {
+				rb.add(key);
+			}
+		});
+		System.out.println("RedBlackTree memory = " + (usedMemory() - before) / count + " bytes/key");
+		rb.clear();
+
+		before = usedMemory();
+		IntRedBlackTree intRb = new IntRedBlackTree();
+		Times.test("IntRedBlackTree add " + count, () -> {
+			for (int key : keys) {
+				intRb.add(key);
+			}
+		});
+		System.out.println("IntRedBlackTree memory = " + (usedMemory() - before) / count + " bytes/key");
+	}
+
+	/**
+	 * 垃圾回收之后已经使用的堆内存
+	 */
+	static long usedMemory() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
@@ -0,0 +1,109 @@
+package test.benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import struct.map.BPlusTreeMap;
+import struct.map.TreeMap;
+import struct.map.base.Map;
+import test.util.Times;
+
+/**
+ * TreeMap（红黑树） 与不同阶数的BPlusTreeMap 的点查询、范围查询对比
+ *
+ * @author avril
+ *
+ */
+public class BPlusTreeBenchmark {
+	/* 键值对数量 */
+	private static final int COUNT = 1_000_000;
+
+	/* 查询次数 */
+	private static final int QUERIES = 1_000_000;
+
+	/* 范围查询的次数、每次范围内的key数量 */
+	private static final int RANGES = 20_000;
+	private static final int RANGE_LENGTH = 100;
+
+	public static void main(String[] args) {
+		Random random = new Random(11);
+		Integer[] keys = new Integer[COUNT];
+		for (int i = 0; i < COUNT; i++) {
+			keys[i] = i * 2;
+		}
+		Integer[] shuffled = keys.clone();
+		for (int i = COUNT - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			Integer tmp = shuffled[i];
+			shuffled[i] = shuffled[j];
+			shuffled[j] = tmp;
+		}
+		int[] queries = new int[QUERIES];
+		for (int i = 0; i < QUERIES; i++) {
+			queries[i] = random.nextInt(COUNT * 2);
+		}
+
+		TreeMap<Integer, Integer> treeMap = new TreeMap<>();
+		test("TreeMap", treeMap, shuffled, queries);
+		Times.test("TreeMap range " + RANGES + " x " + RANGE_LENGTH, () -> {
+			long sum = 0;
+			for (int i = 0; i < RANGES; i++) {
+				int from = queries[i];
+				long[] s = { 0 };
+				treeMap.traversal(from, from + RANGE_LENGTH * 2, (k, v) -> {
+					s[0] += v;
+					return false;
+				});
+				sum += s[0];
+			}
+			System.out.println("sum = " + sum);
+		});
+		treeMap.clear();
+
+		for (int order : new int[] { 16, 64, 256 }) {
+			BPlusTreeMap<Integer, Integer> bPlusTree = new BPlusTreeMap<>(order);
+			test("BPlusTreeMap(" + order + ")", bPlusTree, shuffled, queries);
+			System.out.println("height = " + bPlusTree.height());
+			Times.test("BPlusTreeMap(" + order + ") range " + RANGES + " x " + RANGE_LENGTH, () -> {
+				long sum = 0;
+				for (int i = 0; i < RANGES; i++) {
+					int from = queries[i];
+					long[] s = { 0 };
+					bPlusTree.traversal(from, from + RANGE_LENGTH * 2, (k, v) -> {
+						s[0] += v;
+						return false;
+					});
+					sum += s[0];
+				}
+				System.out.println("sum = " + sum);
+			});
+			bPlusTree.clear();
+		}
+
+		Integer[] values = Arrays.copyOf(keys, COUNT);
+		Times.test("TreeMap.fromSorted " + COUNT, () -> {
+			TreeMap.fromSorted(keys, values, null);
+		});
+		Times.test("BPlusTreeMap.fromSorted " + COUNT, () -> {
+			BPlusTreeMap.fromSorted(keys, values, null);
+		});
+	}
+
+	/**
+	 * 乱序插入所有的key 然后随机点查询（一半命中 一半不命中）
+	 */
+	private static void test(String name, Map<Integer, Integer> map, Integer[] keys, int[] queries) {
+		Times.test(name + " put " + keys.length, () -> {
+			for (Integer key : keys) {
+				map.put(key, key);
+			}
+		});
+		Times.test(name + " get " + queries.length, () -> {
+			int found = 0;
+			for (int query : queries) {
+				if (map.get(query) != null) found++;
+			}
+			System.out.println("found = " + found);
+		});
+	}
+}
@@ -0,0 +1,84 @@
+package test.benchmark;
+
+import java.util.Random;
+
+import struct.map.LinkedHashMap;
+import struct.map.TinyLfuCache;
+import struct.map.base.Map;
+
+/**
+ * 回放访问轨迹 对比 LRU（LinkedHashMap访问顺序模式） 与 W-TinyLFU 的命中率
+ * 
+ * 轨迹 = 服从Zipf分布的热点访问 + 周期性的扫描（每个key只出现一次）
+ *
+ * @author avril
+ *
+ */
+public class CacheTraceBenchmark {
+	private static final int HOT_KEYS = 100_000;
+	private static final int REQUESTS = 2_000_000;
+	/* 每隔多少次请求插入一次扫描 以及每次扫描的长度 */
+	private static final int SCAN_INTERVAL = 20_000;
+	private static final int SCAN_LENGTH = 10_000;
+
+	public static void main(String[] args) {
+		int[] trace = trace(new Random(42), 0.9);
+		int[] cacheSizes = { 1_000, 5_000, 20_000 };
+		for (int cacheSize : cacheSizes) {
+			replay("LRU", new LinkedHashMap<>(cacheSize), cacheSize, trace);
+			replay("W-TinyLFU", new TinyLfuCache<>(cacheSize), cacheSize, trace);
+		}
+	}
+
+	static void replay(String title, Map<Integer, Integer> cache, int cacheSize, int[] trace) {
+		long hits = 0;
+		for (int key : trace) {
+			if (cache.get(key) != null) {
+				hits++;
+			} else {
+				cache.put(key, key);
+			}
+		}
+		System.out.printf("【%s】 容量：%d 命中率：%.2f%%%n", title, 
+				cacheSize, hits * 100.0 / trace.length);
+	}
+
+	/**
+	 * 生成访问轨迹（扫描的key都是负数 不会和热点key重复）
+	 * @param random
+	 * @param skew Zipf分布的倾斜程度
+	 */
+	static int[] trace(Random random, double skew) {
+		// Zipf分布的累积概率
+		double[] cdf = new double[HOT_KEYS];
+		double sum = 0;
+		for (int i = 0; i < HOT_KEYS; i++) {
+			sum += 1 / Math.pow(i + 1, skew);
+			cdf[i] = sum;
+		}
+
+		int[] trace = new int[REQUESTS];
+		int scanKey = 0;
+		int i = 0;
+		while (i < REQUESTS) {
+			if (i % SCAN_INTERVAL == 0 && i > 0) {
+				for (int j = 0; j < SCAN_LENGTH && i < REQUESTS; j++) {
+					trace[i++] = --scanKey;
+				}
+				continue;
+			}
+			double target = random.nextDouble() * sum;
+			int begin = 0, end = HOT_KEYS - 1;
+			while (begin < end) {
+				int mid = (begin + end) >> 1;
+				if (cdf[mid] < target) {
+					begin = mid + 1;
+				} else {
+					end = mid;
+				}
+			}
+			trace[i++] = begin;
+		}
+		return trace;
+	}
+}
@@ -0,0 +1,69 @@
+package test.benchmark;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+import struct.map.ConcurrentHashMap;
+import struct.map.HashMap;
+import struct.map.base.Map;
+
+/**
+ * ConcurrentHashMap（分段锁） 与 全局锁包装的HashMap 的多线程吞吐量对比
+ * （90% get + 10% put）
+ *
+ * @author avril
+ *
+ */
+public class ConcurrentHashMapBenchmark {
+	private static final int KEY_COUNT = 1_000_000;
+	private static final int OPS_PER_THREAD = 2_000_000;
+
+	public static void main(String[] args) throws InterruptedException {
+		Integer[] keys = new Integer[KEY_COUNT];
+		for (int i = 0; i < KEY_COUNT; i++) {
+			keys[i] = i;
+		}
+
+		int[] threadCounts = { 1, 2, 4, 8 };
+		for (int threads : threadCounts) {
+			test("synchronized HashMap", new SynchronizedMap<>(new HashMap<>()), keys, threads);
+			test("ConcurrentHashMap", new ConcurrentHashMap<>(), keys, threads);
+		}
+	}
+
+	static void test(String title, Map<Integer, Integer> map, Integer[] keys, int threads) 
+			throws InterruptedException {
+		for (Integer key : keys) {
+			map.put(key, key);
+		}
+
+		CountDownLatch start = new CountDownLatch(1);
+		CountDownLatch end = new CountDownLatch(threads);
+		for (int t = 0; t < threads; t++) {
+			new Thread(() -> {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				for (int i = 0; i < OPS_PER_THREAD; i++) {
+					Integer key = keys[random.nextInt(keys.length)];
+					if (random.nextInt(10) == 0) {
+						map.put(key, i);
+					} else {
+						map.get(key);
+					}
+				}
+				end.countDown();
+			}).start();
+		}
+
+		long begin = System.nanoTime();
+		start.countDown();
+		end.await();
+		double seconds = (System.nanoTime() - begin) / 1e9;
+		long ops = (long) OPS_PER_THREAD * threads;
+		System.out.printf("【%s】 线程数：%d 吞吐量：%.0f ops/s%n", title, threads, ops / seconds);
+	}
+}
@@ -0,0 +1,131 @@
+package test.benchmark;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+import struct.map.TreeMap;
+import struct.map.disk.DiskBPlusTreeMap;
+import test.util.Times;
+
+/**
+ * 启动时间对比：重新打开DiskBPlusTreeMap 与 从文件中读出所有键值对重建TreeMap
+ * 以及批量提交、自动提交（每次修改都fsync）的写入速度
+ *
+ * @author avril
+ *
+ */
+public class DiskBPlusTreeBenchmark {
+	/* 键值对数量 */
+	private static final int COUNT = 1_000_000;
+
+	/* 每批提交的数量 */
+	private static final int BATCH = 10_000;
+
+	/* value长度 */
+	private static final int VALUE_SIZE = 16;
+
+	/* 查询次数 */
+	private static final int QUERIES = 200_000;
+
+	public static void main(String[] args) throws IOException {
+		File dir = Files.createTempDirectory("bplustree").toFile();
+		File dataFile = new File(dir, "data.db");
+		File dumpFile = new File(dir, "dump.bin");
+
+		Random random = new Random(18);
+		long[] keys = new long[COUNT];
+		for (int i = 0; i < COUNT; i++) {
+			keys[i] = random.nextLong();
+		}
+		long[] queries = new long[QUERIES];
+		for (int i = 0; i < QUERIES; i++) {
+			queries[i] = keys[random.nextInt(COUNT)];
+		}
+
+		Times.test("DiskBPlusTreeMap put " + COUNT + "（每" + BATCH + "个提交一次）", () -> {
+			try (DiskBPlusTreeMap map = new DiskBPlusTreeMap(dataFile, VALUE_SIZE, DiskBPlusTreeMap.DEFAULT_CACHE_PAGES)) {
+				map.setAutoCommit(false);
+				for (int i = 0; i < COUNT; i++) {
+					map.put(keys[i], value(keys[i]));
+					if ((i + 1) % BATCH == 0) map.commit();
+				}
+				System.out.println("height = " + map.height() + " pages = " + map.pageCount());
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		});
+		System.out.println("data file = " + (dataFile.length() >> 20) + "MB");
+
+		// 同样的数据 用最简单的顺序文件保存
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(dumpFile)))) {
+			for (long key : keys) {
+				byte[] value = value(key);
+				out.writeLong(key);
+				out.writeShort(value.length);
+				out.write(value);
+			}
+		}
+
+		Times.test("TreeMap 启动（读取" + COUNT + "个键值对并重建）+ get " + QUERIES, () -> {
+			TreeMap<Long, byte[]> map = new TreeMap<>();
+			try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(dumpFile)))) {
+				for (int i = 0; i < COUNT; i++) {
+					long key = in.readLong();
+					byte[] value = new byte[in.readShort()];
+					in.readFully(value);
+					map.put(key, value);
+				}
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+			int found = 0;
+			for (long query : queries) {
+				if (map.get(query) != null) found++;
+			}
+			System.out.println("found = " + found);
+		});
+
+		Times.test("DiskBPlusTreeMap 启动（打开文件）+ get " + QUERIES, () -> {
+			try (DiskBPlusTreeMap map = new DiskBPlusTreeMap(dataFile, VALUE_SIZE, DiskBPlusTreeMap.DEFAULT_CACHE_PAGES)) {
+				int found = 0;
+				for (long query : queries) {
+					if (map.get(query) != null) found++;
+				}
+				System.out.println("found = " + found);
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		});
+
+		Times.test("DiskBPlusTreeMap put 1000（自动提交 每次都fsync）", () -> {
+			try (DiskBPlusTreeMap map = new DiskBPlusTreeMap(dataFile, VALUE_SIZE, DiskBPlusTreeMap.DEFAULT_CACHE_PAGES)) {
+				for (int i = 0; i < 1000; i++) {
+					map.put((long) i, value(i));
+				}
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		});
+
+		for (File file : dir.listFiles()) {
+			file.delete();
+		}
+		dir.delete();
+	}
+
+	private static byte[] value(long key) {
+		byte[] value = new byte[VALUE_SIZE];
+		for (int i = 0; i < VALUE_SIZE; i++) {
+			value[i] = (byte) (key >>> (i & 7) * 8);
+		}
+		return value;
+	}
+}
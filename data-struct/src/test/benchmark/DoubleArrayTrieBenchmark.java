@@ -0,0 +1,126 @@
+package test.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import struct.trie.CompactTrie;
+import struct.trie.DoubleArrayTrie;
+import struct.trie.Trie;
+import test.util.Times;
+
+/**
+ * 只读词典：Trie、CompactTrie 与冻结之后的DoubleArrayTrie 的查找性能和内存对比
+ * 以及在文本中逐个位置做公共前缀查找（最大匹配分词的核心操作）
+ *
+ * @author avril
+ *
+ */
+public class DoubleArrayTrieBenchmark {
+	/* 单词数量 */
+	private static final int COUNT = 200_000;
+
+	/* 查找的轮数 */
+	private static final int ROUNDS = 10;
+
+	/* 文本长度 */
+	private static final int TEXT_LENGTH = 4 << 20;
+
+	private static final String ALPHABET = "etaoinshrdlcumwfgypbvkjxqz";
+
+	public static void main(String[] args) {
+		Random random = new Random(22);
+		String[] words = new String[COUNT];
+		for (int i = 0; i < COUNT; i++) {
+			words[i] = word(random, 4 + random.nextInt(9));
+		}
+		// 一半存在、一半不存在的查询
+		String[] queries = new String[COUNT];
+		for (int i = 0; i < COUNT; i++) {
+			queries[i] = (i & 1) == 0 ? words[random.nextInt(COUNT)] : word(random, 4 + random.nextInt(9));
+		}
+
+		Trie<Integer> trie = new Trie<>();
+		CompactTrie<Integer> compact = new CompactTrie<>();
+		for (int i = 0; i < COUNT; i++) {
+			trie.add(words[i], i);
+			compact.add(words[i], i);
+		}
+
+		long before = ArrayTreeBenchmark.usedMemory();
+		AtomicReference<DoubleArrayTrie<Integer>> holder = new AtomicReference<>();
+		Times.test("DoubleArrayTrie 冻结 " + trie.size(), () -> {
+			holder.set(new DoubleArrayTrie<>(trie));
+		});
+		DoubleArrayTrie<Integer> dat = holder.get();
+		System.out.println("DoubleArrayTrie capacity = " + dat.capacity() + " arrays = " + (dat.memoryBytes() >> 10)
+				+ "KB heap = " + ((ArrayTreeBenchmark.usedMemory() - before) >> 10) + "KB");
+
+		Times.test("Trie get " + COUNT * ROUNDS, () -> {
+			int found = 0;
+			for (int r = 0; r < ROUNDS; r++) {
+				for (String query : queries) {
+					if (trie.get(query) != null) found++;
+				}
+			}
+			System.out.println("found = " + found);
+		});
+		Times.test("CompactTrie get " + COUNT * ROUNDS, () -> {
+			int found = 0;
+			for (int r = 0; r < ROUNDS; r++) {
+				for (String query : queries) {
+					if (compact.get(query) != null) found++;
+				}
+			}
+			System.out.println("found = " + found);
+		});
+		Times.test("DoubleArrayTrie get " + COUNT * ROUNDS, () -> {
+			int found = 0;
+			for (int r = 0; r < ROUNDS; r++) {
+				for (String query : queries) {
+					if (dat.get(query) != null) found++;
+				}
+			}
+			System.out.println("found = " + found);
+		});
+
+		StringBuilder sb = new StringBuilder(TEXT_LENGTH + 16);
+		while (sb.length() < TEXT_LENGTH) {
+			sb.append(word(random, 2 + random.nextInt(10)));
+		}
+		String text = sb.toString();
+
+		Times.test("Trie.startWith/contains 公共前缀", () -> {
+			int count = 0;
+			for (int i = 0; i < text.length(); i++) {
+				for (int end = i + 1; end <= text.length(); end++) {
+					String prefix = text.substring(i, end);
+					if (!trie.startWith(prefix)) break;
+					if (trie.contains(prefix)) count++;
+				}
+			}
+			System.out.println("count = " + count);
+		});
+		Times.test("DoubleArrayTrie.commonPrefixSearch", () -> {
+			int[] count = { 0 };
+			for (int i = 0; i < text.length(); i++) {
+				dat.commonPrefixSearch(text, i, (length, value) -> {
+					count[0]++;
+					return false;
+				});
+			}
+			System.out.println("count = " + count[0]);
+		});
+	}
+
+	/**
+	 * 随机单词 靠前的字母出现得更频繁（更多公共前缀 接近真实的词典）
+	 */
+	private static String word(Random random, int length) {
+		char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			int index = Math.min(random.nextInt(ALPHABET.length()), random.nextInt(ALPHABET.length()));
+			chars[i] = ALPHABET.charAt(index);
+		}
+		return new String(chars);
+	}
+}
@@ -0,0 +1,60 @@
+package test.benchmark;
+
+import struct.map.HashMap;
+import struct.map.OpenAddressingHashMap;
+import struct.map.base.Map;
+import test.util.Times;
+
+/**
+ * HashMap（数组 + 红黑树） 与 OpenAddressingHashMap（开放定址） 的性能对比
+ * （10M的规模需要较大的堆内存 建议使用 -Xmx4g 运行）
+ *
+ * @author avril
+ *
+ */
+public class HashMapBenchmark {
+
+	public static void main(String[] args) {
+		int[] counts = { 1_000_000, 10_000_000 };
+		for (int count : counts) {
+			// 提前装箱 避免把装箱的耗时算进去
+			Integer[] keys = new Integer[count];
+			Integer[] misses = new Integer[count];
+			for (int i = 0; i < count; i++) {
+				keys[i] = i * 31;
+				misses[i] = i * 31 + 1;
+			}
+
+			test("HashMap " + count, new HashMap<>(), keys, misses);
+			test("OpenAddressingHashMap " + count, new OpenAddressingHashMap<>(), keys, misses);
+		}
+	}
+
+	static void test(String title, Map<Integer, Integer> map, Integer[] keys, Integer[] misses) {
+		Times.test(title + " put", () -> {
+			for (Integer key : keys) {
+				map.put(key, key);
+			}
+		});
+		Times.test(title + " get(hit)", () -> {
+			long sum = 0;
+			for (Integer key : keys) {
+				sum += map.get(key);
+			}
+			System.out.println("sum = " + sum);
+		});
+		Times.test(title + " get(miss)", () -> {
+			int found = 0;
+			for (Integer key : misses) {
+				if (map.get(key) != null) found++;
+			}
+			System.out.println("found = " + found);
+		});
+		Times.test(title + " remove", () -> {
+			for (Integer key : keys) {
+				map.remove(key);
+			}
+			System.out.println("size = " + map.size());
+		});
+	}
+}
@@ -0,0 +1,43 @@
+package test.benchmark;
+
+import struct.map.HashMap;
+
+/**
+ * HashMap 一次性扩容 与 渐进式扩容 的单次put最大耗时对比
+ * （GC停顿也会计入单次耗时 建议使用 -Xms4g -Xmx4g 运行）
+ *
+ * @author avril
+ *
+ */
+public class HashMapResizeBenchmark {
+
+	public static void main(String[] args) {
+		int count = 4_000_000;
+		Integer[] keys = new Integer[count];
+		for (int i = 0; i < count; i++) {
+			keys[i] = i;
+		}
+
+		// 预热
+		test("warm up", new HashMap<>(false), keys);
+		test("warm up", new HashMap<>(true), keys);
+
+		test("stop-the-world", new HashMap<>(false), keys);
+		test("incremental", new HashMap<>(true), keys);
+	}
+
+	static void test(String title, HashMap<Integer, Integer> map, Integer[] keys) {
+		long max = 0;
+		long total = 0;
+		for (Integer key : keys) {
+			long begin = System.nanoTime();
+			map.put(key, key);
+			long delta = System.nanoTime() - begin;
+			total += delta;
+			if (delta > max) max = delta;
+		}
+		System.out.println("【" + title + "】 size = " + map.size() 
+				+ " 总耗时： " + total / 1_000_000 + "ms"
+				+ " 单次最大耗时： " + max / 1000 + "μs");
+	}
+}
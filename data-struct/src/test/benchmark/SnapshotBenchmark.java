@@ -0,0 +1,72 @@
+package test.benchmark;
+
+import struct.map.PersistentTreeMap;
+import struct.map.SnapshotTreeMap;
+import struct.map.TreeMap;
+import test.util.Times;
+
+/**
+ * SnapshotTreeMap（持久化红黑树 O(1)快照） 与 TreeMap（每次快照深拷贝） 的对比
+ * 写线程不断更新 每隔interval次更新取一次快照交给读者
+ *
+ * @author avril
+ *
+ */
+public class SnapshotBenchmark {
+
+	public static void main(String[] args) {
+		int count = 1_000_000;
+		int updates = 200_000;
+		int interval = 1_000;
+
+		Integer[] keys = new Integer[count];
+		for (int i = 0; i < count; i++) {
+			keys[i] = i;
+		}
+
+		Times.test("TreeMap copy-on-snapshot " + count, () -> {
+			TreeMap<Integer, Integer> map = TreeMap.fromSorted(keys, keys, null);
+			long sum = 0;
+			for (int i = 0; i < updates; i++) {
+				map.put(keys[(i * 7919) % count], i);
+				if (i % interval == 0) {
+					TreeMap<Integer, Integer> snapshot = copy(map);
+					sum += snapshot.size();
+				}
+			}
+			System.out.println("sum = " + sum);
+		});
+
+		Times.test("SnapshotTreeMap " + count, () -> {
+			SnapshotTreeMap<Integer, Integer> map = new SnapshotTreeMap<>();
+			for (Integer key : keys) {
+				map.put(key, key);
+			}
+			long sum = 0;
+			for (int i = 0; i < updates; i++) {
+				map.put(keys[(i * 7919) % count], i);
+				if (i % interval == 0) {
+					PersistentTreeMap<Integer, Integer> snapshot = map.snapshot();
+					sum += snapshot.size();
+				}
+			}
+			System.out.println("sum = " + sum);
+		});
+	}
+
+	/**
+	 * 深拷贝（按顺序导出再O(n)批量构建 已经是TreeMap最快的拷贝方式）
+	 * @param map
+	 */
+	static TreeMap<Integer, Integer> copy(TreeMap<Integer, Integer> map) {
+		Integer[] keys = new Integer[map.size()];
+		Integer[] values = new Integer[map.size()];
+		int[] index = { 0 };
+		map.traversal((key, value) -> {
+			keys[index[0]] = key;
+			values[index[0]++] = value;
+			return false;
+		});
+		return TreeMap.fromSorted(keys, values, null);
+	}
+}
@@ -0,0 +1,63 @@
+package test.benchmark;
+
+import struct.map.base.Map;
+
+/**
+ * 用一把全局锁包装任意Map（作为并发Map的对照组）
+ *
+ * @author avril
+ *
+ * @param <K, V>
+ */
+public class SynchronizedMap<K, V> implements Map<K, V> {
+	private final Map<K, V> map;
+
+	public SynchronizedMap(Map<K, V> map) {
+		this.map = map;
+	}
+
+	@Override
+	public synchronized int size() {
+		return map.size();
+	}
+
+	@Override
+	public synchronized boolean isEmpty() {
+		return map.isEmpty();
+	}
+
+	@Override
+	public synchronized void clear() {
+		map.clear();
+	}
+
+	@Override
+	public synchronized V put(K key, V value) {
+		return map.put(key, value);
+	}
+
+	@Override
+	public synchronized V get(K key) {
+		return map.get(key);
+	}
+
+	@Override
+	public synchronized V remove(K key) {
+		return map.remove(key);
+	}
+
+	@Override
+	public synchronized boolean containsKey(K key) {
+		return map.containsKey(key);
+	}
+
+	@Override
+	public synchronized boolean containsValue(V value) {
+		return map.containsValue(value);
+	}
+
+	@Override
+	public synchronized void traversal(Visitor<K, V> visitor) {
+		map.traversal(visitor);
+	}
+}
@@ -0,0 +1,56 @@
+package test.benchmark;
+
+import struct.tree.RedBlackTree;
+import test.util.Times;
+
+/**
+ * RedBlackTree 基于join的批量操作 与逐个add、remove的对比
+ *
+ * @author avril
+ *
+ */
+public class TreeJoinBenchmark {
+
+	public static void main(String[] args) {
+		int count = 1_000_000;
+		Integer[] evens = new Integer[count];
+		Integer[] odds = new Integer[count];
+		for (int i = 0; i < count; i++) {
+			evens[i] = i * 2;
+			odds[i] = i * 2 + 1;
+		}
+
+		RedBlackTree<Integer> t1 = RedBlackTree.fromSorted(evens, null);
+		RedBlackTree<Integer> t2 = RedBlackTree.fromSorted(odds, null);
+		Times.test("add one by one " + count, () -> {
+			for (Integer odd : odds) {
+				t1.add(odd);
+			}
+			System.out.println("size = " + t1.size());
+		});
+
+		RedBlackTree<Integer> t3 = RedBlackTree.fromSorted(evens, null);
+		Times.test("union " + count, () -> {
+			t3.union(t2);
+			System.out.println("size = " + t3.size());
+		});
+
+		Times.test("remove one by one " + count, () -> {
+			for (int i = count; i < count * 2; i++) {
+				t1.remove(i);
+			}
+			System.out.println("size = " + t1.size());
+		});
+
+		Times.test("split " + count, () -> {
+			RedBlackTree<Integer> greater = t3.split(count);
+			System.out.println("size = " + t3.size() + ", " + greater.size());
+		});
+
+		RedBlackTree<Integer> small = RedBlackTree.fromSorted(new Integer[] { 1, 3, 5, 7 }, null);
+		Times.test("difference small " + count, () -> {
+			t3.difference(small);
+			System.out.println("size = " + t3.size());
+		});
+	}
+}
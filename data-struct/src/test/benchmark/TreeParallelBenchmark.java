@@ -0,0 +1,69 @@
+package test.benchmark;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import struct.tree.AVLTree;
+import struct.tree.RedBlackTree;
+import struct.tree.base.BinaryTree;
+import test.util.Times;
+
+/**
+ * BinaryTree 的并行操作（ForkJoin） 与单线程Visitor的对比
+ * （加速比取决于CPU核数 单核的机器上两者基本相同）
+ *
+ * @author avril
+ *
+ */
+public class TreeParallelBenchmark {
+
+	public static void main(String[] args) {
+		int count = 2_000_000;
+		System.out.println("parallelism = " + Runtime.getRuntime().availableProcessors());
+
+		AVLTree<Integer> avl = new AVLTree<>();
+		RedBlackTree<Integer> rb = new RedBlackTree<>();
+		for (int i = 0; i < count; i++) {
+			int value = (int) ((i * 2654435761L) & 0x7fffffff);
+			avl.add(value);
+			rb.add(value);
+		}
+
+		test("AVLTree " + count, avl);
+		test("RedBlackTree " + count, rb);
+	}
+
+	static void test(String title, BinaryTree<Integer> tree) {
+		Times.test(title + " inorder(Visitor)", () -> {
+			long[] sum = { 0 };
+			tree.inorderByRecursion(e -> sum[0] += work(e));
+			System.out.println("sum = " + sum[0]);
+		});
+		Times.test(title + " parallelTraversal", () -> {
+			LongAdder sum = new LongAdder();
+			tree.parallelTraversal(e -> sum.add(work(e)));
+			System.out.println("sum = " + sum.sum());
+		});
+		Times.test(title + " parallelReduce", () -> {
+			long sum = tree.parallelReduce(0L, e -> (long) work(e), Long::sum);
+			System.out.println("sum = " + sum);
+		});
+		Times.test(title + " parallelCount", () -> {
+			long found = tree.parallelCount(e -> (work(e) & 1) == 0);
+			System.out.println("found = " + found);
+		});
+	}
+
+	/**
+	 * 模拟每个元素上的计算量
+	 * @param e
+	 */
+	static int work(int e) {
+		int x = e;
+		for (int i = 0; i < 50; i++) {
+			x ^= x << 13;
+			x ^= x >>> 17;
+			x ^= x << 5;
+		}
+		return x & 0xffff;
+	}
+}
@@ -0,0 +1,95 @@
+package test.benchmark;
+
+import java.util.Random;
+
+import struct.trie.Trie;
+import test.util.Times;
+
+/**
+ * 拼写纠错：查找编辑距离不超过d的单词
+ * 逐个单词计算编辑距离 与Trie.fuzzySearch（逐行计算 + 剪枝） 的对比
+ *
+ * @author avril
+ *
+ */
+public class TrieFuzzyBenchmark {
+	/* 单词数量 */
+	private static final int COUNT = 200_000;
+
+	/* 查询次数 */
+	private static final int QUERIES = 200;
+
+	private static final String ALPHABET = "etaoinshrdlcumwfgypbvkjxqz";
+
+	public static void main(String[] args) {
+		Random random = new Random(25);
+		// 不重复的单词
+		String[] words = new String[COUNT];
+		Trie<Integer> trie = new Trie<>();
+		for (int i = 0; i < COUNT;) {
+			String word = word(random, 4 + random.nextInt(9));
+			if (trie.add(word, i) == null) words[i++] = word;
+		}
+		// 查询串：随机单词改错一个字符
+		String[] queries = new String[QUERIES];
+		for (int i = 0; i < QUERIES; i++) {
+			char[] chars = words[random.nextInt(COUNT)].toCharArray();
+			chars[random.nextInt(chars.length)] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+			queries[i] = new String(chars);
+		}
+
+		for (int d = 1; d <= 2; d++) {
+			int maxDistance = d;
+			Times.test("逐个单词计算编辑距离 d = " + d, () -> {
+				int count = 0;
+				for (String query : queries) {
+					for (String word : words) {
+						if (distance(word, query) <= maxDistance) count++;
+					}
+				}
+				System.out.println("count = " + count);
+			});
+			Times.test("Trie.fuzzySearch d = " + d, () -> {
+				int[] count = { 0 };
+				for (String query : queries) {
+					trie.fuzzySearch(query, maxDistance, (key, value, distance) -> {
+						count[0]++;
+						return false;
+					});
+				}
+				System.out.println("count = " + count[0]);
+			});
+		}
+	}
+
+	/**
+	 * 编辑距离（只保留两行）
+	 */
+	private static int distance(String a, String b) {
+		int[] prev = new int[b.length() + 1];
+		int[] cur = new int[b.length() + 1];
+		for (int j = 0; j <= b.length(); j++) {
+			prev[j] = j;
+		}
+		for (int i = 1; i <= a.length(); i++) {
+			cur[0] = i;
+			for (int j = 1; j <= b.length(); j++) {
+				int replace = prev[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+				cur[j] = Math.min(replace, Math.min(prev[j], cur[j - 1]) + 1);
+			}
+			int[] tmp = prev;
+			prev = cur;
+			cur = tmp;
+		}
+		return prev[b.length()];
+	}
+
+	private static String word(Random random, int length) {
+		char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			int index = Math.min(random.nextInt(ALPHABET.length()), random.nextInt(ALPHABET.length()));
+			chars[i] = ALPHABET.charAt(index);
+		}
+		return new String(chars);
+	}
+}
@@ -0,0 +1,78 @@
+package test.benchmark;
+
+import java.util.Random;
+
+import struct.trie.CompactTrie;
+import struct.trie.Trie;
+import test.util.Times;
+
+/**
+ * Trie（HashMap子节点） 与CompactTrie（路径压缩 + 有序数组子节点） 的内存和性能对比
+ *
+ * @author avril
+ *
+ */
+public class TrieMemoryBenchmark {
+	/* 单词数量 */
+	private static final int COUNT = 1_000_000;
+
+	private static final String ALPHABET = "etaoinshrdlcumwfgypbvkjxqz";
+
+	public static void main(String[] args) {
+		Random random = new Random(21);
+		String[] words = new String[COUNT];
+		long chars = 0;
+		for (int i = 0; i < COUNT; i++) {
+			words[i] = word(random);
+			chars += words[i].length();
+		}
+		System.out.println("words = " + COUNT + " chars = " + chars + "（char[]共" + (chars * 2 >> 20) + "MB）");
+
+		long before = ArrayTreeBenchmark.usedMemory();
+		Trie<Integer> trie = new Trie<>();
+		Times.test("Trie add " + COUNT, () -> {
+			for (int i = 0; i < COUNT; i++) {
+				trie.add(words[i], i);
+			}
+		});
+		System.out.println("Trie memory = " + ((ArrayTreeBenchmark.usedMemory() - before) >> 20) + "MB size = " + trie.size());
+		Times.test("Trie get " + COUNT, () -> {
+			int found = 0;
+			for (String word : words) {
+				if (trie.get(word) != null) found++;
+			}
+			System.out.println("found = " + found);
+		});
+		trie.clear();
+
+		before = ArrayTreeBenchmark.usedMemory();
+		CompactTrie<Integer> compact = new CompactTrie<>();
+		Times.test("CompactTrie add " + COUNT, () -> {
+			for (int i = 0; i < COUNT; i++) {
+				compact.add(words[i], i);
+			}
+		});
+		System.out.println("CompactTrie memory = " + ((ArrayTreeBenchmark.usedMemory() - before) >> 20) + "MB size = "
+				+ compact.size() + " nodes = " + compact.nodeCount());
+		Times.test("CompactTrie get " + COUNT, () -> {
+			int found = 0;
+			for (String word : words) {
+				if (compact.get(word) != null) found++;
+			}
+			System.out.println("found = " + found);
+		});
+	}
+
+	/**
+	 * 随机单词 靠前的字母出现得更频繁（更多公共前缀 接近真实的词典）
+	 */
+	private static String word(Random random) {
+		int length = 4 + random.nextInt(9);
+		char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			int index = Math.min(random.nextInt(ALPHABET.length()), random.nextInt(ALPHABET.length()));
+			chars[i] = ALPHABET.charAt(index);
+		}
+		return new String(chars);
+	}
+}
@@ -0,0 +1,100 @@
+package test.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import struct.trie.DoubleArrayTrie;
+import struct.trie.Trie;
+import struct.trie.TrieSnapshot;
+import test.util.Times;
+
+/**
+ * 进程启动时加载词典：从单词重新构建Trie 与打开TrieSnapshot（映射文件） 的对比
+ * 以及DoubleArrayTrie（堆内数组） 与TrieSnapshot（映射内存） 的查找性能对比
+ *
+ * @author avril
+ *
+ */
+public class TrieSnapshotBenchmark {
+	/* 单词数量 */
+	private static final int COUNT = 1_000_000;
+
+	/* 查找的轮数 */
+	private static final int ROUNDS = 5;
+
+	private static final String ALPHABET = "etaoinshrdlcumwfgypbvkjxqz";
+
+	public static void main(String[] args) throws IOException {
+		Random random = new Random(24);
+		String[] words = new String[COUNT];
+		for (int i = 0; i < COUNT; i++) {
+			words[i] = word(random, 4 + random.nextInt(9));
+		}
+
+		AtomicReference<Trie<String>> trie = new AtomicReference<>(new Trie<>());
+		Times.test("启动：重新构建Trie " + COUNT, () -> {
+			for (int i = 0; i < COUNT; i++) {
+				trie.get().add(words[i], "v" + i);
+			}
+		});
+
+		File file = File.createTempFile("trie", ".snapshot");
+		file.deleteOnExit();
+		DoubleArrayTrie<String> dat = new DoubleArrayTrie<>(trie.get());
+		trie.set(null);
+		Times.test("写入快照", () -> {
+			try {
+				TrieSnapshot.write(dat, file, TrieSnapshot.UTF_8);
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		});
+		System.out.println("file = " + (file.length() >> 10) + "KB");
+
+		AtomicReference<TrieSnapshot<String>> snapshot = new AtomicReference<>();
+		Times.test("启动：打开快照", () -> {
+			try {
+				snapshot.set(TrieSnapshot.open(file));
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		});
+
+		Times.test("DoubleArrayTrie contains " + COUNT * ROUNDS, () -> {
+			int found = 0;
+			for (int r = 0; r < ROUNDS; r++) {
+				for (String word : words) {
+					if (dat.contains(word)) found++;
+				}
+			}
+			System.out.println("found = " + found);
+		});
+		Times.test("TrieSnapshot contains " + COUNT * ROUNDS, () -> {
+			int found = 0;
+			for (int r = 0; r < ROUNDS; r++) {
+				for (String word : words) {
+					if (snapshot.get().contains(word)) found++;
+				}
+			}
+			System.out.println("found = " + found);
+		});
+		Times.test("TrieSnapshot get " + COUNT, () -> {
+			long length = 0;
+			for (String word : words) {
+				length += snapshot.get().get(word).length();
+			}
+			System.out.println("length = " + length);
+		});
+	}
+
+	private static String word(Random random, int length) {
+		char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			int index = Math.min(random.nextInt(ALPHABET.length()), random.nextInt(ALPHABET.length()));
+			chars[i] = ALPHABET.charAt(index);
+		}
+		return new String(chars);
+	}
+}
@@ -0,0 +1,95 @@
+package test.benchmark;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import struct.trie.Trie;
+import test.util.Times;
+
+/**
+ * 自动补全：取前缀下权重最大的k个单词
+ * 找出前缀下的所有单词再排序 与Trie.topK（最佳优先搜索）的对比
+ *
+ * @author avril
+ *
+ */
+public class TrieTopKBenchmark {
+	/* 单词数量 */
+	private static final int COUNT = 500_000;
+
+	/* 查询次数 */
+	private static final int QUERIES = 20_000;
+
+	private static final int K = 10;
+
+	private static final String ALPHABET = "etaoinshrdlcumwfgypbvkjxqz";
+
+	public static void main(String[] args) {
+		Random random = new Random(23);
+		Trie<Integer> trie = new Trie<>();
+		// 原来的做法：排好序的单词 前缀下的单词是连续的一段
+		TreeMap<String, Double> sorted = new TreeMap<>();
+		for (int i = 0; i < COUNT; i++) {
+			// 权重近似长尾分布：大部分单词的权重很小
+			double weight = Math.floor(1 / (random.nextDouble() + 1e-6));
+			String word = word(random, 3 + random.nextInt(10));
+			trie.add(word, i, weight);
+			sorted.put(word, weight);
+		}
+		int n = sorted.size();
+		String[] words = new String[n];
+		double[] weights = new double[n];
+		int i = 0;
+		for (Map.Entry<String, Double> entry : sorted.entrySet()) {
+			words[i] = entry.getKey();
+			weights[i++] = entry.getValue();
+		}
+
+		// 前缀长度1~3 短前缀下面的单词最多
+		String[] prefixes = new String[QUERIES];
+		for (i = 0; i < QUERIES; i++) {
+			prefixes[i] = word(random, 1 + random.nextInt(3));
+		}
+
+		Times.test("遍历前缀下所有单词 + 排序 " + QUERIES, () -> {
+			long checksum = 0;
+			for (String prefix : prefixes) {
+				int from = Arrays.binarySearch(words, 0, n, prefix);
+				from = from >= 0 ? from : -from - 1;
+				int to = from;
+				while (to < n && words[to].startsWith(prefix)) {
+					to++;
+				}
+				double[] candidates = Arrays.copyOfRange(weights, from, to);
+				Arrays.sort(candidates);
+				for (int j = candidates.length - 1; j >= Math.max(0, candidates.length - K); j--) {
+					checksum += (long) candidates[j];
+				}
+			}
+			System.out.println("checksum = " + checksum);
+		});
+
+		Times.test("Trie.topK " + QUERIES, () -> {
+			long[] checksum = { 0 };
+			for (String prefix : prefixes) {
+				trie.topK(prefix, K, (key, value, weight) -> {
+					checksum[0] += (long) weight;
+					return false;
+				});
+			}
+			System.out.println("checksum = " + checksum[0]);
+		});
+	}
+
+	private static String word(Random random, int length) {
+		char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			// 前几个字母出现得更频繁 让单词之间有更多公共前缀
+			int index = Math.min(random.nextInt(ALPHABET.length()), random.nextInt(ALPHABET.length()));
+			chars[i] = ALPHABET.charAt(index);
+		}
+		return new String(chars);
+	}
+}